@@ -5,18 +5,18 @@ import bpa.solvers.*;
 import bpa.solvers.commands.*;
 import java.awt.Color;
 import java.awt.Component;
-import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
-import java.util.Scanner;
 import java.util.Stack;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
@@ -134,6 +134,8 @@ public class MainFrame extends javax.swing.JFrame {
         applyIterativelyCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
         applyTripletStrategyCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
         applyLineStrategyCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
+        applyPatternStrategyCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
+        applyProbingCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
 
         fileChooser.setDialogTitle("");
         fileChooser.setMinimumSize(new java.awt.Dimension(424, 445));
@@ -314,6 +316,17 @@ public class MainFrame extends javax.swing.JFrame {
         applyLineStrategyCheckBoxMenuItem.setText("Apply Line Strategy");
         strategySettingsMenu.add(applyLineStrategyCheckBoxMenuItem);
 
+        applyPatternStrategyCheckBoxMenuItem.setText("Apply Pattern Strategy");
+        applyPatternStrategyCheckBoxMenuItem.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                applyPatternStrategyCheckBoxMenuItemActionPerformed(evt);
+            }
+        });
+        strategySettingsMenu.add(applyPatternStrategyCheckBoxMenuItem);
+
+        applyProbingCheckBoxMenuItem.setText("Apply Lookahead Probing");
+        strategySettingsMenu.add(applyProbingCheckBoxMenuItem);
+
         puzzleMenu.add(strategySettingsMenu);
 
         menuBar.add(puzzleMenu);
@@ -348,12 +361,19 @@ public class MainFrame extends javax.swing.JFrame {
         File selectedFile = chooseFile(JFileChooser.OPEN_DIALOG);
         if (selectedFile != null) {
             try {
-                Scanner scanner = new Scanner(selectedFile);
-                Grid grid = createGrid(scanner);
-                puzzlePanel.setModel(grid);
+                InputStream in = new FileInputStream(selectedFile);
+                try {
+                    Grid grid = createGrid(in);
+                    puzzlePanel.setModel(grid);
+                } finally {
+                    in.close();
+                }
             } catch (FileNotFoundException ex) {
                 System.err.println("MainFrame.openMenuItemActionPerformed: "
                         + "the chosen file cannot be found.");
+            } catch (IOException ex) {
+                System.err.println("MainFrame.openMenuItemActionPerformed: "
+                        + "the chosen file cannot be read.");
             }
             undoStack.clear();
             redoStack.clear();
@@ -376,10 +396,12 @@ public class MainFrame extends javax.swing.JFrame {
         File selectedFile = chooseFile(JFileChooser.SAVE_DIALOG);
         if (selectedFile != null) {
             try {
-                FileWriter fstream = new FileWriter(selectedFile);
-                BufferedWriter writer = new BufferedWriter(fstream);
-                writer.write(puzzlePanel.getModel().toString());
-                writer.close();
+                FileWriter writer = new FileWriter(selectedFile);
+                try {
+                    new GridWriter().write(puzzlePanel.getModel(), writer);
+                } finally {
+                    writer.close();
+                }
             }
             catch (IOException ex) {
                 System.err.println("MainFrame.saveMenuItemActionPerformed: An "
@@ -523,6 +545,19 @@ public class MainFrame extends javax.swing.JFrame {
         redoStack.clear();
         puzzleMenu.setEnabled(! editModeCheckBoxMenuItem.isSelected());
     }//GEN-LAST:event_editModeCheckBoxMenuItemActionPerformed
+
+    /**
+     * Event handler for toggling the pattern strategy. The pattern strategy
+     * replaces the triplet and line strategies, and is always applied until
+     * no more changes are found, so the items of these settings are disabled
+     * while it is selected.
+     */
+    private void applyPatternStrategyCheckBoxMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_applyPatternStrategyCheckBoxMenuItemActionPerformed
+        boolean enabled = ! applyPatternStrategyCheckBoxMenuItem.isSelected();
+        applyIterativelyCheckBoxMenuItem.setEnabled(enabled);
+        applyTripletStrategyCheckBoxMenuItem.setEnabled(enabled);
+        applyLineStrategyCheckBoxMenuItem.setEnabled(enabled);
+    }//GEN-LAST:event_applyPatternStrategyCheckBoxMenuItemActionPerformed
     
     /**
      * Opens a dialog box with the given title asking for confirmation about the
@@ -540,9 +575,9 @@ public class MainFrame extends javax.swing.JFrame {
     /**
      * Event handler for finding one solution to the current puzzle state, 
      * running on a background thread through a {@code BacktrackerWorker} 
-     * making use of a {@code SingleSolver}. Directly visualizes any found
-     * solution in the puzzle panel and makes use of the strategies chosen in 
-     * the `Strategy Settings'-menu.
+     * making use of a {@code ParallelSingleSolver}. Directly visualizes any 
+     * found solution in the puzzle panel and makes use of the strategies 
+     * chosen in the `Strategy Settings'-menu.
      */
     private void solveOneMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_solveOneMenuItemActionPerformed
         abortMenuItem.setEnabled(true);
@@ -560,17 +595,17 @@ public class MainFrame extends javax.swing.JFrame {
         redoStack.clear();
         
         BacktrackerWorker backtrackerWorker = new BacktrackerWorker();
-        backtracker = new SingleSolver(puzzlePanel.getModel());
+        backtracker = new ParallelSingleSolver(puzzlePanel.getModel());
         backtracker.setHelperStrategy(getSelectedStrategy());
         backtrackerWorker.execute();
     }//GEN-LAST:event_solveOneMenuItemActionPerformed
 
     /**
      * Event handler for finding all solutionCount to the current puzzle state, 
-     * making use of a {@code CompleteSolver}, running on a background thread 
-     * through a {@code BacktrackerWorker} . Visualizes all found solutionCount 
-     * through a {@code JTextArea} and makes use of the strategies chosen in the
-     * `Strategy Settings'-menu.
+     * making use of a {@code ParallelCompleteSolver}, running on a background 
+     * thread through a {@code BacktrackerWorker} . Visualizes all found 
+     * solutionCount through a {@code JTextArea} and makes use of the strategies
+     * chosen in the `Strategy Settings'-menu.
      */
     private void solveAllMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_solveAllMenuItemActionPerformed
         abortMenuItem.setEnabled(true);
@@ -588,7 +623,7 @@ public class MainFrame extends javax.swing.JFrame {
         redoStack.clear();
         
         BacktrackerWorker backtrackerWorker = new BacktrackerWorker();
-        backtracker = new CompleteSolver(puzzlePanel.getModel());
+        backtracker = new ParallelCompleteSolver(puzzlePanel.getModel());
         backtracker.addObserver(backtrackerWorker);
         backtracker.setHelperStrategy(getSelectedStrategy());
         backtrackerWorker.execute();
@@ -596,10 +631,16 @@ public class MainFrame extends javax.swing.JFrame {
 
     /**
      * Event handler for applying strategies. Takes the settings set in the 
-     * `Strategy Settings' menu into account.
+     * `Strategy Settings' menu into account. If lookahead probing is
+     * selected, the selected strategies are used to propagate the probes of a
+     * {@code ParallelProbingStrategy}.
      */
     private void applyStrategiesMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_applyStrategiesMenuItemActionPerformed
-        Command command = getSelectedStrategy().apply(puzzlePanel.getModel());
+        Strategy strategy = getSelectedStrategy();
+        if (applyProbingCheckBoxMenuItem.isSelected()) {
+            strategy = new ParallelProbingStrategy(strategy);
+        }
+        Command command = strategy.apply(puzzlePanel.getModel());
         undoStack.push(command);
         redoStack.clear();
         updateFrame();
@@ -607,9 +648,22 @@ public class MainFrame extends javax.swing.JFrame {
         
     /**
      * Inspects the state of all checkbox menu items in the `Strategy'-menu and
-     * returns the corresponding {@code Strategy} object.
+     * returns the corresponding {@code Strategy} object. Strategies that are 
+     * to be applied iteratively are propagated by a single 
+     * {@code PropagationStrategy}. The {@code PatternStrategy} finds all
+     * changes the triplet and line strategies find, and propagates them
+     * itself, so it replaces them and the iterative setting if it is
+     * selected.
      */
     private Strategy getSelectedStrategy() {
+        if (applyPatternStrategyCheckBoxMenuItem.isSelected()) {
+            return new PatternStrategy();
+        }
+        if (applyIterativelyCheckBoxMenuItem.isSelected()) {
+            return new PropagationStrategy(
+                    applyTripletStrategyCheckBoxMenuItem.isSelected(),
+                    applyLineStrategyCheckBoxMenuItem.isSelected());
+        }
         CompositeStrategy composite = new CompositeStrategy();
         if (applyTripletStrategyCheckBoxMenuItem.isSelected()) {
             composite.add(new TripletStrategy());
@@ -617,12 +671,7 @@ public class MainFrame extends javax.swing.JFrame {
         if (applyLineStrategyCheckBoxMenuItem.isSelected()) {
             composite.add(new LineStrategy());
         }
-        if (applyIterativelyCheckBoxMenuItem.isSelected()) {
-            return new IterativeStrategy(composite);
-        } 
-        else {
-            return composite;
-        }
+        return composite;
     }
     
     /**
@@ -748,13 +797,13 @@ public class MainFrame extends javax.swing.JFrame {
     
     /**
      * Constructs the {@code Grid} object specified by the given 
-     * {@code Scanner}. To be used upon opening a puzzle from a file.
+     * {@code InputStream}. To be used upon opening a puzzle from a file.
      */
-    private Grid createGrid(Scanner scanner) {
+    private Grid createGrid(InputStream in) throws IOException {
         Constraint c1 = new BinaryPuzzleLineConstraint();
         Constraint c2 = new BinaryPuzzleTripletConstraint();
         List<Constraint> constraints = Arrays.asList(c1, c2);
-        Grid grid = new GridArrays(scanner, constraints);
+        Grid grid = new GridArrays(in, constraints);
         return grid;
     }
     
@@ -843,6 +892,8 @@ public class MainFrame extends javax.swing.JFrame {
     private javax.swing.JMenuItem abortMenuItem;
     private javax.swing.JCheckBoxMenuItem applyIterativelyCheckBoxMenuItem;
     private javax.swing.JCheckBoxMenuItem applyLineStrategyCheckBoxMenuItem;
+    private javax.swing.JCheckBoxMenuItem applyPatternStrategyCheckBoxMenuItem;
+    private javax.swing.JCheckBoxMenuItem applyProbingCheckBoxMenuItem;
     private javax.swing.JMenuItem applyStrategiesMenuItem;
     private javax.swing.JCheckBoxMenuItem applyTripletStrategyCheckBoxMenuItem;
     private javax.swing.JMenuItem checkMenuItem;
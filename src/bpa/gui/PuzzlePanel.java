@@ -7,7 +7,6 @@ import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Point;
 import java.awt.geom.Rectangle2D;
-import java.util.List;
 
 /**
  * The view used to represent the puzzle grid and all its visual aspects. This 
@@ -145,9 +144,12 @@ public class PuzzlePanel extends javax.swing.JPanel {
         super.paintComponent(g);
 
         if (grid != null) {
-            paintGridBackground(g);
-            paintGridContents(g);
-            paintGridLines(g);
+            // a solver may be publishing its solution into the grid
+            synchronized (grid) {
+                paintGridBackground(g);
+                paintGridContents(g);
+                paintGridLines(g);
+            }
         }
     }
 
@@ -155,7 +157,7 @@ public class PuzzlePanel extends javax.swing.JPanel {
      * Paints the background of each cell in the puzzle grid.
      */
     private void paintGridBackground(Graphics g) {        
-        List<Cell> violatingCells = grid.getViolatingCells();      
+        ViolationMap violationMap = grid.getViolationMap();      
         boolean isSolved = grid.isSolved();
         
         for (int i = 0; i != grid.getHeight(); i ++) {
@@ -168,7 +170,7 @@ public class PuzzlePanel extends javax.swing.JPanel {
                     g.setColor(Color.GREEN);
                     g.fillRect(x, y, getCellWidth(), getCellHeight());
                 }                
-                else if (! cell.isLocked() && violatingCells.contains(cell)) {
+                else if (! cell.isLocked() && violationMap.isViolating(j, i)) {
                     g.setColor(Color.RED);
                     g.fillRect(x, y, getCellWidth(), getCellHeight());
                 }
@@ -0,0 +1,214 @@
+package bpa.model;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A compact, versioned binary format for a single grid, as an alternative to
+ * the textual specification. The format consists of, all numbers being
+ * big-endian:
+ * <ul>
+ * <li> a header of {@code HEADER_SIZE} bytes: the {@code int} {@code MAGIC},
+ *      the {@code byte}s {@code VERSION} and flags, and the {@code int}s width
+ *      and height;
+ * <li> the state plane: the state code (see {@code CellCodes}) of each cell
+ *      in 2 bits, where the cell with index {@code i = y * width + x} occupies
+ *      bits {@code 2 * (i % 4)} and {@code 2 * (i % 4) + 1} of byte
+ *      {@code i / 4};
+ * <li> the lock plane, only if flag {@code FLAG_LOCKS} is set: whether each
+ *      cell is locked in 1 bit, where the cell with index {@code i} occupies
+ *      bit {@code i % 8} of byte {@code i / 8}.
+ * </ul>
+ * Grids are converted to and from this format losslessly, that is, a grid
+ * read from its textual specification, written in this format and read back
+ * has the same textual specification.
+ */
+public final class BinaryGridFormat {
+
+    /** The magic number at the start of each binary grid: "BPAB". */
+    public static final int MAGIC = 0x42504142;
+
+    /** The version of the format written by this class. */
+    public static final int VERSION = 1;
+
+    /** The flag denoting that the lock plane is present. */
+    public static final int FLAG_LOCKS = 1;
+
+    /** The number of bytes of the header. */
+    public static final int HEADER_SIZE = 14;
+
+    private BinaryGridFormat() { }
+
+    /**
+     * Gets the number of bytes a grid of the given dimensions takes in this
+     * format.
+     *
+     * @param width  the width of the grid
+     * @param height  the height of the grid
+     * @param locks  whether the lock plane is present
+     * @pre {@code width >= 0 && height >= 0}
+     */
+    public static int sizeOf(final int width, final int height,
+            final boolean locks) {
+        int cellCount = width * height;
+        int size = HEADER_SIZE + (cellCount + 3) / 4;
+        if (locks) {
+            size += (cellCount + 7) / 8;
+        }
+        return size;
+    }
+
+    /**
+     * Encodes the given grid in this format. The lock plane is only written if
+     * the grid contains locked cells.
+     *
+     * @param grid  the grid to be encoded
+     * @pre {@code true}
+     * @return the binary representation of {@code grid}
+     */
+    public static byte[] encode(final Grid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int cellCount = width * height;
+        byte[] states = new byte[(cellCount + 3) / 4];
+        byte[] locks = new byte[(cellCount + 7) / 8];
+        boolean anyLocked = false;
+        for (int y = 0; y != height; y ++) {
+            for (int x = 0; x != width; x ++) {
+                int i = y * width + x;
+                int state = CellCodes.encode(grid.getCellState(x, y));
+                states[i >>> 2] |= state << ((i & 3) << 1);
+                if (grid.isCellLocked(x, y)) {
+                    locks[i >>> 3] |= 1 << (i & 7);
+                    anyLocked = true;
+                }
+            }
+        }
+        ByteBuffer result = ByteBuffer.allocate(
+                sizeOf(width, height, anyLocked));
+        result.putInt(MAGIC);
+        result.put((byte) VERSION);
+        result.put((byte) (anyLocked ? FLAG_LOCKS : 0));
+        result.putInt(width);
+        result.putInt(height);
+        result.put(states);
+        if (anyLocked) {
+            result.put(locks);
+        }
+        return result.array();
+    }
+
+    /**
+     * Writes the given grid in this format to the given stream. The stream is
+     * neither flushed nor closed.
+     *
+     * @param grid  the grid to be written
+     * @param out  the stream the grid is written to
+     * @throws IOException  if {@code out} could not be written to
+     */
+    public static void write(final Grid grid, final OutputStream out)
+        throws IOException {
+        out.write(encode(grid));
+    }
+
+    /**
+     * Decodes the binary grid at the current position of the given buffer.
+     *
+     * @param buffer  the buffer holding the binary grid
+     * @pre {@code buffer} holds a grid in this format at its position
+     * @post the position of {@code buffer} is just after the binary grid
+     * @return the decoded grid
+     * @throws IllegalArgumentException  if {@code buffer} does not hold a
+     * valid binary grid
+     */
+    public static GridReader.Specification decode(final ByteBuffer buffer)
+        throws IllegalArgumentException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("BinaryGridFormat.decode."
+                        + "pre violated: not a binary grid");
+            }
+            int version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("BinaryGridFormat.decode."
+                        + "pre violated: unsupported version " + version);
+            }
+            int flags = buffer.get();
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            if (width <= 0 || height <= 0
+                    || (long) width * height > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("BinaryGridFormat.decode."
+                        + "pre violated: illegal size " + width + "x"
+                        + height);
+            }
+            int cellCount = width * height;
+            byte[] codes = new byte[cellCount];
+            for (int i = 0; i < cellCount; i += 4) {
+                int packed = buffer.get();
+                for (int j = i; j != Math.min(i + 4, cellCount); j ++) {
+                    codes[j] = (byte) ((packed >>> ((j & 3) << 1))
+                            & CellCodes.STATE_MASK);
+                }
+            }
+            if ((flags & FLAG_LOCKS) != 0) {
+                for (int i = 0; i < cellCount; i += 8) {
+                    int packed = buffer.get();
+                    for (int j = i; j != Math.min(i + 8, cellCount); j ++) {
+                        if (((packed >>> (j & 7)) & 1) != 0) {
+                            codes[j] |= CellCodes.LOCKED;
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i != cellCount; i ++) {
+                if (! CellCodes.isValid(codes[i])) {
+                    throw new IllegalArgumentException("BinaryGridFormat."
+                            + "decode.pre violated: cell " + i + " has "
+                            + "invalid code " + codes[i]);
+                }
+            }
+            return new GridReader.Specification(width, height, codes);
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("BinaryGridFormat.decode.pre "
+                    + "violated: binary grid truncated");
+        }
+    }
+
+    /**
+     * Reads a single binary grid from the given stream.
+     *
+     * @param in  the stream reading the binary grid
+     * @pre {@code in} reads a grid in this format
+     * @return the grid read from {@code in}
+     * @throws IllegalArgumentException  if {@code in} does not read a valid
+     * binary grid
+     * @throws IOException  if {@code in} could not be read
+     */
+    public static GridReader.Specification read(final InputStream in)
+        throws IllegalArgumentException, IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] header = new byte[HEADER_SIZE];
+        data.readFully(header);
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+        headerBuffer.position(Integer.BYTES + 1); //magic and version
+        boolean locks = (headerBuffer.get() & FLAG_LOCKS) != 0;
+        int width = headerBuffer.getInt();
+        int height = headerBuffer.getInt();
+        if (width <= 0 || height <= 0
+                || (long) width * height > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("BinaryGridFormat.read.pre "
+                    + "violated: illegal size " + width + "x" + height);
+        }
+        byte[] grid = new byte[sizeOf(width, height, locks)];
+        System.arraycopy(header, 0, grid, 0, HEADER_SIZE);
+        data.readFully(grid, HEADER_SIZE, grid.length - HEADER_SIZE);
+        return decode(ByteBuffer.wrap(grid));
+    }
+
+}
@@ -1,7 +1,7 @@
 package bpa.model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -17,26 +17,54 @@ public class BinaryPuzzleLineConstraint implements Constraint {
 
     @Override
     public List<Cell> check(final List<Cell> group) {
+        if (count(group, CellState.ZERO) > (group.size() / 2)) {
+            return collect(group, CellState.ZERO);
+        }
+        if (count(group, CellState.ONE) > (group.size() / 2)) {
+            return collect(group, CellState.ONE);
+        }
+        return Collections.emptyList();
+    }
 
-        List<Cell> zeroes = new ArrayList();
-        List<Cell> ones = new ArrayList();        
+    @Override
+    public boolean isViolated(final List<Cell> group) {
+        return count(group, CellState.ZERO) > (group.size() / 2) 
+                || count(group, CellState.ONE) > (group.size() / 2);
+    }
 
-        for (Cell c : group) {
-            if (c.getState() == CellState.ZERO) {
-                zeroes.add(c);
-            }
-            if (c.getState() == CellState.ONE) {
-                ones.add(c);
+    /**
+     * Counts the cells in the given group that have the given non-empty 
+     * state. If the group is a {@code LineView}, its counters are read 
+     * instead of its cells.
+     */
+    private static int count(final List<Cell> group, final CellState state) {
+        if (group instanceof LineView) {
+            LineView line = (LineView) group;
+            return state == CellState.ZERO ? line.countZeros() 
+                    : line.countOnes();
+        }
+        int count = 0;
+        for (int i = 0; i != group.size(); i ++) {
+            if (group.get(i).getState() == state) {
+                count ++;
             }
         }
+        return count;
+    }
 
-        if (zeroes.size() > (group.size() / 2)) {
-            return zeroes;
-        }
-        if (ones.size() > (group.size() / 2)) {
-            return ones;
+    /**
+     * Collects the cells in the given group that have the given state, which 
+     * are guilty of a violation.
+     */
+    private static List<Cell> collect(final List<Cell> group, 
+            final CellState state) {
+        List<Cell> guilty = new ArrayList<Cell>();
+        for (Cell c : group) {
+            if (c.getState() == state) {
+                guilty.add(c);
+            }
         }
-        return Arrays.asList();
+        return guilty;
     }
 
     @Override
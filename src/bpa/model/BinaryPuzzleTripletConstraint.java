@@ -25,6 +25,14 @@ public class BinaryPuzzleTripletConstraint implements Constraint {
         return Arrays.asList();
     }
 
+    @Override
+    public boolean isViolated(final List<Cell> group) {
+        CellState state = group.get(1).getState();
+        return state != CellState.EMPTY 
+                && group.get(0).getState() == state 
+                && group.get(2).getState() == state;
+    }
+
     @Override
     public List<List<Cell>> obtainGroups(final Grid grid) {
         List<List<Cell>> groups = new ArrayList();
@@ -0,0 +1,334 @@
+package bpa.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A canonicalizer of grids under the symmetries of the Binary Puzzle. A puzzle
+ * remains equivalent when it is rotated, reflected (8 transforms in total) or
+ * when all zeros and ones are exchanged, giving 16 symmetries. Of all grids
+ * these symmetries map a grid to, the canonical representative is the least
+ * one in a fixed order, such that equivalent grids have the same canonical
+ * representative and the same canonical hash.
+ *
+ * <p>
+ * The grid is read once into bitmasks of its rows and columns. Since each row
+ * of a transformed grid is a row or column of the original grid, possibly
+ * reversed and with zeros and ones exchanged, the transformed grids are
+ * compared row by row on these masks, without building any of them.
+ */
+public final class Canonicalizer {
+
+    /** The maximum width and height of a grid, bounded by a {@code long}. */
+    public static final int MAX_SIZE = Long.SIZE;
+
+    /** The components of the masks of a line. */
+    private static final int ZEROS = 0;
+    private static final int ONES = 1;
+    private static final int LOCKED = 2;
+
+    /** The width and height of the grid. */
+    private final int width;
+    private final int height;
+
+    /**
+     * The masks of each row and column of the grid, where bit {@code x} of
+     * {@code rows[ZEROS][y]} is set iff the cell at {@code (x, y)} contains a
+     * zero, and bit {@code y} of {@code columns[ZEROS][x]} likewise, etc.
+     */
+    private final long[][] rows;
+    private final long[][] columns;
+
+    /**
+     * Reads the given grid into the masks of its rows and columns.
+     */
+    private Canonicalizer(final Grid grid) {
+        width = grid.getWidth();
+        height = grid.getHeight();
+        rows = new long[3][height];
+        columns = new long[3][width];
+        for (int y = 0; y != height; y ++) {
+            for (int x = 0; x != width; x ++) {
+                CellState state = grid.getCellState(x, y);
+                if (state != CellState.EMPTY) {
+                    set(state == CellState.ZERO ? ZEROS : ONES, x, y);
+                }
+                if (grid.isCellLocked(x, y)) {
+                    set(LOCKED, x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the bit of the cell at {@code (x, y)} in the masks of the given
+     * component.
+     */
+    private void set(final int component, final int x, final int y) {
+        rows[component][y] |= 1L << x;
+        columns[component][x] |= 1L << y;
+    }
+
+    /**
+     * Computes the canonical form of the given grid under the 16 symmetries.
+     *
+     * @param grid  the grid to be canonicalized
+     * @pre {@code grid.getWidth() <= MAX_SIZE
+     *      && grid.getHeight() <= MAX_SIZE}
+     * @return the canonical form of {@code grid}, holding the transform that
+     * maps {@code grid} to its canonical representative
+     * @throws IllegalArgumentException  if the grid exceeds {@code MAX_SIZE}
+     */
+    public static CanonicalForm canonicalize(final Grid grid)
+        throws IllegalArgumentException {
+        if (grid.getWidth() > MAX_SIZE || grid.getHeight() > MAX_SIZE) {
+            throw new IllegalArgumentException("Canonicalizer.canonicalize.pre"
+                    + " violated: grid of size " + grid.getWidth() + "x"
+                    + grid.getHeight() + " exceeds the maximum size of "
+                    + MAX_SIZE);
+        }
+        Canonicalizer canonicalizer = new Canonicalizer(grid);
+        Transform best = Transform.IDENTITY;
+        for (Transform transform : Transform.ALL) {
+            if (canonicalizer.compare(transform, best) < 0) {
+                best = transform;
+            }
+        }
+        return new CanonicalForm(best, canonicalizer.hash(best));
+    }
+
+    /**
+     * Computes the canonical representative of the given grid, which is a new
+     * grid.
+     *
+     * @param grid  the grid to be canonicalized
+     * @pre {@code grid.getWidth() <= MAX_SIZE
+     *      && grid.getHeight() <= MAX_SIZE}
+     * @return {@code canonicalize(grid).getTransform().apply(grid)}
+     * @throws IllegalArgumentException  if the grid exceeds {@code MAX_SIZE}
+     */
+    public static Grid canonicalRepresentative(final Grid grid)
+        throws IllegalArgumentException {
+        return canonicalize(grid).getTransform().apply(grid);
+    }
+
+    /**
+     * Returns the mask of the given component of row {@code y} of the grid
+     * the given transform maps the grid to.
+     */
+    private long mask(final Transform transform, final int y,
+            final int component) {
+        int c = component;
+        if (transform.isComplemented() && c != LOCKED) {
+            c = c == ZEROS ? ONES : ZEROS;
+        }
+        int transformedWidth = transform.isTransposed() ? height : width;
+        int transformedHeight = transform.isTransposed() ? width : height;
+        int line = transform.isFlippedVertically()
+                ? transformedHeight - 1 - y : y;
+        long result = transform.isTransposed() ? columns[c][line]
+                : rows[c][line];
+        if (transform.isFlippedHorizontally()) {
+            result = Long.reverse(result) >>> (Long.SIZE - transformedWidth);
+        }
+        return result;
+    }
+
+    /**
+     * Compares the grids the given transforms map the grid to: first by their
+     * width, then row by row on the masks of their zeros, ones and locked
+     * cells.
+     *
+     * @return a negative number, zero or a positive number if the first grid
+     * is less than, equal to or greater than the second grid
+     */
+    private int compare(final Transform t1, final Transform t2) {
+        int transformedWidth = t1.isTransposed() ? height : width;
+        int otherWidth = t2.isTransposed() ? height : width;
+        if (transformedWidth != otherWidth) {
+            return Integer.compare(transformedWidth, otherWidth);
+        }
+        int transformedHeight = t1.isTransposed() ? width : height;
+        for (int y = 0; y != transformedHeight; y ++) {
+            for (int c = ZEROS; c <= LOCKED; c ++) {
+                int result = Long.compareUnsigned(mask(t1, y, c),
+                        mask(t2, y, c));
+                if (result != 0) {
+                    return result;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Computes the hash of the grid the given transform maps the grid to.
+     */
+    private long hash(final Transform transform) {
+        int transformedWidth = transform.isTransposed() ? height : width;
+        int transformedHeight = transform.isTransposed() ? width : height;
+        long result = Zobrist.mix(
+                ((long) transformedWidth << 32) | transformedHeight);
+        for (int y = 0; y != transformedHeight; y ++) {
+            for (int c = ZEROS; c <= LOCKED; c ++) {
+                result = Zobrist.mix(result ^ mask(transform, y, c));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The canonical form of a grid: the canonical hash, and the transform that
+     * maps the grid to its canonical representative.
+     */
+    public static final class CanonicalForm {
+
+        /** The transform mapping the grid to its representative. */
+        private final Transform transform;
+
+        /** The hash of the canonical representative. */
+        private final long hash;
+
+        private CanonicalForm(final Transform transform, final long hash) {
+            this.transform = transform;
+            this.hash = hash;
+        }
+
+        /**
+         * Gets the transform that maps the grid to its canonical
+         * representative. Its inverse maps the representative back to the
+         * original orientation.
+         */
+        public Transform getTransform() {
+            return transform;
+        }
+
+        /**
+         * Gets the canonical hash, which is equal for all equivalent grids.
+         */
+        public long getHash() {
+            return hash;
+        }
+    }
+
+    /**
+     * One of the 16 symmetries of a grid: an optional transposition, followed
+     * by optional horizontal and vertical flips and an optional exchange of
+     * zeros and ones. The 8 combinations of transposition and flips are the
+     * rotations and reflections of the grid.
+     */
+    public static final class Transform {
+
+        /** The flags of the operations making up a transform. */
+        private static final int TRANSPOSE = 1;
+        private static final int FLIP_HORIZONTALLY = 2;
+        private static final int FLIP_VERTICALLY = 4;
+        private static final int COMPLEMENT = 8;
+
+        /** All 16 transforms, ordered by their code. */
+        public static final List<Transform> ALL;
+
+        static {
+            List<Transform> all = new ArrayList();
+            for (int code = 0; code != 16; code ++) {
+                all.add(new Transform(code));
+            }
+            ALL = Collections.unmodifiableList(all);
+        }
+
+        /** The transform that maps each grid to itself. */
+        public static final Transform IDENTITY = ALL.get(0);
+
+        /** The combination of the flags of this transform. */
+        private final int code;
+
+        private Transform(final int code) {
+            this.code = code;
+        }
+
+        /** Whether this transform swaps the x- and y-coordinates first. */
+        public boolean isTransposed() {
+            return (code & TRANSPOSE) != 0;
+        }
+
+        /** Whether this transform then mirrors the x-coordinates. */
+        public boolean isFlippedHorizontally() {
+            return (code & FLIP_HORIZONTALLY) != 0;
+        }
+
+        /** Whether this transform then mirrors the y-coordinates. */
+        public boolean isFlippedVertically() {
+            return (code & FLIP_VERTICALLY) != 0;
+        }
+
+        /** Whether this transform exchanges zeros and ones. */
+        public boolean isComplemented() {
+            return (code & COMPLEMENT) != 0;
+        }
+
+        /**
+         * Gets the transform that undoes this transform.
+         */
+        public Transform inverse() {
+            if (! isTransposed()) {
+                return this;
+            }
+            int inverse = code & (TRANSPOSE | COMPLEMENT);
+            if (isFlippedHorizontally()) {
+                inverse |= FLIP_VERTICALLY;
+            }
+            if (isFlippedVertically()) {
+                inverse |= FLIP_HORIZONTALLY;
+            }
+            return ALL.get(inverse);
+        }
+
+        /**
+         * Applies this transform to the given state.
+         */
+        public CellState apply(final CellState state) {
+            if (! isComplemented() || state == CellState.EMPTY) {
+                return state;
+            }
+            return state == CellState.ZERO ? CellState.ONE : CellState.ZERO;
+        }
+
+        /**
+         * Applies this transform to the given grid, giving a new grid with the
+         * same constraints.
+         *
+         * @param grid  the grid to be transformed
+         * @pre {@code true}
+         * @return a new grid in which the cell at {@code (x, y)} holds the
+         * transformed cell of {@code grid} this transform maps to
+         * {@code (x, y)}
+         */
+        public Grid apply(final Grid grid) {
+            int width = isTransposed() ? grid.getHeight() : grid.getWidth();
+            int height = isTransposed() ? grid.getWidth() : grid.getHeight();
+            GridPacked result = new GridPacked(width, height,
+                    grid.getConstraints());
+            for (int y = 0; y != height; y ++) {
+                for (int x = 0; x != width; x ++) {
+                    int a = isFlippedHorizontally() ? width - 1 - x : x;
+                    int b = isFlippedVertically() ? height - 1 - y : y;
+                    int sourceX = isTransposed() ? b : a;
+                    int sourceY = isTransposed() ? a : b;
+                    int index = result.indexOf(x, y);
+                    result.setState(index,
+                            apply(grid.getCellState(sourceX, sourceY)));
+                    result.setLocked(index,
+                            grid.isCellLocked(sourceX, sourceY));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Transform(" + code + ")";
+        }
+    }
+
+}
@@ -19,6 +19,16 @@ public class Cell {
     /** The current state of this cell */
     private CellState state;
     
+    /** 
+     * The grid this cell resides in, which is notified of any change of the 
+     * state of this cell, or {@code null} if this cell resides in no grid.
+     */
+    private Grid owner;
+    
+    /** The coordinates of this cell in the grid it resides in. */
+    private int x;
+    private int y;
+    
     /**
      * Initialized this cell with the given state and whether it is locked.
      * 
@@ -71,9 +81,27 @@ public class Cell {
             throw new IllegalArgumentException("Cell.changeState.pre violated: "
                     + " cell is locked.");
         }
+        CellState oldState = this.state;
         this.state = state;
+        if (owner != null && oldState != state) {
+            owner.cellStateChanged(x, y, oldState, state);
+        }
     }
-
+    
+    /**
+     * Places this cell at the given coordinates in the given grid, such that 
+     * the grid is notified of any change of the state of this cell.
+     * 
+     * @param owner  the grid this cell resides in
+     * @param x  the x-coordinate of this cell in {@code owner}
+     * @param y  the y-coordinate of this cell in {@code owner}
+     */
+    void attach(final Grid owner, final int x, final int y) {
+        this.owner = owner;
+        this.x = x;
+        this.y = y;
+    }
+    
     /**
      * Sets the locked status of this cell.
      * 
@@ -102,8 +130,8 @@ public class Cell {
      */
     @Override
     public String toString() {
-        String token = state.toString();        
-        if (! isLocked() && state != CellState.EMPTY) {
+        String token = getState().toString();        
+        if (! isLocked() && getState() != CellState.EMPTY) {
             token += "*";
         }
         return token;
@@ -0,0 +1,97 @@
+package bpa.model;
+
+/**
+ * The primitive encoding of the contents of a single cell, used by grids that
+ * store their cells in primitive arrays instead of {@code Cell} objects. A cell
+ * code consists of 3 bits: the lowest 2 bits hold the state of the cell
+ * ({@code EMPTY}, {@code ZERO} or {@code ONE}) and the third bit holds whether
+ * the cell is locked.
+ */
+public final class CellCodes {
+
+    /** The number of bits used by a single cell code. */
+    public static final int BITS = 3;
+
+    /** The codes of the states of a cell, without the locked bit. */
+    public static final int EMPTY = 0;
+    public static final int ZERO = 1;
+    public static final int ONE = 2;
+
+    /** The bit in a cell code denoting that the cell is locked. */
+    public static final int LOCKED = 4;
+
+    /** The mask of the bits of a cell code denoting the state of the cell. */
+    public static final int STATE_MASK = 3;
+
+    private CellCodes() { }
+
+    /**
+     * Encodes the given state and locked-state of a cell.
+     *
+     * @param state  the state of the cell
+     * @param locked  whether the cell is locked
+     * @pre {@code !(state == CellState.EMPTY && locked)}
+     * @return the cell code of a cell with the given state and locked-state
+     */
+    public static int encode(final CellState state, final boolean locked) {
+        int code = encode(state);
+        if (locked) {
+            code |= LOCKED;
+        }
+        return code;
+    }
+
+    /**
+     * Encodes the given state of a cell, without the locked bit.
+     */
+    public static int encode(final CellState state) {
+        switch (state) {
+            case ZERO:
+                return ZERO;
+            case ONE:
+                return ONE;
+            default:
+                return EMPTY;
+        }
+    }
+
+    /**
+     * Decodes the state of the cell with the given code.
+     *
+     * @param code  a valid cell code
+     * @return the state of the cell with the given code
+     */
+    public static CellState state(final int code) {
+        switch (code & STATE_MASK) {
+            case ZERO:
+                return CellState.ZERO;
+            case ONE:
+                return CellState.ONE;
+            default:
+                return CellState.EMPTY;
+        }
+    }
+
+    /**
+     * Decodes whether the cell with the given code is locked.
+     *
+     * @param code  a valid cell code
+     * @return whether the cell with the given code is locked
+     */
+    public static boolean isLocked(final int code) {
+        return (code & LOCKED) != 0;
+    }
+
+    /**
+     * Determines whether the given integer is a valid cell code, that is, a
+     * code of a state that is not locked if it is empty.
+     */
+    public static boolean isValid(final int code) {
+        int state = code & STATE_MASK;
+        if (code < 0 || code > (LOCKED | STATE_MASK) || state == STATE_MASK) {
+            return false;
+        }
+        return ! (state == EMPTY && isLocked(code));
+    }
+
+}
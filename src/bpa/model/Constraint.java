@@ -28,6 +28,20 @@ public interface Constraint {
      */
     public abstract List<Cell> check(final List<Cell> group);
     
+    /**
+     * Determines whether the given group of cells violates this constraint. 
+     * Implementations are encouraged to override this method with an 
+     * implementation that does not build the list of guilty cells.
+     * 
+     * @param group  the group of cells under inspection
+     * @pre the size of {@code group} should be such that it complies with the 
+     * requirements of this constraint.
+     * @return {@code ! check(group).isEmpty()}
+     */
+    public default boolean isViolated(final List<Cell> group) {
+        return ! check(group).isEmpty();
+    }
+    
     /**
      * Returns all groups of cells in the given grid that are relevant for this 
      * constraint. These groups can represent any collection of cells in the 
@@ -1,5 +1,7 @@
 package bpa.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
@@ -11,11 +13,44 @@ import java.util.Scanner;
  * making it possible to iterate over all cells in the grid easily. Also, this
  * class contains a list of {@code Constraint} objects that represent the 
  * constraints that have to hold on this grid.
+ * 
+ * <p>
+ * A grid is confined to one thread at a time: neither its state nor the 
+ * derived information it creates upon first use and keeps up to date, such as
+ * its line views, line counters and Zobrist hash, is guarded against 
+ * concurrent access. Threads that share a grid must synchronize on it.
 
  * @author iVerb
  * @since 3-4-13
  */
 public abstract class Grid implements Iterable<Cell> {
+    
+    /** 
+     * The cache of the groups the constraints obtain from this grid, created 
+     * upon first use.
+     */
+    private GroupCache groupCache;
+    
+    /**
+     * The views of all lines in this grid, all rows followed by all columns, 
+     * created upon first use.
+     */
+    private List<LineView> lineViews;
+    
+    /**
+     * The counters of the states in each line of this grid, created upon first
+     * use and updated upon each change of a cell.
+     */
+    private LineCounters lineCounters;
+    
+    /**
+     * The Zobrist hash of the current state of this grid, computed upon first
+     * use and updated upon each change of a cell.
+     */
+    private long zobristHash;
+    
+    /** Whether {@code zobristHash} has been computed. */
+    private boolean hashed;
 
     /**
      * Builds a new grid using the specification the given scanner provides and
@@ -36,6 +71,13 @@ public abstract class Grid implements Iterable<Cell> {
     public Grid(final Scanner scanner, final List<Constraint> constraints) 
         throws IllegalArgumentException { } 
     
+    /**
+     * Builds a new grid without a specification. Used by implementations that
+     * initialize their cells in another way, such as empty grids of given 
+     * dimensions.
+     */
+    protected Grid() { }
+    
     /**
      * Checks whether the representation invariants hold.
      * 
@@ -74,6 +116,215 @@ public abstract class Grid implements Iterable<Cell> {
     public abstract List<Cell> getColumn(int index) 
         throws IllegalArgumentException;
     
+    /**
+     * Gets the view of the row in the grid with row number equal to 
+     * {@code index}. The same view is returned upon each call.
+     * 
+     * @param index  the number of the row to be retrieved
+     * @pre {@code index >= 0 && index < getHeight()}
+     * @return the {@code LineView} of the cells in {@code getRow(index)}
+     */
+    public LineView getRowView(final int index) {
+        return lineViews().get(index);
+    }
+    
+    /**
+     * Gets the view of the column in the grid with column number equal to 
+     * {@code index}. The same view is returned upon each call.
+     * 
+     * @param index  the number of the column to be retrieved
+     * @pre {@code index >= 0 && index < getWidth()}
+     * @return the {@code LineView} of the cells in {@code getColumn(index)}
+     */
+    public LineView getColumnView(final int index) {
+        return lineViews().get(getHeight() + index);
+    }
+    
+    /**
+     * Gets the views of all lines in the grid: all rows (top to bottom) 
+     * followed by all columns (left to right). The views are created once, 
+     * such that no lists are allocated upon iterating over the lines of the 
+     * grid.
+     * 
+     * @pre {@code true}
+     * @return an unmodifiable list of the {@code LineView} of each line
+     */
+    public List<LineView> lineViews() {
+        if (lineViews == null) {
+            List<LineView> views = new ArrayList<LineView>();
+            for (int y = 0; y != getHeight(); y ++) {
+                views.add(createLineView(true, y));
+            }
+            for (int x = 0; x != getWidth(); x ++) {
+                views.add(createLineView(false, x));
+            }
+            lineViews = Collections.unmodifiableList(views);
+        }
+        return lineViews;
+    }
+    
+    /**
+     * Creates the view of the given line in this grid. Implementations can 
+     * override this method to provide views that query their state directly.
+     * 
+     * @param row  whether the line is a row (or a column)
+     * @param index  the row number or column number of the line
+     * @return a new view of the given line
+     */
+    protected LineView createLineView(final boolean row, final int index) {
+        Cell[] cells = new Cell[row ? getWidth() : getHeight()];
+        for (int i = 0; i != cells.length; i ++) {
+            cells[i] = row ? getCell(i, index) : getCell(index, i);
+        }
+        return new LineView(this, row, index, cells);
+    }
+    
+    /**
+     * Gets the counters of the states in each line, creating them if they do 
+     * not exist yet.
+     */
+    private LineCounters getLineCounters() {
+        if (lineCounters == null) {
+            lineCounters = new LineCounters(this);
+        }
+        return lineCounters;
+    }
+    
+    /**
+     * Gets the number of cells with the given state in the row with row number
+     * equal to {@code index}. This number is kept up to date upon each change 
+     * of a cell, such that it is answered in constant time.
+     * 
+     * @param index  the number of the row under inspection
+     * @param state  the state of which the cells are counted
+     * @pre {@code index >= 0 && index < getHeight()}
+     * @return the number of cells {@code c} in {@code getRow(index)} for which
+     * {@code c.getState() == state}
+     */
+    public int getRowCount(final int index, final CellState state) {
+        return getLineCounters().getRowCount(index, state);
+    }
+    
+    /**
+     * Gets the number of cells with the given state in the column with column 
+     * number equal to {@code index}. This number is kept up to date upon each 
+     * change of a cell, such that it is answered in constant time.
+     * 
+     * @param index  the number of the column under inspection
+     * @param state  the state of which the cells are counted
+     * @pre {@code index >= 0 && index < getWidth()}
+     * @return the number of cells {@code c} in {@code getColumn(index)} for 
+     * which {@code c.getState() == state}
+     */
+    public int getColumnCount(final int index, final CellState state) {
+        return getLineCounters().getColumnCount(index, state);
+    }
+    
+    /**
+     * Gets the total number of empty cells in the grid, which is kept up to 
+     * date upon each change of a cell.
+     * 
+     * @pre {@code true}
+     * @return the number of cells {@code c} in this grid for which 
+     * {@code c.getState() == CellState.EMPTY}
+     */
+    public int getEmptyCount() {
+        return getLineCounters().getEmptyCount();
+    }
+    
+    /**
+     * Gets the 64-bit Zobrist hash of the current state of the grid, that is,
+     * of the states of all its cells. The hash is computed once by inspecting
+     * every cell, after which it is updated in constant time upon each change
+     * of a cell, whether through {@code setCellState()} or through a 
+     * {@code Cell} object (such as by the commands).
+     * 
+     * @pre {@code true}
+     * @return a hash of the states of all cells, such that grids with equal 
+     * dimensions and equal states have equal hashes
+     */
+    public long getZobristHash() {
+        if (! hashed) {
+            zobristHash = Zobrist.hash(this);
+            hashed = true;
+        }
+        return zobristHash;
+    }
+    
+    /**
+     * Determines whether the given object is a grid with the same content as 
+     * this grid, that is, with the same dimensions and with the same state and
+     * locked-state in each cell. The Zobrist hashes are compared first, such 
+     * that unequal grids are usually told apart in constant time. The 
+     * constraints of the grids are not compared.
+     * 
+     * @param other  the object to compare this grid with
+     * @return whether {@code other} is a grid with the same content
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (! (other instanceof Grid)) {
+            return false;
+        }
+        Grid grid = (Grid) other;
+        if (grid.getWidth() != getWidth() || grid.getHeight() != getHeight()
+                || grid.getZobristHash() != getZobristHash()) {
+            return false;
+        }
+        for (int y = 0; y != getHeight(); y ++) {
+            for (int x = 0; x != getWidth(); x ++) {
+                if (grid.getCellState(x, y) != getCellState(x, y)
+                        || grid.isCellLocked(x, y) != isCellLocked(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Creates a copy of this grid, holding the same cells and constraints, 
+     * that can be changed independently of this grid, e.g. by another thread.
+     * 
+     * @pre {@code true}
+     * @return a new grid {@code g} with {@code g.equals(this)} and 
+     * {@code g.getConstraints() == getConstraints()}
+     */
+    public abstract Grid copy();
+    
+    /**
+     * Gets the specification of the current state of this grid, holding the 
+     * state and locked-state of each of its cells, from which copies of this 
+     * grid can be built.
+     * 
+     * @pre {@code true}
+     * @return the specification of the cells of this grid
+     */
+    protected GridReader.Specification getSpecification() {
+        byte[] codes = new byte[getWidth() * getHeight()];
+        for (int y = 0; y != getHeight(); y ++) {
+            for (int x = 0; x != getWidth(); x ++) {
+                codes[y * getWidth() + x] = (byte) CellCodes.encode(
+                        getCellState(x, y), isCellLocked(x, y));
+            }
+        }
+        return new GridReader.Specification(getWidth(), getHeight(), codes);
+    }
+    
+    /**
+     * Gives a hash code consistent with {@code equals()}, derived from the
+     * Zobrist hash. Note that this hash code changes along with the state of
+     * the grid.
+     */
+    @Override
+    public int hashCode() {
+        long hash = getZobristHash();
+        return (int) (hash ^ (hash >>> 32));
+    }
+    
     /**
      * Gets the width of the grid
      * 
@@ -105,6 +356,22 @@ public abstract class Grid implements Iterable<Cell> {
      */
     public abstract void setConstraints(List<Constraint> constraints);
     
+    /**
+     * Gets the cache of the groups of cells that constraints obtain from this 
+     * grid. Since the shape of the grid never changes, the groups of each 
+     * constraint only have to be obtained once, after which they can be 
+     * retrieved from this cache. 
+     * 
+     * @pre {@code true}
+     * @return the {@code GroupCache} of this grid
+     */
+    public GroupCache getGroupCache() {
+        if (groupCache == null) {
+            groupCache = new GroupCache(this);
+        }
+        return groupCache;
+    }
+    
     /**
      * Checks whether the given x- and y-coordinate are within the range of the 
      * grid.
@@ -139,6 +406,21 @@ public abstract class Grid implements Iterable<Cell> {
      */
     public abstract Cell getCell(final int x, final int y); 
     
+    /**
+     * Gets the state of the cell at the given x- and y-coordinate. 
+     * Implementations that do not store {@code Cell} objects can override this
+     * method to answer the query without creating one.
+     * 
+     * @param x  the x-coordinate of the cell 
+     * @param y  the y-coordinate of the cell
+     * @pre {@code checkCoordinates(x, y)}
+     * @return {@code getCell(x, y).getState()}
+     * @throws IllegalArgumentException  if {@code !checkCoordinates(x, y)}
+     */
+    public CellState getCellState(final int x, final int y) {
+        return getCell(x, y).getState();
+    }
+    
     /**
      * Changes the state of the cell at the given coordinates to the given 
      * state.
@@ -165,6 +447,25 @@ public abstract class Grid implements Iterable<Cell> {
      */
     public abstract List<Violation> getConstraintViolations();
     
+    /**
+     * Determines whether any of the constraints that have to hold on this grid
+     * is violated. Unlike {@code getConstraintViolations()}, this stops at the 
+     * first violating group and does not build any {@code Violation} objects.
+     * 
+     * @pre {@code true}
+     * @return {@code ! getConstraintViolations().isEmpty()}
+     */
+    public boolean hasAnyViolation() {
+        for (Constraint c : getConstraints()) {
+            for (List<Cell> group : getGroupCache().getGroups(c)) {
+                if (c.isViolated(group)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
     /**
      * Checks the position in the grid at the given coordinates for any 
      * constraints that have to hold on this grid and returns the types of 
@@ -179,6 +480,18 @@ public abstract class Grid implements Iterable<Cell> {
     public abstract List<Constraint> getCellViolations(
         final int x, final int y); 
     
+    /**
+     * Takes a snapshot of the violations on this grid, indexed by the 
+     * coordinates of the cells, such that the violations of a single cell can 
+     * be looked up in constant time.
+     * 
+     * @pre {@code true}
+     * @return a {@code ViolationMap} of {@code getConstraintViolations()}
+     */
+    public ViolationMap getViolationMap() {
+        return new ViolationMap(this, getConstraintViolations());
+    }
+    
     /**
      * Gets a list of cells that violates one or more constraints that have to
      * hold on the grid.
@@ -210,6 +523,31 @@ public abstract class Grid implements Iterable<Cell> {
      */
     public abstract boolean isSolved();
     
+    /**
+     * Called whenever the state of the cell at the given coordinates changes,
+     * either through {@code setCellState()} or directly through the 
+     * {@code Cell} object. Keeps the line counters and the Zobrist hash up to 
+     * date. Implementations can override this method to keep other derived 
+     * information about the grid up to date, in which case they should call 
+     * this method as well.
+     * 
+     * @param x  the x-coordinate of the cell of which the state changed
+     * @param y  the y-coordinate of the cell of which the state changed
+     * @param oldState  the state of the cell before the change
+     * @param newState  the state of the cell after the change
+     * @pre {@code checkCoordinates(x, y) && oldState != newState}
+     */
+    protected void cellStateChanged(final int x, final int y, 
+        final CellState oldState, final CellState newState) {
+        if (lineCounters != null) {
+            lineCounters.update(x, y, oldState, newState);
+        }
+        if (hashed) {
+            zobristHash ^= Zobrist.key(getWidth(), x, y, oldState)
+                    ^ Zobrist.key(getWidth(), x, y, newState);
+        }
+    }
+    
     /**
      * Gives a string representation of the grid. Can be used to save a grid to 
      * a file.
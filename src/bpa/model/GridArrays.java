@@ -1,7 +1,8 @@
 package bpa.model;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -40,12 +41,62 @@ public class GridArrays extends Grid {
      * The list of constraints that have to hold on this grid
      */
     private List<Constraint> constraints;    
+    
+    /**
+     * The index of all violations of the constraints on this grid, which is 
+     * kept up to date upon each change of a cell. Built upon the first query 
+     * on the violations of this grid, and discarded when the constraints 
+     * change.
+     */
+    private ViolationIndex violationIndex;
 
     public GridArrays(final Scanner sc, final List<Constraint> constraints) 
         throws IllegalArgumentException {
         super(sc, constraints);
         this.grid = GridParser.parseGrid(sc);
         this.constraints = constraints;
+        for (int x = 0; x != grid.length; x ++) {
+            for (int y = 0; y != grid[x].length; y ++) {
+                grid[x][y].attach(this, x, y);
+            }
+        }
+    }
+
+    /**
+     * Builds a new grid using the specification the given stream reads from,
+     * which is parsed by {@code GridReader}.
+     *
+     * @param in  the stream reading the grid-specification
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     * @throws IllegalArgumentException  if the syntax of the specification is
+     * wrong or if the specified grid violates some invariant(s)
+     * @throws IOException  if the stream could not be read
+     */
+    public GridArrays(final InputStream in, final List<Constraint> constraints)
+        throws IllegalArgumentException, IOException {
+        this(GridReader.parse(in), constraints);
+    }
+
+    /**
+     * Builds a new grid as given by the parsed specification.
+     *
+     * @param specification  the parsed grid-specification
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     */
+    public GridArrays(final GridReader.Specification specification,
+            final List<Constraint> constraints) {
+        this.grid = new Cell[specification.getWidth()]
+                [specification.getHeight()];
+        this.constraints = constraints;
+        for (int x = 0; x != grid.length; x ++) {
+            for (int y = 0; y != grid[x].length; y ++) {
+                grid[x][y] = new Cell(specification.getState(x, y),
+                        specification.isLocked(x, y));
+                grid[x][y].attach(this, x, y);
+            }
+        }
     }
 
     @Override
@@ -88,17 +139,12 @@ public class GridArrays extends Grid {
 
     @Override
     public List<Cell> getRow(int index) throws IllegalArgumentException {
-        List<Cell> row = new ArrayList();
-        for (int i = 0; i != getWidth(); i ++) {
-            if (index >= getHeight() || index < 0) {
-                throw new IllegalArgumentException(
-                        "GridArrays.getRow.pre violated: index = " + index
-                        + " is out of range");
-            }
-            Cell cell = grid[i][index];
-            row.add(cell);
+        if (index >= getHeight() || index < 0) {
+            throw new IllegalArgumentException(
+                    "GridArrays.getRow.pre violated: index = " + index
+                    + " is out of range");
         }
-        return row;
+        return getRowView(index);
     }
 
     @Override
@@ -108,9 +154,7 @@ public class GridArrays extends Grid {
                     "GridArrays.getColumn.pre violated: index = " + index
                     + " is out of range");
         }
-        Cell[] column = grid[index];
-        List<Cell> result = Arrays.asList(column);
-        return result;
+        return getColumnView(index);
     }
 
     @Override
@@ -131,6 +175,7 @@ public class GridArrays extends Grid {
     @Override
     public void setConstraints(List<Constraint> constraints) {
         this.constraints = constraints;
+        this.violationIndex = null;
     }
 
     @Override
@@ -164,42 +209,64 @@ public class GridArrays extends Grid {
         getCell(x, y).setState(state);
     }
 
+    /**
+     * Updates the violation index, if any, by checking only the groups that 
+     * contain the changed cell.
+     */
     @Override
-    public List<Violation> getConstraintViolations() {        
-        List<Violation> violations = new ArrayList();
-        for (Constraint c : constraints) {
-            for (List<Cell> group : c.obtainGroups(this)) {
-                List<Cell> guiltyCells = c.check(group);
-                if (! guiltyCells.isEmpty()) {
-                    Violation violation = new Violation(guiltyCells, c);
-                    violations.add(violation);
-                }
-            }
+    protected void cellStateChanged(final int x, final int y, 
+        final CellState oldState, final CellState newState) {
+        super.cellStateChanged(x, y, oldState, newState);
+        if (violationIndex != null) {
+            violationIndex.update(x, y);
+        }
+    }
+    
+    /**
+     * Gets the index of all violations on this grid, building it if it does 
+     * not exist yet.
+     */
+    private ViolationIndex getViolationIndex() {
+        if (violationIndex == null) {
+            violationIndex = new ViolationIndex(this, constraints);
         }
-        return violations;
+        return violationIndex;
+    }
+
+    @Override
+    public List<Violation> getConstraintViolations() {        
+        return getViolationIndex().getViolations();
     }    
     
+    /**
+     * Determines whether any of the constraints that have to hold on this grid
+     * is violated, which is answered directly from the violation index.
+     * 
+     * @pre {@code true}
+     * @return {@code ! getConstraintViolations().isEmpty()}
+     */
+    @Override
+    public boolean hasAnyViolation() {
+        return getViolationIndex().hasViolations();
+    }
+    
     @Override
     public List<Constraint> getCellViolations(final int x, final int y) {
         checkCoordinates(x, y);
-        List<Constraint> constraintTypes = new ArrayList();  
-        for (Violation v : getConstraintViolations()) {
-            for (Cell cell : v.getGroup()) {
-                if (cell == getCell(x, y)) {
-                    constraintTypes.add(v.getConstraint());
-                }
-            }
-        }
-        return constraintTypes;  
+        return getViolationIndex().getCellViolations(x, y);
     }  
     
     @Override
     public List<Cell> getViolatingCells() {        
         List<Cell> cells = new ArrayList();        
-        for (Violation v : getConstraintViolations()) {
-            for (Cell cell : v.getGroup()) {
-                if (! cells.contains(cell)) {
-                    cells.add(cell);
+        if (! hasAnyViolation()) {
+            return cells;
+        }
+        ViolationMap violationMap = getViolationMap();
+        for (int i = 0; i != getWidth(); i ++) {
+            for (int j = 0; j != getHeight(); j ++) {
+                if (violationMap.isViolating(i, j)) {
+                    cells.add(grid[i][j]);
                 }
             }
         }
@@ -208,37 +275,25 @@ public class GridArrays extends Grid {
     
     @Override
     public boolean isFull() {
-        for (Cell cell : this) {
-            if (cell.getState() == CellState.EMPTY) {
-                return false;
-            }
-        }
-        return true;
+        return getEmptyCount() == 0;
     }
 
     @Override
     public boolean isSolved() {
-        if (isFull() && getConstraintViolations().isEmpty()) {
+        if (isFull() && ! hasAnyViolation()) {
             return true;
         }
         return false;
     }
 
+    @Override
+    public Grid copy() {
+        return new GridArrays(getSpecification(), getConstraints());
+    }
+
     @Override
     public String toString() {
-        String result = "";
-        for (int i = 0; i < getHeight(); i ++) {
-            for (int j = 0; j < getWidth(); j ++) {
-                Cell cell = getCell(j, i);
-                String token = cell.toString();
-                result += token + " ";
-                if (token.length() == 1) {
-                    result += " ";  
-                }
-            }
-            result += System.getProperty("line.separator");
-        }
-        return result;
+        return new GridWriter().format(this);
     }
 
     @Override
@@ -316,7 +371,8 @@ public class GridArrays extends Grid {
     /**
      * An Iterator that iterates over all lines in the grid, that is, all rows
      * and columns. This is used to check rule violations of lines in the grid
-     * conveniently.
+     * conveniently. The lines are returned as the views of the grid, such that
+     * no lists are allocated during iteration.
      */
     public class LineIterator implements Iterator<List<Cell>> {
 
@@ -345,15 +401,15 @@ public class GridArrays extends Grid {
         @Override
         public List<Cell> next() {
             if (iteratingOverRows && index < getHeight() - 1) {
-                return getRow(index ++);
+                return getRowView(index ++);
             }
             if (iteratingOverRows && index == getHeight() - 1) {
                 iteratingOverRows = false;
                 index = 0;
-                return getRow(getHeight() - 1);
+                return getRowView(getHeight() - 1);
             }
             if (!iteratingOverRows && index < getWidth()) {
-                return getColumn(index ++);
+                return getColumnView(index ++);
             }
             throw new NoSuchElementException("GridArrays.GridIterator.next");
         }
@@ -382,7 +438,7 @@ public class GridArrays extends Grid {
          * given by the source {@code scanner} is reading from is wrong or if
          * the grid that is specified violates some invariant(s)
          */
-        private static Cell[][] parseGrid(final Scanner scanner) {
+        static Cell[][] parseGrid(final Scanner scanner) {
             ArrayList<Cell[]> rows = new ArrayList();
             for (int i = 0; scanner.hasNextLine(); i ++) {
                 Cell[] row = parseLine(scanner.nextLine());
@@ -0,0 +1,837 @@
+package bpa.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * An implementation of {@code Grid} using bitboards to represent the grid. Each
+ * row and each column of the grid is stored as a pair of {@code long}
+ * bitmasks, one mask for the cells containing a zero and one mask for the
+ * cells containing a one. A cell that is in neither mask is empty. Locked cells
+ * are stored in a third mask. Since each line fits in a single {@code long},
+ * the constraints of the Binary Puzzle can be checked using popcounts and
+ * shifts instead of walking over {@code Cell} objects.
+ *
+ * <p>
+ * The {@code Cell} objects handed out by this grid are handles that read from
+ * and write to the bitboards directly, such that existing {@code Cell}-based
+ * code (such as the commands) keeps working unchanged.
+ *
+ * <p>
+ * @inv
+ * - EvenDimensions: {@code width % 2 == 0 && height % 2 == 0} <br>
+ * - BoundedDimensions: {@code width <= MAX_SIZE && height <= MAX_SIZE} <br>
+ * - DisjointStates: {@code \forall y; 0 <= y < height;
+ *       (rowZeros[y] & rowOnes[y]) == 0} <br>
+ * - LockedNotEmpty: {@code \forall y; 0 <= y < height;
+ *       (rowLocked[y] & ~(rowZeros[y] | rowOnes[y])) == 0} <br>
+ * - RowsAndColumnsConsistent: bit {@code x} of {@code rowZeros[y]} equals bit
+ *       {@code y} of {@code columnZeros[x]}, and likewise for the masks of
+ *       ones and locked cells <br>
+ */
+public class GridBitboard extends Grid {
+
+    /** The maximum width and height of a grid, bounded by a {@code long}. */
+    public static final int MAX_SIZE = Long.SIZE;
+
+    /** The width and height of the grid. */
+    private int width;
+    private int height;
+
+    /**
+     * The bitmasks of each row, bit {@code x} of {@code rowZeros[y]} is set iff
+     * the cell at position {@code (x, y)} contains a zero, etc.
+     */
+    private long[] rowZeros;
+    private long[] rowOnes;
+    private long[] rowLocked;
+
+    /**
+     * The bitmasks of each column, bit {@code y} of {@code columnZeros[x]} is
+     * set iff the cell at position {@code (x, y)} contains a zero, etc.
+     */
+    private long[] columnZeros;
+    private long[] columnOnes;
+    private long[] columnLocked;
+
+    /** The cell handles of this grid, stored as {@code cells[x][y]}. */
+    private Cell[][] cells;
+
+    /**
+     * The list of constraints that have to hold on this grid
+     */
+    private List<Constraint> constraints;
+
+    /**
+     * The snapshot of the violations on this grid, which is taken upon the
+     * first query on the violations of a cell, and discarded upon each change
+     * of a cell or of the constraints.
+     */
+    private ViolationMap violationMap;
+
+    public GridBitboard(final Scanner sc, final List<Constraint> constraints)
+        throws IllegalArgumentException {
+        super(sc, constraints);
+        Cell[][] parsed = GridArrays.GridParser.parseGrid(sc);
+        initialize(parsed.length, parsed[0].length);
+        for (int x = 0; x != width; x ++) {
+            for (int y = 0; y != height; y ++) {
+                writeState(x, y, parsed[x][y].getState());
+                writeLocked(x, y, parsed[x][y].isLocked());
+            }
+        }
+        this.constraints = constraints;
+    }
+
+    /**
+     * Builds a new grid using the specification the given stream reads from,
+     * which is parsed by {@code GridReader}.
+     *
+     * @param in  the stream reading the grid-specification
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     * @throws IllegalArgumentException  if the syntax of the specification is
+     * wrong, if the specified grid violates some invariant(s) or if it
+     * exceeds {@code MAX_SIZE}
+     * @throws IOException  if the stream could not be read
+     */
+    public GridBitboard(final InputStream in,
+            final List<Constraint> constraints)
+        throws IllegalArgumentException, IOException {
+        this(GridReader.parse(in), constraints);
+    }
+
+    /**
+     * Builds a new grid as given by the parsed specification.
+     *
+     * @param specification  the parsed grid-specification
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     * @throws IllegalArgumentException  if the specified grid exceeds
+     * {@code MAX_SIZE}
+     */
+    public GridBitboard(final GridReader.Specification specification,
+            final List<Constraint> constraints)
+        throws IllegalArgumentException {
+        initialize(specification.getWidth(), specification.getHeight());
+        for (int x = 0; x != width; x ++) {
+            for (int y = 0; y != height; y ++) {
+                writeState(x, y, specification.getState(x, y));
+                writeLocked(x, y, specification.isLocked(x, y));
+            }
+        }
+        this.constraints = constraints;
+    }
+
+    /**
+     * Allocates the bitboards and cell handles of a grid with the given
+     * dimensions, in which all cells are empty.
+     *
+     * @throws IllegalArgumentException  if the given dimensions exceed
+     * {@code MAX_SIZE}
+     */
+    private void initialize(final int width, final int height)
+        throws IllegalArgumentException {
+        if (width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "GridBitboard.GridBitboard.pre violated: grid of size "
+                    + width + "x" + height + " exceeds the maximum size of "
+                    + MAX_SIZE);
+        }
+        this.width = width;
+        this.height = height;
+        rowZeros = new long[height];
+        rowOnes = new long[height];
+        rowLocked = new long[height];
+        columnZeros = new long[width];
+        columnOnes = new long[width];
+        columnLocked = new long[width];
+        cells = new Cell[width][height];
+        for (int x = 0; x != width; x ++) {
+            for (int y = 0; y != height; y ++) {
+                cells[x][y] = new BitboardCell(x, y);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRepOk() throws IllegalStateException {
+        if (width % 2 != 0 || height % 2 != 0) {
+            throw new IllegalStateException("grid dimensions uneven");
+        }
+        if (width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalStateException("grid dimensions exceed MAX_SIZE");
+        }
+        for (int y = 0; y != height; y ++) {
+            if ((rowZeros[y] & rowOnes[y]) != 0) {
+                throw new IllegalStateException(
+                        "row " + y + " contains cells that are both zero and "
+                        + "one");
+            }
+            if ((rowLocked[y] & ~(rowZeros[y] | rowOnes[y])) != 0) {
+                throw new IllegalStateException(
+                        "row " + y + " contains locked empty cells");
+            }
+            for (int x = 0; x != width; x ++) {
+                if (bit(rowZeros[y], x) != bit(columnZeros[x], y)
+                        || bit(rowOnes[y], x) != bit(columnOnes[x], y)
+                        || bit(rowLocked[y], x) != bit(columnLocked[x], y)) {
+                    throw new IllegalStateException(
+                            "row " + y + " and column " + x + " are "
+                            + "inconsistent");
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<Cell> getRow(int index) throws IllegalArgumentException {
+        if (index >= getHeight() || index < 0) {
+            throw new IllegalArgumentException(
+                    "GridBitboard.getRow.pre violated: index = " + index
+                    + " is out of range");
+        }
+        return getRowView(index);
+    }
+
+    @Override
+    public List<Cell> getColumn(int index) throws IllegalArgumentException {
+        if (index >= getWidth() || index < 0) {
+            throw new IllegalArgumentException(
+                    "GridBitboard.getColumn.pre violated: index = " + index
+                    + " is out of range");
+        }
+        return getColumnView(index);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public List<Constraint> getConstraints() {
+        return constraints;
+    }
+
+    @Override
+    public void setConstraints(List<Constraint> constraints) {
+        this.constraints = constraints;
+        violationMap = null;
+    }
+
+    @Override
+    public void checkCoordinates(final int x, final int y)
+        throws IllegalArgumentException {
+
+        if (x >= getWidth() || x < 0 || y >= getHeight() || y < 0) {
+            String caller;
+            caller = Thread.currentThread().getStackTrace()[2].getMethodName();
+            throw new IllegalArgumentException(
+                    "GridBitboard." + caller + ".pre violated: coordinates ("
+                    + x + ", " + y + ") is out of range");
+        }
+    }
+
+    @Override
+    public Cell getCell(final int x, final int y) {
+        checkCoordinates(x, y);
+        return cells[x][y];
+    }
+
+    @Override
+    public CellState getCellState(final int x, final int y) {
+        checkCoordinates(x, y);
+        return readState(x, y);
+    }
+
+    @Override
+    public boolean isCellLocked(final int x, final int y) {
+        checkCoordinates(x, y);
+        return bit(rowLocked[y], x);
+    }
+
+    @Override
+    public void setCellState(final int x, final int y, final CellState state) {
+        checkCoordinates(x, y);
+        cells[x][y].setState(state);
+    }
+
+    /**
+     * Counts the cells with the given state in a row directly on the
+     * bitboards, such that no line counters have to be maintained.
+     */
+    @Override
+    public int getRowCount(final int index, final CellState state) {
+        return count(rowZeros[index], rowOnes[index], width, state);
+    }
+
+    /**
+     * Counts the cells with the given state in a column directly on the
+     * bitboards, such that no line counters have to be maintained.
+     */
+    @Override
+    public int getColumnCount(final int index, final CellState state) {
+        return count(columnZeros[index], columnOnes[index], height, state);
+    }
+
+    @Override
+    public int getEmptyCount() {
+        int filled = 0;
+        for (int y = 0; y != height; y ++) {
+            filled += Long.bitCount(rowZeros[y] | rowOnes[y]);
+        }
+        return width * height - filled;
+    }
+
+    /**
+     * Counts the cells with the given state in a line of the given size with
+     * the given masks.
+     */
+    private static int count(final long zeros, final long ones,
+            final int size, final CellState state) {
+        switch (state) {
+            case ZERO:
+                return Long.bitCount(zeros);
+            case ONE:
+                return Long.bitCount(ones);
+            default:
+                return size - Long.bitCount(zeros | ones);
+        }
+    }
+
+    /**
+     * Returns the state of the cell at position {@code (x, y)}, read directly
+     * from the bitboards.
+     */
+    private CellState readState(final int x, final int y) {
+        if (bit(rowZeros[y], x)) {
+            return CellState.ZERO;
+        }
+        if (bit(rowOnes[y], x)) {
+            return CellState.ONE;
+        }
+        return CellState.EMPTY;
+    }
+
+    /**
+     * Writes the given state of the cell at position {@code (x, y)} into both
+     * the row and column bitboards.
+     */
+    private void writeState(final int x, final int y, final CellState state) {
+        long rowBit = 1L << x;
+        long columnBit = 1L << y;
+        rowZeros[y] &= ~rowBit;
+        rowOnes[y] &= ~rowBit;
+        columnZeros[x] &= ~columnBit;
+        columnOnes[x] &= ~columnBit;
+        if (state == CellState.ZERO) {
+            rowZeros[y] |= rowBit;
+            columnZeros[x] |= columnBit;
+        }
+        else if (state == CellState.ONE) {
+            rowOnes[y] |= rowBit;
+            columnOnes[x] |= columnBit;
+        }
+    }
+
+    /**
+     * Writes the given locked-state of the cell at position {@code (x, y)} into
+     * both the row and column bitboards.
+     */
+    private void writeLocked(final int x, final int y, final boolean locked) {
+        if (locked) {
+            rowLocked[y] |= 1L << x;
+            columnLocked[x] |= 1L << y;
+        }
+        else {
+            rowLocked[y] &= ~(1L << x);
+            columnLocked[x] &= ~(1L << y);
+        }
+    }
+
+    /**
+     * Returns whether bit {@code index} of the given mask is set.
+     */
+    private static boolean bit(final long mask, final int index) {
+        return ((mask >>> index) & 1L) != 0;
+    }
+
+    /**
+     * Returns the mask in which the lowest {@code size} bits are set.
+     */
+    private static long fullMask(final int size) {
+        return size == Long.SIZE ? -1L : (1L << size) - 1;
+    }
+
+    /**
+     * Returns a mask in which bit {@code i} is set iff bits {@code i},
+     * {@code i + 1} and {@code i + 2} of the given mask are all set.
+     */
+    private static long triplets(final long mask) {
+        return mask & (mask >>> 1) & (mask >>> 2);
+    }
+
+    /**
+     * Checks the grid on all the constraints that have to hold on this grid.
+     * The Binary Puzzle line and triplet constraints are checked directly on
+     * the bitboards, such that {@code Violation} objects are only built for the
+     * groups that actually violate the constraint. Any other constraint is
+     * checked on the groups it obtains from this grid.
+     */
+    @Override
+    public List<Violation> getConstraintViolations() {
+        List<Violation> violations = new ArrayList();
+        for (Constraint c : constraints) {
+            if (c.getClass() == BinaryPuzzleLineConstraint.class) {
+                addLineViolations(c, violations);
+            }
+            else if (c.getClass() == BinaryPuzzleTripletConstraint.class) {
+                addTripletViolations(c, violations);
+            }
+            else {
+                for (List<Cell> group : getGroupCache().getGroups(c)) {
+                    List<Cell> guiltyCells = c.check(group);
+                    if (! guiltyCells.isEmpty()) {
+                        violations.add(new Violation(guiltyCells, c));
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Adds the violations of the given line constraint to the given list, in
+     * the order of {@code lines()}: all rows first, then all columns.
+     */
+    private void addLineViolations(final Constraint constraint,
+            final List<Violation> violations) {
+        for (int y = 0; y != height; y ++) {
+            long guilty = overrepresented(rowZeros[y], rowOnes[y], width);
+            if (guilty != 0) {
+                List<Cell> group = new ArrayList();
+                for (int x = 0; x != width; x ++) {
+                    if (bit(guilty, x)) {
+                        group.add(cells[x][y]);
+                    }
+                }
+                violations.add(new Violation(group, constraint));
+            }
+        }
+        for (int x = 0; x != width; x ++) {
+            long guilty = overrepresented(columnZeros[x], columnOnes[x], height);
+            if (guilty != 0) {
+                List<Cell> group = new ArrayList();
+                for (int y = 0; y != height; y ++) {
+                    if (bit(guilty, y)) {
+                        group.add(cells[x][y]);
+                    }
+                }
+                violations.add(new Violation(group, constraint));
+            }
+        }
+    }
+
+    /**
+     * Returns the mask of the state that fills more than half of a line of the
+     * given size, or {@code 0} if no state does.
+     */
+    private static long overrepresented(final long zeros, final long ones,
+            final int size) {
+        if (Long.bitCount(zeros) > size / 2) {
+            return zeros;
+        }
+        if (Long.bitCount(ones) > size / 2) {
+            return ones;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the violations of the given triplet constraint to the given list,
+     * in the order of {@code BinaryPuzzleTripletConstraint.obtainGroups()}: all
+     * horizontal triplets first, then all vertical triplets.
+     */
+    private void addTripletViolations(final Constraint constraint,
+            final List<Violation> violations) {
+        long[] rowTriplets = new long[height];
+        for (int y = 0; y != height; y ++) {
+            rowTriplets[y] = triplets(rowZeros[y]) | triplets(rowOnes[y]);
+        }
+        for (int x = 1; x < width - 1; x ++) {
+            for (int y = 0; y != height; y ++) {
+                if (bit(rowTriplets[y], x - 1)) {
+                    violations.add(new Violation(Arrays.asList(cells[x - 1][y],
+                            cells[x][y], cells[x + 1][y]), constraint));
+                }
+            }
+        }
+        for (int x = 0; x != width; x ++) {
+            long columnTriplets = triplets(columnZeros[x])
+                    | triplets(columnOnes[x]);
+            for (int y = 1; y < height - 1; y ++) {
+                if (bit(columnTriplets, y - 1)) {
+                    violations.add(new Violation(Arrays.asList(cells[x][y - 1],
+                            cells[x][y], cells[x][y + 1]), constraint));
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines whether any of the constraints is violated. The Binary Puzzle 
+     * line and triplet constraints are checked directly on the bitboards, 
+     * stopping at the first violating line.
+     */
+    @Override
+    public boolean hasAnyViolation() {
+        for (Constraint c : constraints) {
+            if (c.getClass() == BinaryPuzzleLineConstraint.class) {
+                if (hasLineViolation()) {
+                    return true;
+                }
+            }
+            else if (c.getClass() == BinaryPuzzleTripletConstraint.class) {
+                if (hasTripletViolation()) {
+                    return true;
+                }
+            }
+            else {
+                for (List<Cell> group : getGroupCache().getGroups(c)) {
+                    if (c.isViolated(group)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether some line contains more than half zeros or ones.
+     */
+    private boolean hasLineViolation() {
+        for (int y = 0; y != height; y ++) {
+            if (overrepresented(rowZeros[y], rowOnes[y], width) != 0) {
+                return true;
+            }
+        }
+        for (int x = 0; x != width; x ++) {
+            if (overrepresented(columnZeros[x], columnOnes[x], height) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether some line contains three adjacent equal symbols.
+     */
+    private boolean hasTripletViolation() {
+        for (int y = 0; y != height; y ++) {
+            if ((triplets(rowZeros[y]) | triplets(rowOnes[y])) != 0) {
+                return true;
+            }
+        }
+        for (int x = 0; x != width; x ++) {
+            if ((triplets(columnZeros[x]) | triplets(columnOnes[x])) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<Constraint> getCellViolations(final int x, final int y) {
+        checkCoordinates(x, y);
+        if (violationMap == null) {
+            violationMap = getViolationMap();
+        }
+        return violationMap.getConstraints(x, y);
+    }
+
+    /**
+     * Discards the snapshot of the violations, if any.
+     */
+    @Override
+    protected void cellStateChanged(final int x, final int y,
+        final CellState oldState, final CellState newState) {
+        super.cellStateChanged(x, y, oldState, newState);
+        violationMap = null;
+    }
+
+    @Override
+    public List<Cell> getViolatingCells() {
+        List<Cell> violatingCells = new ArrayList();
+        long[] seen = new long[height];
+        for (Violation v : getConstraintViolations()) {
+            for (Cell cell : v.getGroup()) {
+                BitboardCell handle = (BitboardCell) cell;
+                if (! bit(seen[handle.y], handle.x)) {
+                    seen[handle.y] |= 1L << handle.x;
+                    violatingCells.add(cell);
+                }
+            }
+        }
+        return violatingCells;
+    }
+
+    @Override
+    public boolean isFull() {
+        long full = fullMask(width);
+        for (int y = 0; y != height; y ++) {
+            if ((rowZeros[y] | rowOnes[y]) != full) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isSolved() {
+        if (isFull() && ! hasAnyViolation()) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Grid copy() {
+        return new GridBitboard(getSpecification(), getConstraints());
+    }
+
+    @Override
+    public String toString() {
+        return new GridWriter().format(this);
+    }
+
+    @Override
+    protected LineView createLineView(final boolean row, final int index) {
+        Cell[] line = new Cell[row ? width : height];
+        for (int i = 0; i != line.length; i ++) {
+            line[i] = row ? cells[i][index] : cells[index][i];
+        }
+        return new BitboardLineView(row, index, line);
+    }
+
+    @Override
+    public Iterator<Cell> iterator() {
+        return new CellIterator();
+    }
+
+    @Override
+    public Iterable<List<Cell>> lines() {
+        return new LineIterable();
+    }
+
+
+    /**
+     * A handle to a single cell in the bitboards. All queries and changes on
+     * this handle are performed directly on the bitboards of the grid.
+     */
+    private class BitboardCell extends Cell {
+
+        /** The coordinates of the cell this handle refers to. */
+        private final int x;
+        private final int y;
+
+        BitboardCell(final int x, final int y) {
+            super(CellState.EMPTY, false);
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean isLocked() {
+            return bit(rowLocked[y], x);
+        }
+
+        @Override
+        public CellState getState() {
+            return readState(x, y);
+        }
+
+        @Override
+        public void setState(final CellState state)
+            throws IllegalArgumentException {
+            if (isLocked()) {
+                throw new IllegalArgumentException("Cell.changeState.pre "
+                        + "violated: cell is locked.");
+            }
+            CellState oldState = readState(x, y);
+            writeState(x, y, state);
+            if (oldState != state) {
+                cellStateChanged(x, y, oldState, state);
+            }
+        }
+
+        @Override
+        public void setLocked(final boolean locked)
+            throws IllegalArgumentException {
+            if (getState() == CellState.EMPTY && locked) {
+                throw new IllegalArgumentException("Cell.setLocked.pre "
+                        + "violated: cell is empty.");
+            }
+            writeLocked(x, y, locked);
+        }
+    }
+
+    /**
+     * A view of a line in the bitboards, which answers queries on the states
+     * in the line directly from the bitboards.
+     */
+    private class BitboardLineView extends LineView {
+
+        BitboardLineView(final boolean row, final int index,
+                final Cell[] cells) {
+            super(GridBitboard.this, row, index, cells);
+        }
+
+        /** Returns the mask of zeros in this line. */
+        private long zeros() {
+            return isRow() ? rowZeros[getIndex()] : columnZeros[getIndex()];
+        }
+
+        /** Returns the mask of ones in this line. */
+        private long ones() {
+            return isRow() ? rowOnes[getIndex()] : columnOnes[getIndex()];
+        }
+
+        @Override
+        public CellState stateAt(final int i) {
+            if (bit(zeros(), i)) {
+                return CellState.ZERO;
+            }
+            if (bit(ones(), i)) {
+                return CellState.ONE;
+            }
+            return CellState.EMPTY;
+        }
+
+        @Override
+        public int countZeros() {
+            return Long.bitCount(zeros());
+        }
+
+        @Override
+        public int countOnes() {
+            return Long.bitCount(ones());
+        }
+
+        @Override
+        public int countEmpty() {
+            return size() - Long.bitCount(zeros() | ones());
+        }
+    }
+
+    /**
+     * An iterator that iterates over all cells in the grid.
+     */
+    public class CellIterator implements Iterator<Cell> {
+
+        /**
+         * State of iterator.
+         */
+        private int x; //The current x-coordinate of the iterator
+        private int y; //The current y-coordinate of the iterator
+
+        /**
+         * Constructs iterator in initial state.
+         */
+        CellIterator() {
+            x = 0;
+            y = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return y != height;
+        }
+
+        @Override
+        public Cell next() {
+            if (y == height) {
+                throw new NoSuchElementException(
+                        "GridBitboard.CellIterator.next");
+            }
+            Cell result = cells[x][y];
+            if (x == width - 1) {
+                y++;
+                x = 0;
+            }
+            else {
+                x++;
+            }
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A facility used to iterate over all lines in the grid (rows & columns).
+     */
+    public class LineIterable implements Iterable<List<Cell>> {
+
+        @Override
+        public Iterator<List<Cell>> iterator() {
+            return new LineIterator();
+        }
+    }
+
+    /**
+     * An Iterator that iterates over all lines in the grid, that is, all rows
+     * and columns, in this order.
+     */
+    public class LineIterator implements Iterator<List<Cell>> {
+
+        /**
+         * State of iterator: the index of the next line, where the rows have
+         * indices {@code [0, height)} and the columns have indices
+         * {@code [height, height + width)}.
+         */
+        private int index;
+
+        /**
+         * Constructs iterator in initial state.
+         */
+        LineIterator() {
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index != height + width;
+        }
+
+        @Override
+        public List<Cell> next() {
+            if (index < height + width) {
+                return lineViews().get(index ++);
+            }
+            throw new NoSuchElementException("GridBitboard.LineIterator.next");
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
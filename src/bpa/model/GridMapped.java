@@ -0,0 +1,232 @@
+package bpa.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * An implementation of {@code Grid} backed by a memory-mapped file, such that
+ * grids far larger than the heap can be opened, edited and validated. The
+ * contents of the file are paged in by the operating system upon access,
+ * instead of being parsed into the heap, and changes to the grid are written
+ * back to the file.
+ *
+ * <p>
+ * The file has a fixed binary layout, all numbers being big-endian:
+ * <ul>
+ * <li> a header of {@code HEADER_SIZE} bytes, consisting of the {@code int}s
+ *      {@code MAGIC}, {@code VERSION}, the width and the height of the grid;
+ * <li> one byte per cell holding its cell code (see {@code CellCodes}), in
+ *      the order {@code y * width + x}.
+ * </ul>
+ * Grids are created and opened using the static factory methods of this
+ * class, next to {@code GridArrays.GridParser} for textual specifications.
+ */
+public class GridMapped extends IndexedGrid {
+
+    /** The magic number at the start of each grid file: "BPAG". */
+    public static final int MAGIC = 0x42504147;
+
+    /** The version of the layout of the grid files written by this class. */
+    public static final int VERSION = 1;
+
+    /** The number of bytes preceding the cell codes in a grid file. */
+    public static final int HEADER_SIZE = 16;
+
+    /** The base-2 logarithm of the size of each mapped region of the file. */
+    private static final int REGION_BITS = 30;
+
+    /** The mask of an offset within a mapped region. */
+    private static final long REGION_MASK = (1L << REGION_BITS) - 1;
+
+    /**
+     * The mapped regions of the file, where the byte at offset {@code p} in
+     * the file resides in {@code regions[p >>> REGION_BITS]}.
+     */
+    private final MappedByteBuffer[] regions;
+
+    /**
+     * Builds a grid of the given dimensions on the given mapped regions of a
+     * grid file.
+     */
+    private GridMapped(final int width, final int height,
+            final MappedByteBuffer[] regions,
+            final List<Constraint> constraints) {
+        super(width, height, constraints);
+        this.regions = regions;
+    }
+
+    /**
+     * Creates a new grid file of the given dimensions, in which all cells are
+     * empty, and opens it as a grid. An existing file is overwritten.
+     *
+     * @param file  the file to be created
+     * @param width  the width of the grid
+     * @param height  the height of the grid
+     * @param constraints  the list of constraints that have to hold on the
+     * grid
+     * @pre {@code width > 0 && height > 0 && width % 2 == 0
+     *      && height % 2 == 0 && width * height <= Integer.MAX_VALUE}
+     * @return a grid backed by {@code file}
+     * @throws IllegalArgumentException  if the dimensions are not positive and
+     * even, or if the grid contains too many cells
+     * @throws IOException  if the file could not be created
+     */
+    public static GridMapped create(final File file, final int width,
+            final int height, final List<Constraint> constraints)
+        throws IllegalArgumentException, IOException {
+        checkDimensions("create", width, height);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            raf.writeInt(MAGIC);
+            raf.writeInt(VERSION);
+            raf.writeInt(width);
+            raf.writeInt(height);
+            raf.setLength(HEADER_SIZE + (long) width * height);
+            return new GridMapped(width, height,
+                    map(raf.getChannel(), (long) width * height), constraints);
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Creates a new grid file holding a copy of the given grid, and opens it
+     * as a grid with the same constraints. An existing file is overwritten.
+     *
+     * @param file  the file to be created
+     * @param source  the grid to be copied
+     * @pre {@code source.isRepOk()}
+     * @return a grid backed by {@code file} equal to {@code source}
+     * @throws IOException  if the file could not be created
+     */
+    public static GridMapped create(final File file, final Grid source)
+        throws IOException {
+        GridMapped grid = create(file, source.getWidth(), source.getHeight(),
+                source.getConstraints());
+        for (int y = 0; y != source.getHeight(); y ++) {
+            for (int x = 0; x != source.getWidth(); x ++) {
+                grid.writeCode(grid.indexOf(x, y), CellCodes.encode(
+                        source.getCellState(x, y), source.isCellLocked(x, y)));
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Opens an existing grid file as a grid. Only the header of the file is
+     * read; the cells are paged in upon access.
+     *
+     * @param file  the grid file to be opened
+     * @param constraints  the list of constraints that have to hold on the
+     * grid
+     * @pre {@code file} contains a grid in the layout of this class
+     * @return a grid backed by {@code file}
+     * @throws IllegalArgumentException  if the header of the file is invalid
+     * or if the length of the file does not match its header
+     * @throws IOException  if the file could not be read
+     */
+    public static GridMapped open(final File file,
+            final List<Constraint> constraints)
+        throws IllegalArgumentException, IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC) {
+                throw new IllegalArgumentException("GridMapped.open.pre "
+                        + "violated: " + file + " is not a grid file");
+            }
+            int version = raf.readInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("GridMapped.open.pre "
+                        + "violated: unsupported version " + version);
+            }
+            int width = raf.readInt();
+            int height = raf.readInt();
+            checkDimensions("open", width, height);
+            long cellCount = (long) width * height;
+            if (raf.length() != HEADER_SIZE + cellCount) {
+                throw new IllegalArgumentException("GridMapped.open.pre "
+                        + "violated: length of " + file + " does not match "
+                        + "a grid of size " + width + "x" + height);
+            }
+            return new GridMapped(width, height,
+                    map(raf.getChannel(), cellCount), constraints);
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Checks whether a grid of the given dimensions can be stored in a grid
+     * file.
+     *
+     * @throws IllegalArgumentException  if the dimensions are not positive and
+     * even, or if the grid contains too many cells
+     */
+    private static void checkDimensions(final String caller, final int width,
+            final int height) throws IllegalArgumentException {
+        if (width <= 0 || height <= 0 || width % 2 != 0 || height % 2 != 0) {
+            throw new IllegalArgumentException("GridMapped." + caller
+                    + ".pre violated: grid of size " + width + "x" + height
+                    + " is not positive and even");
+        }
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("GridMapped." + caller
+                    + ".pre violated: grid of size " + width + "x" + height
+                    + " contains too many cells");
+        }
+    }
+
+    /**
+     * Maps the header and the given number of cell codes of the file of the
+     * given channel into memory, in regions of at most
+     * {@code 1 << REGION_BITS} bytes.
+     */
+    private static MappedByteBuffer[] map(final FileChannel channel,
+            final long cellCount) throws IOException {
+        long size = HEADER_SIZE + cellCount;
+        MappedByteBuffer[] result =
+                new MappedByteBuffer[(int) ((size - 1) >>> REGION_BITS) + 1];
+        for (int r = 0; r != result.length; r ++) {
+            long start = (long) r << REGION_BITS;
+            result[r] = channel.map(FileChannel.MapMode.READ_WRITE, start,
+                    Math.min(1L << REGION_BITS, size - start));
+        }
+        return result;
+    }
+
+    @Override
+    protected int readCode(final int index) {
+        long position = HEADER_SIZE + (long) index;
+        ByteBuffer region = regions[(int) (position >>> REGION_BITS)];
+        return region.get((int) (position & REGION_MASK));
+    }
+
+    @Override
+    protected void writeCode(final int index, final int code) {
+        long position = HEADER_SIZE + (long) index;
+        ByteBuffer region = regions[(int) (position >>> REGION_BITS)];
+        region.put((int) (position & REGION_MASK), (byte) code);
+    }
+
+    /**
+     * Forces any changes made to this grid to be written to the file it is
+     * backed by.
+     *
+     * @pre {@code true}
+     * @post the contents of the file equal the contents of this grid
+     */
+    public void flush() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package bpa.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * An implementation of {@code Grid} that packs the state and locked-state of
+ * each cell into {@code CellCodes.BITS} bits, using a {@code PackedCellStore}.
+ * No {@code Cell} object is stored per cell: handles to the cells are created
+ * upon request only (see {@code IndexedGrid}). As such, the memory used by a
+ * grid is roughly an order of magnitude smaller than that of
+ * {@code GridArrays}, which makes this implementation suitable for very large
+ * grids and for keeping many grids in memory at once.
+ */
+public class GridPacked extends IndexedGrid {
+
+    /** The packed codes of the cells, indexed by {@code y * width + x}. */
+    private final PackedCellStore store;
+
+    public GridPacked(final Scanner sc, final List<Constraint> constraints)
+        throws IllegalArgumentException {
+        this(GridArrays.GridParser.parseGrid(sc), constraints);
+    }
+
+    /**
+     * Builds a new grid using the specification the given stream reads from,
+     * which is parsed by {@code GridReader}.
+     *
+     * @param in  the stream reading the grid-specification
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     * @throws IllegalArgumentException  if the syntax of the specification is
+     * wrong or if the specified grid violates some invariant(s)
+     * @throws IOException  if the stream could not be read
+     */
+    public GridPacked(final InputStream in, final List<Constraint> constraints)
+        throws IllegalArgumentException, IOException {
+        this(GridReader.parse(in), constraints);
+    }
+
+    /**
+     * Builds a new grid as given by the parsed specification.
+     *
+     * @param specification  the parsed grid-specification
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     */
+    public GridPacked(final GridReader.Specification specification,
+            final List<Constraint> constraints) {
+        super(specification.getWidth(), specification.getHeight(),
+                constraints);
+        this.store = new PackedCellStore(getCellCount());
+        for (int y = 0; y != getHeight(); y ++) {
+            for (int x = 0; x != getWidth(); x ++) {
+                store.set(indexOf(x, y), specification.getCode(x, y));
+            }
+        }
+    }
+
+    /**
+     * Builds a new grid of the given dimensions in which all cells are empty.
+     *
+     * @param width  the width of the grid
+     * @param height  the height of the grid
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     * @pre {@code width > 0 && height > 0 && width % 2 == 0
+     *      && height % 2 == 0}
+     * @throws IllegalArgumentException  if {@code width} or {@code height} is
+     * not positive and even
+     */
+    public GridPacked(final int width, final int height,
+            final List<Constraint> constraints)
+        throws IllegalArgumentException {
+        super(width, height, constraints);
+        if (width <= 0 || height <= 0 || width % 2 != 0 || height % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "GridPacked.GridPacked.pre violated: grid of size "
+                    + width + "x" + height + " is not positive and even");
+        }
+        this.store = new PackedCellStore(width * height);
+    }
+
+    /**
+     * Builds a new grid holding the states and locked-states of the given
+     * parsed cells, stored as {@code cells[x][y]}.
+     */
+    private GridPacked(final Cell[][] cells,
+            final List<Constraint> constraints) {
+        super(cells.length, cells[0].length, constraints);
+        this.store = new PackedCellStore(cells.length * cells[0].length);
+        for (int x = 0; x != cells.length; x ++) {
+            for (int y = 0; y != cells[x].length; y ++) {
+                store.set(indexOf(x, y), CellCodes.encode(
+                        cells[x][y].getState(), cells[x][y].isLocked()));
+            }
+        }
+    }
+
+    @Override
+    protected int readCode(final int index) {
+        return store.get(index);
+    }
+
+    @Override
+    protected void writeCode(final int index, final int code) {
+        store.set(index, code);
+    }
+
+}
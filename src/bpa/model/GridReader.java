@@ -0,0 +1,291 @@
+package bpa.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A parser of grid specifications that works on the raw bytes of the
+ * specification, as an alternative to the {@code Scanner}-based
+ * {@code GridArrays.GridParser}. The specification is read in a single pass:
+ * each token is translated into a cell code (see {@code CellCodes}) as soon as
+ * it ends, and the codes are stored row by row, such that no {@code Cell}
+ * objects, strings or boxed lists are created and no transposition is needed.
+ *
+ * <p>
+ * The syntax is the same as that of {@code GridArrays.GridParser}: each line
+ * of the specification is a row of the grid, consisting of the tokens
+ * {@code 0}, {@code 1}, {@code 0*}, {@code 1*} and {@code .} separated by
+ * whitespace. Errors are reported with the same messages, where an illegal
+ * token takes precedence over a grid that is not rectangular.
+ */
+public final class GridReader {
+
+    /** The size of the blocks in which an input stream is read. */
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    /** The maximum length of a legal token. */
+    private static final int MAX_TOKEN_LENGTH = 2;
+
+    /** The codes of the cells parsed so far, row by row. */
+    private byte[] codes = new byte[256];
+
+    /** The number of cells parsed so far. */
+    private int cellCount;
+
+    /** The number of completed rows, and the number of cells per row. */
+    private int height;
+    private int width = -1;
+
+    /** The number of cells in the current row. */
+    private int rowLength;
+
+    /** Whether all completed rows are of the same length. */
+    private boolean rectangular = true;
+
+    /** The bytes of the current token. */
+    private byte[] token = new byte[MAX_TOKEN_LENGTH];
+    private int tokenLength;
+
+    /** Whether the previous byte was a carriage return. */
+    private boolean afterCarriageReturn;
+
+    /** Whether any byte of the current line has been read. */
+    private boolean lineStarted;
+
+    private GridReader() { }
+
+    /**
+     * Parses the specification the given stream reads from, until the end of
+     * the stream. The stream is not closed.
+     *
+     * @param in  the stream reading the grid-specification
+     * @pre {@code in} reads from a source with the right syntax
+     * @return the grid as specified in the source {@code in} is reading from
+     * @throws IllegalArgumentException  if the syntax of the specification is
+     * wrong or if the specified grid is empty or not rectangular
+     * @throws IOException  if the stream could not be read
+     */
+    public static Specification parse(final InputStream in)
+        throws IllegalArgumentException, IOException {
+        GridReader reader = new GridReader();
+        byte[] block = new byte[BLOCK_SIZE];
+        for (int n = in.read(block); n != -1; n = in.read(block)) {
+            for (int i = 0; i != n; i ++) {
+                reader.accept(block[i]);
+            }
+        }
+        return reader.finish();
+    }
+
+    /**
+     * Parses the specification in the remaining bytes of the given buffer.
+     *
+     * @param buffer  the buffer holding the grid-specification
+     * @pre {@code buffer} holds a specification with the right syntax
+     * @post {@code !buffer.hasRemaining()}
+     * @return the grid as specified in {@code buffer}
+     * @throws IllegalArgumentException  if the syntax of the specification is
+     * wrong or if the specified grid is empty or not rectangular
+     */
+    public static Specification parse(final ByteBuffer buffer)
+        throws IllegalArgumentException {
+        GridReader reader = new GridReader();
+        while (buffer.hasRemaining()) {
+            reader.accept(buffer.get());
+        }
+        return reader.finish();
+    }
+
+    /**
+     * Processes the next byte of the specification.
+     */
+    private void accept(final byte b) {
+        switch (b) {
+            case '\n':
+                if (afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    return;
+                }
+                endLine();
+                return;
+            case '\r':
+                endLine();
+                afterCarriageReturn = true;
+                return;
+            case ' ':
+            case '\t':
+            case 0x0B:
+            case '\f':
+            case 0x1C:
+            case 0x1D:
+            case 0x1E:
+            case 0x1F:
+                endToken();
+                break;
+            default:
+                if (tokenLength == token.length) {
+                    token = Arrays.copyOf(token, token.length * 2);
+                }
+                token[tokenLength ++] = b;
+        }
+        afterCarriageReturn = false;
+        lineStarted = true;
+    }
+
+    /**
+     * Ends the current token, if any, and stores its cell code.
+     *
+     * @throws IllegalArgumentException  if the token is illegal
+     */
+    private void endToken() throws IllegalArgumentException {
+        if (tokenLength == 0) {
+            return;
+        }
+        int code = parseToken();
+        if (cellCount == codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+        }
+        codes[cellCount ++] = (byte) code;
+        rowLength ++;
+        tokenLength = 0;
+    }
+
+    /**
+     * Determines the cell code that belongs to the current token.
+     *
+     * @throws IllegalArgumentException  if the token is illegal
+     */
+    private int parseToken() throws IllegalArgumentException {
+        int state = -1;
+        if (tokenLength <= MAX_TOKEN_LENGTH) {
+            switch (token[0]) {
+                case '0':
+                    state = CellCodes.ZERO;
+                    break;
+                case '1':
+                    state = CellCodes.ONE;
+                    break;
+                case '.':
+                    state = tokenLength == 1 ? CellCodes.EMPTY : -1;
+                    break;
+                default:
+            }
+        }
+        if (state != -1 && tokenLength == 1) {
+            return state == CellCodes.EMPTY ? state : state | CellCodes.LOCKED;
+        }
+        if (state != -1 && token[1] == '*') {
+            return state;
+        }
+        throw new IllegalArgumentException(
+                "GridArrays.GridInitializer.parseToken.pre violated: "
+                + "illegal token: "
+                + new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ends the current line, completing a row of the grid.
+     */
+    private void endLine() {
+        endToken();
+        if (width == -1) {
+            width = rowLength;
+        }
+        else if (rowLength != width) {
+            rectangular = false;
+        }
+        height ++;
+        rowLength = 0;
+        lineStarted = false;
+    }
+
+    /**
+     * Ends the specification, completing the last row if it was not ended by
+     * a line separator.
+     *
+     * @throws IllegalArgumentException  if the specified grid is empty or not
+     * rectangular
+     */
+    private Specification finish() throws IllegalArgumentException {
+        if (lineStarted) {
+            endLine();
+        }
+        if (! rectangular) {
+            throw new IllegalArgumentException(
+                    "GridArrays.GridParser.transpose.pre violated:"
+                    + " grid not rectangular.");
+        }
+        if (height == 0 || width == 0) {
+            throw new IllegalArgumentException(
+                    "GridReader.parse.pre violated: grid is empty.");
+        }
+        return new Specification(width, height, codes);
+    }
+
+    /**
+     * The result of parsing a grid specification: the dimensions of the grid
+     * and the cell code of each cell, stored row by row.
+     */
+    public static final class Specification {
+
+        /** The width and height of the specified grid. */
+        private final int width;
+        private final int height;
+
+        /** The cell codes, where the cell at {@code (x, y)} is at
+         * {@code y * width + x}. */
+        private final byte[] codes;
+
+        Specification(final int width, final int height,
+                final byte[] codes) {
+            this.width = width;
+            this.height = height;
+            this.codes = codes;
+        }
+
+        /**
+         * Gets the width of the specified grid.
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Gets the height of the specified grid.
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Gets the cell code of the cell at the given coordinates.
+         *
+         * @pre {@code 0 <= x < getWidth() && 0 <= y < getHeight()}
+         */
+        public int getCode(final int x, final int y) {
+            return codes[y * width + x];
+        }
+
+        /**
+         * Gets the state of the cell at the given coordinates.
+         *
+         * @pre {@code 0 <= x < getWidth() && 0 <= y < getHeight()}
+         */
+        public CellState getState(final int x, final int y) {
+            return CellCodes.state(getCode(x, y));
+        }
+
+        /**
+         * Determines whether the cell at the given coordinates is locked.
+         *
+         * @pre {@code 0 <= x < getWidth() && 0 <= y < getHeight()}
+         */
+        public boolean isLocked(final int x, final int y) {
+            return CellCodes.isLocked(getCode(x, y));
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package bpa.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A writer of grid specifications, producing the format read by
+ * {@code GridReader} and {@code GridArrays.GridParser}. The specification is
+ * streamed cell by cell through a reusable buffer, such that the time needed
+ * to write a grid is linear in the number of cells and no intermediate strings
+ * are built. Each cell is written as its token followed by one or two spaces,
+ * such that all tokens are aligned, and each row is ended by the line
+ * separator of the platform.
+ *
+ * <p>
+ * Since the buffers are reused, a single writer should not be used by several
+ * threads at once.
+ */
+public class GridWriter {
+
+    /** The size of the reusable buffer, in characters. */
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    /** The line separator written after each row. */
+    private static final String LINE_SEPARATOR =
+            System.getProperty("line.separator");
+
+    /** The maximum number of characters written for a single cell. */
+    private static final int MAX_STEP = 3 + LINE_SEPARATOR.length();
+
+    /** The buffer the specification is written into before it is flushed. */
+    private final char[] chars = new char[BUFFER_SIZE];
+
+    /**
+     * The buffer used to encode the specification before it is written to a
+     * channel, created upon first use.
+     */
+    private ByteBuffer bytes;
+
+    /** The index of the next cell to be written. */
+    private int position;
+
+    /**
+     * Writes the specification of the given grid to the given writer. The
+     * writer is neither flushed nor closed.
+     *
+     * @param grid  the grid to be written
+     * @param out  the writer the specification is written to
+     * @pre {@code true}
+     * @post the specification of {@code grid} has been written to {@code out}
+     * @throws IOException  if {@code out} could not be written to
+     */
+    public void write(final Grid grid, final Writer out) throws IOException {
+        position = 0;
+        for (int n = fill(grid); n != 0; n = fill(grid)) {
+            out.write(chars, 0, n);
+        }
+    }
+
+    /**
+     * Writes the specification of the given grid to the given channel, in
+     * ASCII encoding. The channel is not closed.
+     *
+     * @param grid  the grid to be written
+     * @param channel  the channel the specification is written to
+     * @pre {@code true}
+     * @post the specification of {@code grid} has been written to
+     * {@code channel}
+     * @throws IOException  if {@code channel} could not be written to
+     */
+    public void write(final Grid grid, final WritableByteChannel channel)
+        throws IOException {
+        if (bytes == null) {
+            bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        position = 0;
+        for (int n = fill(grid); n != 0; n = fill(grid)) {
+            bytes.clear();
+            for (int i = 0; i != n; i ++) {
+                bytes.put((byte) chars[i]);
+            }
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Gives the specification of the given grid as a string.
+     *
+     * @param grid  the grid to be written
+     * @pre {@code true}
+     * @return the specification of {@code grid}, as written by
+     * {@code write()}
+     */
+    public String format(final Grid grid) {
+        StringBuilder result = new StringBuilder(grid.getHeight()
+                * (3 * grid.getWidth() + LINE_SEPARATOR.length()));
+        position = 0;
+        for (int n = fill(grid); n != 0; n = fill(grid)) {
+            result.append(chars, 0, n);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Fills the buffer with the specification of the cells starting at
+     * {@code position}, until the buffer is full or all cells are written.
+     *
+     * @return the number of characters written into the buffer
+     */
+    private int fill(final Grid grid) {
+        int width = grid.getWidth();
+        int cellCount = width * grid.getHeight();
+        int n = 0;
+        while (position != cellCount && n + MAX_STEP <= chars.length) {
+            int x = position % width;
+            int y = position / width;
+            CellState state = grid.getCellState(x, y);
+            chars[n ++] = state.toString().charAt(0);
+            if (state != CellState.EMPTY && ! grid.isCellLocked(x, y)) {
+                chars[n ++] = '*';
+            }
+            else {
+                chars[n ++] = ' ';
+            }
+            chars[n ++] = ' ';
+            if (x == width - 1) {
+                LINE_SEPARATOR.getChars(0, LINE_SEPARATOR.length(), chars, n);
+                n += LINE_SEPARATOR.length();
+            }
+            position ++;
+        }
+        return n;
+    }
+
+}
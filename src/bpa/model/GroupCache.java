@@ -0,0 +1,175 @@
+package bpa.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of the groups of cells that the constraints obtain from some grid.
+ * Since the shape of a grid and the {@code Cell} objects it consists of never
+ * change, the groups of each constraint only have to be obtained once per
+ * grid. Besides the groups themselves, this cache also provides a reverse
+ * index from each cell to the groups of a constraint in which it resides.
+ */
+public class GroupCache {
+
+    /** The grid of which the groups are cached. */
+    private final Grid grid;
+
+    /** The cached groups, per constraint. */
+    private final Map<Constraint, Groups> cache;
+
+    /**
+     * The position of each cell in the grid, as {@code x * height + y}. Built
+     * upon the first query on the position of a cell.
+     */
+    private Map<Cell, Integer> positions;
+
+    /**
+     * Initializes an empty cache of the groups of the given grid.
+     *
+     * @param grid  the grid of which the groups should be cached
+     */
+    public GroupCache(final Grid grid) {
+        this.grid = grid;
+        this.cache = new HashMap<Constraint, Groups>();
+    }
+
+    /**
+     * Returns the groups the given constraint obtains from the grid of this
+     * cache, obtaining them only if this has not been done before.
+     *
+     * @param constraint  the constraint of which the groups are requested
+     * @pre {@code true}
+     * @return an unmodifiable list equal to
+     * {@code constraint.obtainGroups(grid)}
+     */
+    public List<List<Cell>> getGroups(final Constraint constraint) {
+        return getEntry(constraint).groups;
+    }
+
+    /**
+     * Returns the indices (in {@code getGroups(constraint)}) of all groups of
+     * the given constraint that contain the cell at the given coordinates, in
+     * ascending order.
+     *
+     * @param constraint  the constraint of which the groups are requested
+     * @param x  the x-coordinate of the cell under inspection
+     * @param y  the y-coordinate of the cell under inspection
+     * @pre {@code grid.checkCoordinates(x, y)}
+     * @return the indices of the groups containing the cell at position
+     * {@code (x, y)}. The returned array should not be modified.
+     */
+    public int[] getGroupIndices(final Constraint constraint,
+            final int x, final int y) {
+        Groups entry = getEntry(constraint);
+        if (entry.cellGroups == null) {
+            entry.cellGroups = buildReverseIndex(entry.groups);
+        }
+        return entry.cellGroups[x * grid.getHeight() + y];
+    }
+
+    /**
+     * Returns all groups of the given constraint that contain the cell at the
+     * given coordinates.
+     *
+     * @param constraint  the constraint of which the groups are requested
+     * @param x  the x-coordinate of the cell under inspection
+     * @param y  the y-coordinate of the cell under inspection
+     * @pre {@code grid.checkCoordinates(x, y)}
+     * @return the groups in {@code getGroups(constraint)} that contain the
+     * cell at position {@code (x, y)}
+     */
+    public List<List<Cell>> getGroupsContaining(final Constraint constraint,
+            final int x, final int y) {
+        List<List<Cell>> groups = getGroups(constraint);
+        int[] indices = getGroupIndices(constraint, x, y);
+        List<List<Cell>> result = new ArrayList<List<Cell>>(indices.length);
+        for (int index : indices) {
+            result.add(groups.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cache entry of the given constraint, creating it if it does
+     * not exist yet.
+     */
+    private synchronized Groups getEntry(final Constraint constraint) {
+        Groups entry = cache.get(constraint);
+        if (entry == null) {
+            entry = new Groups(constraint.obtainGroups(grid));
+            cache.put(constraint, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the position of the given cell in the grid of this cache, as 
+     * {@code x * height + y}.
+     * 
+     * @pre {@code cell} resides in the grid of this cache
+     */
+    synchronized int positionOf(final Cell cell) {
+        if (cell instanceof IndexedGrid.CellHandle
+                && ((IndexedGrid.CellHandle) cell).grid() == grid) {
+            return ((IndexedGrid.CellHandle) cell).position();
+        }
+        if (positions == null) {
+            positions = new IdentityHashMap<Cell, Integer>();
+            for (int x = 0; x != grid.getWidth(); x ++) {
+                for (int y = 0; y != grid.getHeight(); y ++) {
+                    positions.put(grid.getCell(x, y), x * grid.getHeight() + y);
+                }
+            }
+        }
+        return positions.get(cell);
+    }
+
+    /**
+     * Builds the mapping from each cell position to the indices of the given
+     * groups that contain the cell at that position.
+     */
+    private synchronized int[][] buildReverseIndex(
+            final List<List<Cell>> groups) {
+        int cellCount = grid.getWidth() * grid.getHeight();
+        int[] groupCount = new int[cellCount];
+        for (List<Cell> group : groups) {
+            for (Cell cell : group) {
+                groupCount[positionOf(cell)] ++;
+            }
+        }
+        int[][] result = new int[cellCount][];
+        for (int i = 0; i != cellCount; i ++) {
+            result[i] = new int[groupCount[i]];
+            groupCount[i] = 0;
+        }
+        for (int g = 0; g != groups.size(); g ++) {
+            for (Cell cell : groups.get(g)) {
+                int i = positionOf(cell);
+                result[i][groupCount[i] ++] = g;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The cached groups of a single constraint.
+     */
+    private static class Groups {
+
+        /** The groups obtained by the constraint. */
+        private final List<List<Cell>> groups;
+
+        /** The reverse index of the groups, built on demand. */
+        private volatile int[][] cellGroups;
+
+        Groups(final List<List<Cell>> groups) {
+            this.groups = Collections.unmodifiableList(groups);
+        }
+    }
+
+}
@@ -0,0 +1,690 @@
+package bpa.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A base class for implementations of {@code Grid} that do not store a
+ * {@code Cell} object per cell, but a primitive cell code (see
+ * {@code CellCodes}) per cell index, where the cell at position {@code (x, y)}
+ * has index {@code y * width + x}. Implementations only have to provide the
+ * storage of these codes.
+ *
+ * <p>
+ * {@code Cell} objects are only created when they are asked for: each call to
+ * {@code getCell()} returns a new lightweight handle that reads from and writes
+ * to the storage of this grid directly. Handles to the same cell are equal
+ * to each other, but not necessarily identical. This way, existing
+ * {@code Cell}-based code (such as the commands) keeps working, while the
+ * index-based methods of this class can be used to avoid creating handles.
+ *
+ * <p>
+ * @inv
+ * - EvenDimensions: {@code getWidth() % 2 == 0 && getHeight() % 2 == 0} <br>
+ * - ValidCodes: {@code \forall i; 0 <= i < getWidth() * getHeight();
+ *       CellCodes.isValid(readCode(i))} <br>
+ */
+public abstract class IndexedGrid extends Grid {
+
+    /** The width and height of the grid. */
+    private int width;
+    private int height;
+
+    /**
+     * The list of constraints that have to hold on this grid
+     */
+    private List<Constraint> constraints;
+
+    /**
+     * The snapshot of the violations on this grid, which is taken upon the
+     * first query on the violations of a cell, and discarded upon each change
+     * of a cell or of the constraints.
+     */
+    private ViolationMap violationMap;
+
+    /**
+     * Builds a new grid of the given dimensions, of which the storage is
+     * initialized by the implementation.
+     *
+     * @param width  the width of the grid
+     * @param height  the height of the grid
+     * @param constraints  the list of constraints that have to hold on this
+     * grid
+     * @pre {@code width > 0 && height > 0}
+     */
+    protected IndexedGrid(final int width, final int height,
+            final List<Constraint> constraints) {
+        this.width = width;
+        this.height = height;
+        this.constraints = constraints;
+    }
+
+    /**
+     * Reads the code of the cell with the given index from the storage.
+     *
+     * @param index  the index of the cell
+     * @pre {@code 0 <= index < getWidth() * getHeight()}
+     * @return the cell code of the cell with index {@code index}
+     */
+    protected abstract int readCode(int index);
+
+    /**
+     * Writes the code of the cell with the given index into the storage.
+     * Implementations should not notify any listeners of the change.
+     *
+     * @param index  the index of the cell
+     * @param code  the new cell code of the cell
+     * @pre {@code 0 <= index < getWidth() * getHeight()
+     *      && CellCodes.isValid(code)}
+     */
+    protected abstract void writeCode(int index, int code);
+
+    @Override
+    public boolean isRepOk() throws IllegalStateException {
+        if (width % 2 != 0 || height % 2 != 0) {
+            throw new IllegalStateException("grid dimensions uneven");
+        }
+        for (int i = 0; i != width * height; i ++) {
+            if (! CellCodes.isValid(readCode(i))) {
+                throw new IllegalStateException(
+                        "cell " + i + " has invalid code " + readCode(i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the index of the cell at the given coordinates.
+     *
+     * @param x  the x-coordinate of the cell
+     * @param y  the y-coordinate of the cell
+     * @pre {@code checkCoordinates(x, y)}
+     * @return {@code y * getWidth() + x}
+     */
+    public int indexOf(final int x, final int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Gets the number of cells in this grid, which is the number of valid
+     * cell indices.
+     */
+    public int getCellCount() {
+        return width * height;
+    }
+
+    /**
+     * Gets the state of the cell with the given index, without creating a
+     * handle to the cell.
+     *
+     * @param index  the index of the cell
+     * @pre {@code 0 <= index < getCellCount()}
+     * @return the state of the cell with index {@code index}
+     */
+    public CellState getState(final int index) {
+        return CellCodes.state(readCode(index));
+    }
+
+    /**
+     * Determines whether the cell with the given index is locked, without
+     * creating a handle to the cell.
+     *
+     * @param index  the index of the cell
+     * @pre {@code 0 <= index < getCellCount()}
+     */
+    public boolean isLocked(final int index) {
+        return CellCodes.isLocked(readCode(index));
+    }
+
+    /**
+     * Changes the state of the cell with the given index, without creating a
+     * handle to the cell.
+     *
+     * @param index  the index of the cell
+     * @param state  the desired state of the cell
+     * @pre {@code 0 <= index < getCellCount() && !isLocked(index)}
+     * @post {@code getState(index) == state}
+     * @throws IllegalArgumentException  if {@code isLocked(index)}
+     */
+    public void setState(final int index, final CellState state)
+        throws IllegalArgumentException {
+        int code = readCode(index);
+        if (CellCodes.isLocked(code)) {
+            throw new IllegalArgumentException("Cell.changeState.pre "
+                    + "violated: cell is locked.");
+        }
+        CellState oldState = CellCodes.state(code);
+        if (oldState != state) {
+            writeCode(index, CellCodes.encode(state));
+            cellStateChanged(index % width, index / width, oldState, state);
+        }
+    }
+
+    /**
+     * Sets the locked-state of the cell with the given index, without creating
+     * a handle to the cell.
+     *
+     * @param index  the index of the cell
+     * @param locked  the desired locked-state of the cell
+     * @pre {@code 0 <= index < getCellCount()
+     *      && !(getState(index) == CellState.EMPTY && locked)}
+     * @throws IllegalArgumentException  if
+     * {@code getState(index) == CellState.EMPTY && locked}
+     */
+    public void setLocked(final int index, final boolean locked)
+        throws IllegalArgumentException {
+        int code = readCode(index);
+        if ((code & CellCodes.STATE_MASK) == CellCodes.EMPTY && locked) {
+            throw new IllegalArgumentException("Cell.setLocked.pre "
+                    + "violated: cell is empty.");
+        }
+        writeCode(index, locked ? code | CellCodes.LOCKED
+                : code & ~CellCodes.LOCKED);
+    }
+
+    @Override
+    public List<Cell> getRow(int index) throws IllegalArgumentException {
+        if (index >= getHeight() || index < 0) {
+            throw new IllegalArgumentException(
+                    getClass().getSimpleName() + ".getRow.pre violated: "
+                    + "index = " + index + " is out of range");
+        }
+        return getRowView(index);
+    }
+
+    @Override
+    public List<Cell> getColumn(int index) throws IllegalArgumentException {
+        if (index >= getWidth() || index < 0) {
+            throw new IllegalArgumentException(
+                    getClass().getSimpleName() + ".getColumn.pre violated: "
+                    + "index = " + index + " is out of range");
+        }
+        return getColumnView(index);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public List<Constraint> getConstraints() {
+        return constraints;
+    }
+
+    @Override
+    public void setConstraints(List<Constraint> constraints) {
+        this.constraints = constraints;
+        violationMap = null;
+    }
+
+    @Override
+    public void checkCoordinates(final int x, final int y)
+        throws IllegalArgumentException {
+
+        if (x >= getWidth() || x < 0 || y >= getHeight() || y < 0) {
+            String caller;
+            caller = Thread.currentThread().getStackTrace()[2].getMethodName();
+            throw new IllegalArgumentException(
+                    getClass().getSimpleName() + "." + caller
+                    + ".pre violated: coordinates (" + x + ", " + y
+                    + ") is out of range");
+        }
+    }
+
+    /**
+     * Gets a handle to the cell at the given x- and y-coordinate. A new handle
+     * is created upon each call.
+     */
+    @Override
+    public Cell getCell(final int x, final int y) {
+        checkCoordinates(x, y);
+        return new CellHandle(indexOf(x, y));
+    }
+
+    @Override
+    public CellState getCellState(final int x, final int y) {
+        checkCoordinates(x, y);
+        return getState(indexOf(x, y));
+    }
+
+    @Override
+    public boolean isCellLocked(final int x, final int y) {
+        checkCoordinates(x, y);
+        return isLocked(indexOf(x, y));
+    }
+
+    @Override
+    public void setCellState(final int x, final int y, final CellState state) {
+        checkCoordinates(x, y);
+        setState(indexOf(x, y), state);
+    }
+
+    /**
+     * Checks the grid on all the constraints that have to hold on this grid.
+     * The Binary Puzzle line and triplet constraints are checked directly on
+     * the cell codes, such that handles are only created for the cells that
+     * actually violate the constraint. Any other constraint is checked on the
+     * groups it obtains from this grid.
+     */
+    @Override
+    public List<Violation> getConstraintViolations() {
+        List<Violation> violations = new ArrayList();
+        for (Constraint c : constraints) {
+            if (c.getClass() == BinaryPuzzleLineConstraint.class) {
+                addLineViolations(c, violations);
+            }
+            else if (c.getClass() == BinaryPuzzleTripletConstraint.class) {
+                addTripletViolations(c, violations);
+            }
+            else {
+                for (List<Cell> group : getGroupCache().getGroups(c)) {
+                    List<Cell> guiltyCells = c.check(group);
+                    if (! guiltyCells.isEmpty()) {
+                        violations.add(new Violation(guiltyCells, c));
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Adds the violations of the given line constraint to the given list, in
+     * the order of {@code lines()}: all rows first, then all columns.
+     */
+    private void addLineViolations(final Constraint constraint,
+            final List<Violation> violations) {
+        for (LineView line : lineViews()) {
+            CellState guilty = overrepresented(line);
+            if (guilty != null) {
+                List<Cell> group = new ArrayList();
+                for (int i = 0; i != line.size(); i ++) {
+                    if (line.stateAt(i) == guilty) {
+                        group.add(line.get(i));
+                    }
+                }
+                violations.add(new Violation(group, constraint));
+            }
+        }
+    }
+
+    /**
+     * Returns the state that fills more than half of the given line, or
+     * {@code null} if no state does.
+     */
+    private static CellState overrepresented(final LineView line) {
+        if (line.countZeros() > line.size() / 2) {
+            return CellState.ZERO;
+        }
+        if (line.countOnes() > line.size() / 2) {
+            return CellState.ONE;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the violations of the given triplet constraint to the given list,
+     * in the order of {@code BinaryPuzzleTripletConstraint.obtainGroups()}: all
+     * horizontal triplets first, then all vertical triplets.
+     */
+    private void addTripletViolations(final Constraint constraint,
+            final List<Violation> violations) {
+        for (int x = 1; x < width - 1; x ++) {
+            for (int y = 0; y != height; y ++) {
+                int i = indexOf(x, y);
+                if (isTriplet(i - 1, i, i + 1)) {
+                    violations.add(new Violation(handles(i - 1, i, i + 1),
+                            constraint));
+                }
+            }
+        }
+        for (int x = 0; x != width; x ++) {
+            for (int y = 1; y < height - 1; y ++) {
+                int i = indexOf(x, y);
+                if (isTriplet(i - width, i, i + width)) {
+                    violations.add(new Violation(
+                            handles(i - width, i, i + width), constraint));
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines whether the cells with the given indices contain the same
+     * symbol.
+     */
+    private boolean isTriplet(final int i1, final int i2, final int i3) {
+        int state = readCode(i1) & CellCodes.STATE_MASK;
+        return state != CellCodes.EMPTY
+                && state == (readCode(i2) & CellCodes.STATE_MASK)
+                && state == (readCode(i3) & CellCodes.STATE_MASK);
+    }
+
+    /**
+     * Creates a list of handles to the cells with the given indices.
+     */
+    private List<Cell> handles(final int... indices) {
+        List<Cell> result = new ArrayList(indices.length);
+        for (int i : indices) {
+            result.add(new CellHandle(i));
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether any of the constraints is violated. The Binary Puzzle
+     * line and triplet constraints are checked directly on the line counters
+     * and cell codes.
+     */
+    @Override
+    public boolean hasAnyViolation() {
+        for (Constraint c : constraints) {
+            if (c.getClass() == BinaryPuzzleLineConstraint.class) {
+                for (LineView line : lineViews()) {
+                    if (overrepresented(line) != null) {
+                        return true;
+                    }
+                }
+            }
+            else if (c.getClass() == BinaryPuzzleTripletConstraint.class) {
+                if (hasTripletViolation()) {
+                    return true;
+                }
+            }
+            else {
+                for (List<Cell> group : getGroupCache().getGroups(c)) {
+                    if (c.isViolated(group)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether some line contains three adjacent equal symbols.
+     */
+    private boolean hasTripletViolation() {
+        for (int y = 0; y != height; y ++) {
+            for (int x = 1; x < width - 1; x ++) {
+                int i = indexOf(x, y);
+                if (isTriplet(i - 1, i, i + 1)) {
+                    return true;
+                }
+            }
+        }
+        for (int y = 1; y < height - 1; y ++) {
+            for (int x = 0; x != width; x ++) {
+                int i = indexOf(x, y);
+                if (isTriplet(i - width, i, i + width)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<Constraint> getCellViolations(final int x, final int y) {
+        checkCoordinates(x, y);
+        if (violationMap == null) {
+            violationMap = getViolationMap();
+        }
+        return violationMap.getConstraints(x, y);
+    }
+
+    /**
+     * Discards the snapshot of the violations, if any.
+     */
+    @Override
+    protected void cellStateChanged(final int x, final int y,
+        final CellState oldState, final CellState newState) {
+        super.cellStateChanged(x, y, oldState, newState);
+        violationMap = null;
+    }
+
+    @Override
+    public List<Cell> getViolatingCells() {
+        List<Cell> violatingCells = new ArrayList();
+        BitSet seen = new BitSet(width * height);
+        for (Violation v : getConstraintViolations()) {
+            for (Cell cell : v.getGroup()) {
+                int index = ((CellHandle) cell).index;
+                if (! seen.get(index)) {
+                    seen.set(index);
+                    violatingCells.add(cell);
+                }
+            }
+        }
+        return violatingCells;
+    }
+
+    @Override
+    public boolean isFull() {
+        return getEmptyCount() == 0;
+    }
+
+    @Override
+    public boolean isSolved() {
+        if (isFull() && ! hasAnyViolation()) {
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Creates a copy of this grid in memory, as a {@code GridPacked}.
+     */
+    @Override
+    public Grid copy() {
+        return new GridPacked(getSpecification(), getConstraints());
+    }
+
+    @Override
+    public String toString() {
+        return new GridWriter().format(this);
+    }
+
+    @Override
+    protected LineView createLineView(final boolean row, final int index) {
+        return new IndexedLineView(row, index);
+    }
+
+    @Override
+    public Iterator<Cell> iterator() {
+        return new CellIterator();
+    }
+
+    @Override
+    public Iterable<List<Cell>> lines() {
+        return new LineIterable();
+    }
+
+
+    /**
+     * A lightweight handle to a single cell in this grid. All queries and
+     * changes on this handle are performed directly on the storage of the
+     * grid. Handles are equal iff they refer to the same cell of the same
+     * grid.
+     */
+    class CellHandle extends Cell {
+
+        /** The index of the cell this handle refers to. */
+        private final int index;
+
+        CellHandle(final int index) {
+            super(CellState.EMPTY, false);
+            this.index = index;
+        }
+
+        /**
+         * Gets the position of the cell this handle refers to, in the
+         * column-major order used by {@code GroupCache}.
+         */
+        int position() {
+            return (index % width) * height + index / width;
+        }
+
+        /**
+         * Gets the grid the cell this handle refers to resides in.
+         */
+        IndexedGrid grid() {
+            return IndexedGrid.this;
+        }
+
+        @Override
+        public boolean isLocked() {
+            return IndexedGrid.this.isLocked(index);
+        }
+
+        @Override
+        public CellState getState() {
+            return IndexedGrid.this.getState(index);
+        }
+
+        @Override
+        public void setState(final CellState state)
+            throws IllegalArgumentException {
+            IndexedGrid.this.setState(index, state);
+        }
+
+        @Override
+        public void setLocked(final boolean locked)
+            throws IllegalArgumentException {
+            IndexedGrid.this.setLocked(index, locked);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (! (other instanceof CellHandle)) {
+                return false;
+            }
+            CellHandle handle = (CellHandle) other;
+            return handle.grid() == IndexedGrid.this && handle.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return index;
+        }
+    }
+
+    /**
+     * A view of a line in this grid, which answers queries on the states in
+     * the line directly from the storage, and only creates handles when the
+     * cells themselves are asked for.
+     */
+    private class IndexedLineView extends LineView {
+
+        IndexedLineView(final boolean row, final int index) {
+            super(IndexedGrid.this, row, index, row ? width : height);
+        }
+
+        @Override
+        public CellState stateAt(final int i) {
+            if (isRow()) {
+                return getState(IndexedGrid.this.indexOf(i, getIndex()));
+            }
+            return getState(IndexedGrid.this.indexOf(getIndex(), i));
+        }
+    }
+
+    /**
+     * An iterator that iterates over all cells in the grid, creating a handle
+     * for each cell.
+     */
+    public class CellIterator implements Iterator<Cell> {
+
+        /**
+         * State of iterator: the index of the next cell.
+         */
+        private int index;
+
+        /**
+         * Constructs iterator in initial state.
+         */
+        CellIterator() {
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index != width * height;
+        }
+
+        @Override
+        public Cell next() {
+            if (index == width * height) {
+                throw new NoSuchElementException(
+                        "IndexedGrid.CellIterator.next");
+            }
+            return new CellHandle(index ++);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A facility used to iterate over all lines in the grid (rows & columns).
+     */
+    public class LineIterable implements Iterable<List<Cell>> {
+
+        @Override
+        public Iterator<List<Cell>> iterator() {
+            return new LineIterator();
+        }
+    }
+
+    /**
+     * An Iterator that iterates over all lines in the grid, that is, all rows
+     * and columns, in this order.
+     */
+    public class LineIterator implements Iterator<List<Cell>> {
+
+        /**
+         * State of iterator: the index of the next line, where the rows have
+         * indices {@code [0, height)} and the columns have indices
+         * {@code [height, height + width)}.
+         */
+        private int index;
+
+        /**
+         * Constructs iterator in initial state.
+         */
+        LineIterator() {
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index != height + width;
+        }
+
+        @Override
+        public List<Cell> next() {
+            if (index < height + width) {
+                return lineViews().get(index ++);
+            }
+            throw new NoSuchElementException("IndexedGrid.LineIterator.next");
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
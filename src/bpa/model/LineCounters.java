@@ -0,0 +1,96 @@
+package bpa.model;
+
+/**
+ * Counters of the number of zeros, ones and empty cells in each row and column
+ * of some grid, and of the total number of empty cells in that grid. The
+ * counters are initialized by inspecting every cell once, after which they are
+ * updated upon each change of a cell.
+ *
+ * @inv
+ * - CountsConsistent: for each line, the counts of zeros, ones and empty cells
+ *       add up to the length of the line <br>
+ */
+class LineCounters {
+
+    /** The number of possible cell-states. */
+    private static final int STATES = CellState.values().length;
+
+    /**
+     * The counts of each row, where {@code rowCounts[y * STATES + s]} is the
+     * number of cells in row {@code y} with the state of ordinal {@code s}.
+     */
+    private final int[] rowCounts;
+
+    /**
+     * The counts of each column, where {@code columnCounts[x * STATES + s]} is
+     * the number of cells in column {@code x} with the state of ordinal
+     * {@code s}.
+     */
+    private final int[] columnCounts;
+
+    /** The total number of empty cells in the grid. */
+    private int emptyCount;
+
+    /**
+     * Initializes the counters of the given grid, according to its current
+     * state. The cells are inspected row by row, such that grids storing their
+     * cells in that order are read sequentially.
+     *
+     * @param grid  the grid of which the lines should be counted
+     */
+    LineCounters(final Grid grid) {
+        rowCounts = new int[grid.getHeight() * STATES];
+        columnCounts = new int[grid.getWidth() * STATES];
+        for (int y = 0; y != grid.getHeight(); y ++) {
+            for (int x = 0; x != grid.getWidth(); x ++) {
+                add(x, y, grid.getCellState(x, y), 1);
+            }
+        }
+    }
+
+    /**
+     * Adds the given amount to the counters of the given state in the row and
+     * column of the cell at the given coordinates.
+     */
+    private void add(final int x, final int y, final CellState state,
+            final int amount) {
+        int s = state.ordinal();
+        rowCounts[y * STATES + s] += amount;
+        columnCounts[x * STATES + s] += amount;
+        if (state == CellState.EMPTY) {
+            emptyCount += amount;
+        }
+    }
+
+    /**
+     * Updates the counters after the cell at the given coordinates changed
+     * from the given old state to the given new state.
+     */
+    void update(final int x, final int y, final CellState oldState,
+            final CellState newState) {
+        add(x, y, oldState, -1);
+        add(x, y, newState, 1);
+    }
+
+    /**
+     * Returns the number of cells in row {@code y} with the given state.
+     */
+    int getRowCount(final int y, final CellState state) {
+        return rowCounts[y * STATES + state.ordinal()];
+    }
+
+    /**
+     * Returns the number of cells in column {@code x} with the given state.
+     */
+    int getColumnCount(final int x, final CellState state) {
+        return columnCounts[x * STATES + state.ordinal()];
+    }
+
+    /**
+     * Returns the total number of empty cells in the grid.
+     */
+    int getEmptyCount() {
+        return emptyCount;
+    }
+
+}
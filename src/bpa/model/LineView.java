@@ -0,0 +1,145 @@
+package bpa.model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only view of a single line (row or column) of some grid. The line
+ * views of a grid are created once and reused, such that iterating over the
+ * lines of a grid does not allocate a new list for every line. Besides the
+ * {@code List<Cell>} interface, this view offers queries on the states of the
+ * cells in the line that do not require any {@code Cell} objects to be
+ * inspected by the caller.
+ */
+public class LineView extends AbstractList<Cell> implements RandomAccess {
+
+    /** The grid this line resides in. */
+    protected final Grid grid;
+
+    /** Whether this line is a row (or a column). */
+    private final boolean row;
+
+    /** The row number or column number of this line. */
+    private final int index;
+
+    /** The number of cells in this line. */
+    private final int size;
+
+    /**
+     * The cells in this line, in order of increasing x or y-coordinate, or
+     * {@code null} if the cells are retrieved from the grid upon each query.
+     */
+    private final Cell[] cells;
+
+    /**
+     * Creates a view of the given line of the given grid.
+     *
+     * @param grid  the grid the line resides in
+     * @param row  whether the line is a row (or a column)
+     * @param index  the row number or column number of the line
+     * @param cells  the cells in the line, in order
+     */
+    public LineView(final Grid grid, final boolean row, final int index,
+            final Cell[] cells) {
+        this.grid = grid;
+        this.row = row;
+        this.index = index;
+        this.size = cells.length;
+        this.cells = cells;
+    }
+
+    /**
+     * Creates a view of the given line of the given grid that does not hold
+     * the cells in the line, but retrieves them from the grid upon each query.
+     * Used by grids that do not store {@code Cell} objects, which should
+     * override {@code stateAt()} to avoid creating them.
+     *
+     * @param grid  the grid the line resides in
+     * @param row  whether the line is a row (or a column)
+     * @param index  the row number or column number of the line
+     * @param size  the number of cells in the line
+     */
+    protected LineView(final Grid grid, final boolean row, final int index,
+            final int size) {
+        this.grid = grid;
+        this.row = row;
+        this.index = index;
+        this.size = size;
+        this.cells = null;
+    }
+
+    /**
+     * Returns whether this line is a row of the grid (or a column).
+     */
+    public boolean isRow() {
+        return row;
+    }
+
+    /**
+     * Returns the row number of this line if it is a row, or the column number
+     * of this line if it is a column.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public Cell get(final int i) {
+        if (cells != null) {
+            return cells[i];
+        }
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("LineView.get: " + i);
+        }
+        return row ? grid.getCell(i, index) : grid.getCell(index, i);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the state of the i-th cell in this line.
+     *
+     * @param i  the position of the cell in this line
+     * @pre {@code 0 <= i < size()}
+     * @return {@code get(i).getState()}
+     */
+    public CellState stateAt(final int i) {
+        return get(i).getState();
+    }
+
+    /**
+     * Returns the number of cells in this line containing a zero.
+     */
+    public int countZeros() {
+        return count(CellState.ZERO);
+    }
+
+    /**
+     * Returns the number of cells in this line containing a one.
+     */
+    public int countOnes() {
+        return count(CellState.ONE);
+    }
+
+    /**
+     * Returns the number of empty cells in this line.
+     */
+    public int countEmpty() {
+        return count(CellState.EMPTY);
+    }
+
+    /**
+     * Returns the number of cells in this line with the given state, as 
+     * counted by the line counters of the grid.
+     */
+    private int count(final CellState state) {
+        if (row) {
+            return grid.getRowCount(index, state);
+        }
+        return grid.getColumnCount(index, state);
+    }
+
+}
@@ -0,0 +1,70 @@
+package bpa.model;
+
+/**
+ * A storage engine for the contents of a large number of cells, packing the
+ * code of each cell (see {@code CellCodes}) into {@code CellCodes.BITS} bits of
+ * a {@code long[]}. Compared to storing a {@code Cell} object per cell, this
+ * reduces the memory used per cell from dozens of bytes to less than one byte.
+ *
+ * @inv
+ * - WordsSufficient: {@code words.length * CELLS_PER_WORD >= size} <br>
+ */
+public class PackedCellStore {
+
+    /** The number of cells packed into a single {@code long}. */
+    private static final int CELLS_PER_WORD = Long.SIZE / CellCodes.BITS;
+
+    /** The mask of a single cell code. */
+    private static final long CODE_MASK = (1L << CellCodes.BITS) - 1;
+
+    /** The number of cells in this store. */
+    private final int size;
+
+    /** The packed cell codes. */
+    private final long[] words;
+
+    /**
+     * Creates a store of the given number of cells, which are all empty.
+     *
+     * @param size  the number of cells in this store
+     * @pre {@code size >= 0}
+     */
+    public PackedCellStore(final int size) {
+        this.size = size;
+        this.words = new long[(size + CELLS_PER_WORD - 1) / CELLS_PER_WORD];
+    }
+
+    /**
+     * Gets the number of cells in this store.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the code of the cell with the given index.
+     *
+     * @param index  the index of the cell
+     * @pre {@code 0 <= index < size()}
+     * @return the cell code of the cell with index {@code index}
+     */
+    public int get(final int index) {
+        int shift = (index % CELLS_PER_WORD) * CellCodes.BITS;
+        return (int) ((words[index / CELLS_PER_WORD] >>> shift) & CODE_MASK);
+    }
+
+    /**
+     * Sets the code of the cell with the given index.
+     *
+     * @param index  the index of the cell
+     * @param code  the new cell code of the cell
+     * @pre {@code 0 <= index < size() && CellCodes.isValid(code)}
+     */
+    public void set(final int index, final int code) {
+        int shift = (index % CELLS_PER_WORD) * CellCodes.BITS;
+        int word = index / CELLS_PER_WORD;
+        words[word] = (words[word] & ~(CODE_MASK << shift))
+                | ((long) code << shift);
+    }
+
+}
@@ -0,0 +1,238 @@
+package bpa.model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A container of many puzzles in a single file, each of which is stored in
+ * the format of {@code BinaryGridFormat}. The file consists of, all numbers
+ * being big-endian:
+ * <ul>
+ * <li> a header of {@code HEADER_SIZE} bytes: the {@code int}s {@code MAGIC},
+ *      {@code VERSION} and the number of puzzles, and the {@code long} offset
+ *      of the index;
+ * <li> the binary grids of all puzzles, back to back;
+ * <li> the index: the {@code long} offset of the binary grid of each puzzle.
+ * </ul>
+ * Puzzles can be looked up by their number using the index, or scanned in
+ * order by iterating over this archive, which reads the file sequentially.
+ * Archives are written using {@code PuzzleArchiveWriter}.
+ */
+public class PuzzleArchive
+    implements Iterable<GridReader.Specification>, Closeable {
+
+    /** The magic number at the start of each archive: "BPAA". */
+    public static final int MAGIC = 0x42504141;
+
+    /** The version of the layout of the archives. */
+    public static final int VERSION = 1;
+
+    /** The number of bytes of the header. */
+    public static final int HEADER_SIZE = 20;
+
+    /** The file holding this archive. */
+    private final RandomAccessFile file;
+
+    /**
+     * The offsets of the binary grids of all puzzles, followed by the offset
+     * of the index, which marks the end of the last binary grid.
+     */
+    private final long[] offsets;
+
+    /**
+     * Opens the archive in the given file. Only the header and the index are
+     * read.
+     *
+     * @param file  the file holding the archive
+     * @pre {@code file} holds an archive written by
+     * {@code PuzzleArchiveWriter}
+     * @throws IllegalArgumentException  if {@code file} does not hold a valid
+     * archive
+     * @throws IOException  if {@code file} could not be read
+     */
+    public PuzzleArchive(final File file)
+        throws IllegalArgumentException, IOException {
+        this.file = new RandomAccessFile(file, "r");
+        try {
+            if (this.file.length() < HEADER_SIZE
+                    || this.file.readInt() != MAGIC) {
+                throw new IllegalArgumentException("PuzzleArchive."
+                        + "PuzzleArchive.pre violated: " + file
+                        + " is not a puzzle archive");
+            }
+            int version = this.file.readInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("PuzzleArchive."
+                        + "PuzzleArchive.pre violated: unsupported version "
+                        + version);
+            }
+            int count = this.file.readInt();
+            long indexOffset = this.file.readLong();
+            if (count < 0 || indexOffset < HEADER_SIZE || indexOffset
+                    + (long) count * Long.BYTES != this.file.length()) {
+                throw new IllegalArgumentException("PuzzleArchive."
+                        + "PuzzleArchive.pre violated: index of " + file
+                        + " is corrupt");
+            }
+            offsets = new long[count + 1];
+            ByteBuffer index = ByteBuffer.allocate(count * Long.BYTES);
+            readFully(index, indexOffset);
+            index.flip();
+            for (int i = 0; i != count; i ++) {
+                offsets[i] = index.getLong();
+            }
+            offsets[count] = indexOffset;
+        }
+        catch (IllegalArgumentException | IOException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads bytes from the file at the given offset until the given buffer
+     * is full.
+     */
+    private void readFully(final ByteBuffer buffer, final long offset)
+        throws IOException {
+        FileChannel channel = file.getChannel();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n == -1) {
+                throw new IOException("PuzzleArchive.readFully: unexpected "
+                        + "end of file");
+            }
+            position += n;
+        }
+    }
+
+    /**
+     * Gets the number of puzzles in this archive.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets the puzzle with the given number.
+     *
+     * @param index  the number of the puzzle, the first puzzle having number 0
+     * @pre {@code 0 <= index < size()}
+     * @return the puzzle with number {@code index}
+     * @throws IllegalArgumentException  if {@code index} is out of range or
+     * if the puzzle is corrupt
+     * @throws IOException  if the file could not be read
+     */
+    public GridReader.Specification get(final int index)
+        throws IllegalArgumentException, IOException {
+        if (index < 0 || index >= size()) {
+            throw new IllegalArgumentException("PuzzleArchive.get.pre "
+                    + "violated: index = " + index + " is out of range");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(
+                (int) (offsets[index + 1] - offsets[index]));
+        readFully(buffer, offsets[index]);
+        buffer.flip();
+        return BinaryGridFormat.decode(buffer);
+    }
+
+    /**
+     * Iterates over all puzzles in this archive, in order, reading the file
+     * sequentially. Any {@code IOException} is rethrown as an
+     * {@code UncheckedIOException}.
+     */
+    @Override
+    public Iterator<GridReader.Specification> iterator() {
+        return new PuzzleIterator();
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * An iterator that reads all puzzles in order through a buffer of its own,
+     * which is refilled by positional reads, such that the position of the
+     * file is never used and several iterators can be used at once.
+     */
+    private class PuzzleIterator implements Iterator<GridReader.Specification> {
+
+        /** The number of the next puzzle. */
+        private int index;
+
+        /**
+         * The bytes read ahead from the file, the next puzzle starting at the
+         * position of the buffer. Allocated upon first use.
+         */
+        private ByteBuffer buffer;
+
+        /** The offset in the file of the first byte not read yet. */
+        private long offset = offsets[0];
+
+        @Override
+        public boolean hasNext() {
+            return index != size();
+        }
+
+        @Override
+        public GridReader.Specification next() {
+            if (index == size()) {
+                throw new NoSuchElementException("PuzzleArchive."
+                        + "PuzzleIterator.next");
+            }
+            int length = (int) (offsets[index + 1] - offsets[index]);
+            try {
+                if (buffer == null || buffer.remaining() < length) {
+                    fill(length);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            ByteBuffer grid = buffer.duplicate();
+            grid.limit(grid.position() + length);
+            buffer.position(grid.limit());
+            index ++;
+            return BinaryGridFormat.decode(grid);
+        }
+
+        /**
+         * Keeps the remaining bytes of the buffer and reads as many bytes
+         * following them as fit in the buffer or remain before the index,
+         * growing the buffer if it cannot hold the given number of bytes.
+         */
+        private void fill(final int length) throws IOException {
+            int capacity = Math.max(length, 1 << 16);
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(capacity);
+                buffer.flip();
+            }
+            else if (buffer.capacity() < capacity) {
+                buffer = ByteBuffer.allocate(capacity).put(buffer);
+                buffer.flip();
+            }
+            buffer.compact();
+            int count = (int) Math.min(buffer.remaining(),
+                    offsets[size()] - offset);
+            buffer.limit(buffer.position() + count);
+            readFully(buffer, offset);
+            offset += count;
+            buffer.flip();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
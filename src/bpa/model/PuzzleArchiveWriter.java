@@ -0,0 +1,101 @@
+package bpa.model;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * A writer of puzzle archives, as read by {@code PuzzleArchive}. Puzzles are
+ * appended to the archive one by one through a buffered stream; the index and
+ * the header are written upon closing this writer.
+ */
+public class PuzzleArchiveWriter implements Closeable {
+
+    /** The file the archive is written to. */
+    private final File file;
+
+    /** The stream writing the binary grids. */
+    private final DataOutputStream out;
+
+    /** The offsets of the binary grids written so far. */
+    private long[] offsets = new long[64];
+
+    /** The number of puzzles written so far. */
+    private int count;
+
+    /** The offset at which the next binary grid is written. */
+    private long position;
+
+    /**
+     * Creates a new, empty archive in the given file. An existing file is
+     * overwritten.
+     *
+     * @param file  the file the archive is written to
+     * @throws IOException  if the file could not be created
+     */
+    public PuzzleArchiveWriter(final File file) throws IOException {
+        this.file = file;
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), 1 << 16));
+        out.write(new byte[PuzzleArchive.HEADER_SIZE]);
+        position = PuzzleArchive.HEADER_SIZE;
+    }
+
+    /**
+     * Appends the given grid to the archive.
+     *
+     * @param grid  the grid to be appended
+     * @pre this writer has not been closed
+     * @post the number of puzzles in the archive is increased by one
+     * @throws IOException  if the archive could not be written to
+     */
+    public void add(final Grid grid) throws IOException {
+        byte[] binary = BinaryGridFormat.encode(grid);
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count ++] = position;
+        out.write(binary);
+        position += binary.length;
+    }
+
+    /**
+     * Gets the number of puzzles appended to the archive so far.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Writes the index and the header of the archive and closes the file.
+     *
+     * @throws IOException  if the archive could not be written to
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            for (int i = 0; i != count; i ++) {
+                out.writeLong(offsets[i]);
+            }
+        }
+        finally {
+            out.close();
+        }
+        RandomAccessFile header = new RandomAccessFile(file, "rw");
+        try {
+            header.writeInt(PuzzleArchive.MAGIC);
+            header.writeInt(PuzzleArchive.VERSION);
+            header.writeInt(count);
+            header.writeLong(position);
+        }
+        finally {
+            header.close();
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package bpa.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An index of all violations of the constraints that have to hold on some
+ * grid. The groups of every constraint and the groups each cell resides in are
+ * taken from the {@code GroupCache} of the grid. After a cell changes, only the
+ * groups containing that cell are checked again, such that queries on the
+ * violations of the grid can be answered from this index instead of checking
+ * every group in the grid.
+ *
+ * @inv
+ * - CountConsistent: {@code violationCount} equals the number of non-null
+ *       entries in {@code violations} <br>
+ */
+class ViolationIndex {
+
+    /** The grid whose violations are indexed. */
+    private final Grid grid;
+
+    /** The constraints that have to hold on the grid. */
+    private final List<Constraint> constraints;
+
+    /** The groups of each constraint, {@code groups[c]} belongs to constraint
+     * {@code constraints.get(c)}. */
+    private final List<List<Cell>>[] groups;
+
+    /**
+     * The current violation of each group of each constraint, or {@code null}
+     * if that group does not violate its constraint.
+     */
+    private final Violation[][] violations;
+
+    /** The total number of groups that currently violate their constraint. */
+    private int violationCount;
+
+    /**
+     * Builds the index of all violations of the given constraints on the given
+     * grid.
+     *
+     * @param grid  the grid of which the violations should be indexed
+     * @param constraints  the constraints that have to hold on {@code grid}
+     */
+    ViolationIndex(final Grid grid, final List<Constraint> constraints) {
+        this.grid = grid;
+        this.constraints = constraints;
+        this.groups = new List[constraints.size()];
+        this.violations = new Violation[constraints.size()][];
+
+        for (int c = 0; c != constraints.size(); c ++) {
+            groups[c] = grid.getGroupCache().getGroups(constraints.get(c));
+            violations[c] = new Violation[groups[c].size()];
+            for (int g = 0; g != groups[c].size(); g ++) {
+                check(c, g);
+            }
+        }
+    }
+
+    /**
+     * Checks the given group of the given constraint again and updates the
+     * violation of that group.
+     */
+    private void check(final int c, final int g) {
+        Constraint constraint = constraints.get(c);
+        List<Cell> group = groups[c].get(g);
+        Violation violation = null;
+        if (constraint.isViolated(group)) {
+            violation = new Violation(constraint.check(group), constraint);
+        }
+        if (violations[c][g] == null && violation != null) {
+            violationCount ++;
+        }
+        else if (violations[c][g] != null && violation == null) {
+            violationCount --;
+        }
+        violations[c][g] = violation;
+    }
+
+    /**
+     * Updates this index after the state of the cell at the given coordinates
+     * has changed, by checking only the groups containing that cell again.
+     *
+     * @param x  the x-coordinate of the changed cell
+     * @param y  the y-coordinate of the changed cell
+     */
+    void update(final int x, final int y) {
+        GroupCache groupCache = grid.getGroupCache();
+        for (int c = 0; c != constraints.size(); c ++) {
+            for (int g : groupCache.getGroupIndices(constraints.get(c), x, y)) {
+                check(c, g);
+            }
+        }
+    }
+
+    /**
+     * Returns whether any group currently violates its constraint.
+     */
+    boolean hasViolations() {
+        return violationCount != 0;
+    }
+
+    /**
+     * Returns all current violations, ordered by constraint and group.
+     */
+    List<Violation> getViolations() {
+        List<Violation> result = new ArrayList(violationCount);
+        if (violationCount == 0) {
+            return result;
+        }
+        for (int c = 0; c != violations.length; c ++) {
+            for (Violation violation : violations[c]) {
+                if (violation != null) {
+                    result.add(violation);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the constraints violated by the cell at the given coordinates,
+     * once for each violation the cell is guilty of, ordered by constraint and
+     * group.
+     */
+    List<Constraint> getCellViolations(final int x, final int y) {
+        GroupCache groupCache = grid.getGroupCache();
+        Cell cell = grid.getCell(x, y);
+        List<Constraint> result = new ArrayList();
+        for (int c = 0; c != constraints.size(); c ++) {
+            for (int g : groupCache.getGroupIndices(constraints.get(c), x, y)) {
+                Violation violation = violations[c][g];
+                if (violation != null && violation.getGroup().contains(cell)) {
+                    result.add(violation.getConstraint());
+                }
+            }
+        }
+        return result;
+    }
+
+}
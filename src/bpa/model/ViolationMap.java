@@ -0,0 +1,146 @@
+package bpa.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A snapshot of the violations on some grid, indexed by the coordinates of the
+ * cells. For each cell, this map records which constraints the cell violates
+ * and how many times, such that queries on a single cell can be answered in
+ * constant time. This is useful for views that have to query the violations of
+ * every cell in the grid, such as {@code PuzzlePanel}. Note that this map does
+ * not change along with the grid it was taken from.
+ */
+public class ViolationMap {
+
+    /** The width and height of the grid this map was taken from. */
+    private final int width;
+    private final int height;
+
+    /** The constraints that had to hold on the grid. */
+    private final List<Constraint> constraints;
+
+    /**
+     * The set of violating cells, where the cell at position {@code (x, y)}
+     * has index {@code x * height + y}.
+     */
+    private final BitSet violating;
+
+    /**
+     * The constraint mask of each cell, where bit {@code c} of
+     * {@code masks[i]} is set iff the cell with index {@code i} violates
+     * {@code constraints.get(c)}.
+     */
+    private final int[] masks;
+
+    /**
+     * The number of violations of each cell, where
+     * {@code counts[i * constraints.size() + c]} denotes the number of
+     * violations of {@code constraints.get(c)} the cell with index {@code i}
+     * is guilty of.
+     */
+    private final int[] counts;
+
+    /**
+     * Builds the violation map of the given violations on the given grid.
+     *
+     * @param grid  the grid on which the violations were found
+     * @param violations  the violations on {@code grid}
+     * @pre {@code violations} contains only violations of constraints in
+     * {@code grid.getConstraints()} by cells in {@code grid}
+     */
+    public ViolationMap(final Grid grid, final List<Violation> violations) {
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.constraints = grid.getConstraints();
+        this.violating = new BitSet(width * height);
+        this.masks = new int[width * height];
+        this.counts = new int[width * height * constraints.size()];
+
+        GroupCache groupCache = grid.getGroupCache();
+        for (Violation v : violations) {
+            int c = constraints.indexOf(v.getConstraint());
+            for (Cell cell : v.getGroup()) {
+                int i = groupCache.positionOf(cell);
+                violating.set(i);
+                if (c < Integer.SIZE) {
+                    masks[i] |= 1 << c;
+                }
+                counts[i * constraints.size() + c] ++;
+            }
+        }
+    }
+
+    /**
+     * Gets the width of the grid this map was taken from.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the grid this map was taken from.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Determines whether the cell at the given coordinates violates one or more
+     * constraints.
+     *
+     * @param x  the x-coordinate of the cell under inspection
+     * @param y  the y-coordinate of the cell under inspection
+     * @pre {@code 0 <= x < getWidth() && 0 <= y < getHeight()}
+     */
+    public boolean isViolating(final int x, final int y) {
+        return violating.get(x * height + y);
+    }
+
+    /**
+     * Gets the constraint mask of the cell at the given coordinates, in which
+     * bit {@code c} is set iff the cell violates the constraint with index
+     * {@code c} in the constraints of the grid. Only the first
+     * {@code Integer.SIZE} constraints are represented in this mask.
+     *
+     * @param x  the x-coordinate of the cell under inspection
+     * @param y  the y-coordinate of the cell under inspection
+     * @pre {@code 0 <= x < getWidth() && 0 <= y < getHeight()}
+     */
+    public int getMask(final int x, final int y) {
+        return masks[x * height + y];
+    }
+
+    /**
+     * Gets the constraints violated by the cell at the given coordinates, once
+     * for each violation the cell is guilty of, ordered as the constraints of
+     * the grid.
+     *
+     * @param x  the x-coordinate of the cell under inspection
+     * @param y  the y-coordinate of the cell under inspection
+     * @pre {@code 0 <= x < getWidth() && 0 <= y < getHeight()}
+     * @return a list as returned by {@code Grid.getCellViolations(x, y)}
+     */
+    public List<Constraint> getConstraints(final int x, final int y) {
+        List<Constraint> result = new ArrayList();
+        if (! isViolating(x, y)) {
+            return result;
+        }
+        int offset = (x * height + y) * constraints.size();
+        for (int c = 0; c != constraints.size(); c ++) {
+            for (int k = 0; k != counts[offset + c]; k ++) {
+                result.add(constraints.get(c));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of cells that violate one or more constraints.
+     */
+    public int getViolatingCellCount() {
+        return violating.cardinality();
+    }
+
+}
@@ -0,0 +1,61 @@
+package bpa.model;
+
+/**
+ * The Zobrist keys used to hash the states of grids. Each combination of a
+ * cell position and a non-empty state has a pseudo-random 64-bit key, and the
+ * hash of a grid is the exclusive or of the keys of all its non-empty cells.
+ * Hence, a change of a single cell changes the hash by the exclusive or of two
+ * keys, which is computed in constant time. The keys are derived from the
+ * position and state by a mixing function instead of being stored in a
+ * table, such that hashing grids of any size requires no memory.
+ */
+final class Zobrist {
+
+    private Zobrist() { }
+
+    /**
+     * Gets the key of the given state of the cell at the given coordinates in
+     * a grid of the given width.
+     *
+     * @pre {@code 0 <= x < width && y >= 0}
+     * @return the Zobrist key of {@code state} at {@code (x, y)}, which is
+     * {@code 0} for the empty state
+     */
+    static long key(final int width, final int x, final int y,
+            final CellState state) {
+        if (state == CellState.EMPTY) {
+            return 0;
+        }
+        long position = (long) y * width + x;
+        return mix(position * 2 + (state == CellState.ZERO ? 0 : 1));
+    }
+
+    /**
+     * Computes the hash of the current state of the given grid, by inspecting
+     * every cell once.
+     *
+     * @param grid  the grid to be hashed
+     * @return the exclusive or of the keys of all cells of {@code grid}
+     */
+    static long hash(final Grid grid) {
+        long result = 0;
+        for (int y = 0; y != grid.getHeight(); y ++) {
+            for (int x = 0; x != grid.getWidth(); x ++) {
+                result ^= key(grid.getWidth(), x, y, grid.getCellState(x, y));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The finalizer of the SplitMix64 generator, which maps distinct inputs to
+     * well-distributed, distinct outputs.
+     */
+    static long mix(final long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
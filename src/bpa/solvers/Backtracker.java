@@ -3,10 +3,7 @@ package bpa.solvers;
 import bpa.model.Cell;
 import bpa.model.CellState;
 import bpa.model.Grid;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import bpa.model.GridWriter;
 import java.util.Observable;
 
 /**
@@ -35,18 +32,45 @@ public abstract class Backtracker extends Observable {
     protected Strategy helperStrategy;
     
     /**
-     * Whether or not this backtracker has been/should be aborted.
+     * The token through which this backtracker is aborted. It can be shared 
+     * with other backtrackers, such that they are aborted together.
      */
-    protected boolean aborted;
+    private CancellationToken cancellationToken;
+
+    /**
+     * The trail of all cell changes made during the current search, through 
+     * which speculations and applications of the helper strategy are undone.
+     */
+    protected Trail trail;
+    
+    /** 
+     * The heuristic by which the open cells to speculate over are found, if
+     * no cell scorer is set.
+     */
+    protected CellOrder cellOrder;
+
+    /**
+     * The scorer by which the open cells to speculate over are ranked instead
+     * of by the cell order, or {@code null} if the cell order is used. By
+     * default, {@code CellScorer.FILLED_NEIGHBOURS} finds the same cells as
+     * the default cell order through an index.
+     */
+    protected CellScorer cellScorer;
+
+    /**
+     * The index of the open cells of the grid during the current search, if
+     * a cell scorer is set.
+     */
+    private OpenCellIndex openCellIndex;
     
-    /** Constant used in the {@code openCell()} method, used to increase 
-     * efficiency of the backtracker. This constant represents the desired 
-     * amount of filled neighbours an open cell should have. This constant is 
-     * used because backtracking using speculation over open cells is more 
-     * efficient if these open cells reside in areas in the grid where there are 
-     * a lot of cells that are non-empty.
+    /**
+     * The state that is tried first for each open cell that is speculated 
+     * over, after which the other state is tried.
      */
-    private final int FILLED_NEIGHBOUR_THRESHOLD = 2;
+    private CellState firstValue;
+    
+    /** The writer used to format the solutions that are reported. */
+    private final GridWriter solutionWriter = new GridWriter();
 
     /**
      * Initializes a new backtracker that solves the given grid.
@@ -56,7 +80,10 @@ public abstract class Backtracker extends Observable {
     public Backtracker(final Grid grid) {
         this.grid = grid;
         this.helperStrategy = new CompositeStrategy();
-        this.aborted = false;
+        this.cancellationToken = new CancellationToken();
+        this.cellOrder = CellOrder.FILLED_NEIGHBOURS;
+        this.cellScorer = CellScorer.FILLED_NEIGHBOURS;
+        this.firstValue = CellState.ZERO;
     }
 
     /**
@@ -81,12 +108,103 @@ public abstract class Backtracker extends Observable {
     }
     
     /**
-     * Requests this backtracker to be aborted (at a convenient moment).
+     * Sets the heuristic by which this backtracker finds the open cells to 
+     * speculate over, instead of by a cell scorer.
+     *
+     * @param cellOrder  the heuristic to be used by this backtracker
+     * @modifies cellOrder, cellScorer
+     */
+    public void setCellOrder(final CellOrder cellOrder) {
+        this.cellOrder = cellOrder;
+        this.cellScorer = null;
+    }
+
+    /**
+     * Sets the scorer by which this backtracker ranks the open cells to
+     * speculate over. If set, the open cell with the highest score is found
+     * through an {@code OpenCellIndex} that is kept up to date upon each
+     * change, instead of by the cell order, which scans the grid upon each
+     * speculation.
+     *
+     * @param cellScorer  the scorer to be used by this backtracker, or
+     * {@code null} if the cell order is to be used
+     * @modifies cellScorer
+     */
+    public void setCellScorer(final CellScorer cellScorer) {
+        this.cellScorer = cellScorer;
+    }
+
+    /**
+     * Sets the state that this backtracker tries first for each open cell 
+     * that it speculates over.
+     *
+     * @param firstValue  the state to be tried first
+     * @pre {@code firstValue == CellState.ZERO || firstValue == CellState.ONE}
+     * @modifies firstValue
+     * @throws IllegalArgumentException  if {@code firstValue} is empty
+     */
+    public void setFirstValue(final CellState firstValue) 
+        throws IllegalArgumentException {
+        if (firstValue != CellState.ZERO && firstValue != CellState.ONE) {
+            throw new IllegalArgumentException("Backtracker.setFirstValue.pre "
+                    + "violated: illegal CellState: " + firstValue);
+        }
+        this.firstValue = firstValue;
+    }
+
+    /**
+     * Gets the state that is tried first for each open cell that is 
+     * speculated over.
+     */
+    protected CellState getFirstValue() {
+        return firstValue;
+    }
+
+    /**
+     * Gets the state that is tried second for each open cell that is 
+     * speculated over.
+     */
+    protected CellState getSecondValue() {
+        return firstValue == CellState.ZERO ? CellState.ONE : CellState.ZERO;
+    }
+
+    /**
+     * Sets the token through which this backtracker is aborted, such that it
+     * can be shared with other backtrackers or with the caller.
+     *
+     * @param cancellationToken  the token to be polled by this backtracker
+     * @modifies cancellationToken
+     */
+    public void setCancellationToken(
+            final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Gets the token through which this backtracker is aborted.
+     *
+     * @return the token polled by this backtracker
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+    
+    /**
+     * Requests this backtracker to be aborted (at a convenient moment), by 
+     * cancelling its cancellation token.
      * 
-     * @modifies aborted
+     * @modifies cancellationToken
      */
     public void abort() {
-        aborted = true;
+        cancellationToken.cancel();
+    }
+
+    /**
+     * Returns whether this backtracker has been/should be aborted, that is,
+     * whether its cancellation token has been cancelled.
+     */
+    protected boolean isAborted() {
+        return cancellationToken.isCancelled();
     }
 
     /**
@@ -100,89 +218,102 @@ public abstract class Backtracker extends Observable {
     public abstract void solve() throws InterruptedException;
 
     /**
-     * Intelligently finds an open cell in the grid (a cell which is empty and 
-     * unlocked). Main goal of this method is to find the cell with the highest
-     * amount of filled neighbouring cells, while trying to avoid iterating over
-     * all cells in the grid. The {@code FILLED_NEIGHBOUR_THRESHOLD} is used to
-     * determine if some cell is good enough such that it can directly be
-     * returned.
+     * Reports the current state of the grid, which should be a solution, to 
+     * all registered observers. The solution is passed to the observers as 
+     * its specification, as given by {@code GridWriter}.
      * 
-     * @pre the grid used in this backtracker has an empty cell / is not full.
-     * @return a cell in the grid that has {@code X} filled neighbours where 
-     * {@code X} is at least as big as the {@code FILLED_NEIGHBOUR_THRESHOLD} 
-     * constant. If no such cell is found, the cell with the highest number of 
-     * filled neighbours is returned.
-     * @throws IllegalStateException  if the grid used in this backtracker has 
-     * no empty cells / is full.
+     * @pre {@code grid.isSolved()}
      */
-    protected Cell findOpenCell() throws IllegalStateException {
-        
-        /** 
-         * A mapping from some integer representing some amount of filled 
-         * neighbouring cells to some cell which has this amount of filled 
-         * neighbour cells.
-         */
-        Map<Integer, Cell> neighbourCountMapping = new HashMap<Integer, Cell>();
-        
-        for (int i = 0; i != grid.getWidth(); i ++) {
-            for (int j = 0; j != grid.getHeight(); j ++) {
-                Cell cell = grid.getCell(i, j);
-                if (! cell.isLocked() && cell.getState() == CellState.EMPTY) {
-                    int filledNeighbourCount = getFilledNeighbourCount(i, j);
-                    if (filledNeighbourCount >= FILLED_NEIGHBOUR_THRESHOLD) {
-                        return cell;
-                    } 
-                    else {
-                        neighbourCountMapping.put(filledNeighbourCount, cell);
+    protected void reportSolution() {
+        reportSolution(solutionWriter.format(grid));
+    }
+
+    /**
+     * Reports the given solution, given by its specification, to all 
+     * registered observers.
+     * 
+     * @param solution  the specification of the solution
+     */
+    protected void reportSolution(final String solution) {
+        setChanged();
+        notifyObservers(solution);
+    }
+
+    /**
+     * Copies the states of the cells of the given solution, found on a copy 
+     * of the grid, into the grid. The cells are copied one by one while 
+     * holding the lock of the grid, such that a reader that holds the same 
+     * lock sees either none or all of the copied states.
+     * 
+     * @param solution  the solution found
+     * @pre {@code solution} is a solution of the grid
+     * @post {@code grid.equals(solution)}
+     */
+    protected void publishSolution(final Grid solution) {
+        synchronized (grid) {
+            for (int y = 0; y != grid.getHeight(); y ++) {
+                for (int x = 0; x != grid.getWidth(); x ++) {
+                    CellState state = solution.getCellState(x, y);
+                    if (grid.getCellState(x, y) != state) {
+                        grid.setCellState(x, y, state);
                     }
                 }
             }
         }
-        if (neighbourCountMapping.isEmpty()) {
-            throw new IllegalStateException("Backtracker.findOpenCell.pre "
-                    + "violated: puzzle grid contains no open cells.");
-        }
-        int maxNeighbourCount = 0;
-        for (int neighbourCount : neighbourCountMapping.keySet()) {
-            maxNeighbourCount = Math.max(maxNeighbourCount, neighbourCount);
-        }
-        return neighbourCountMapping.get(maxNeighbourCount);
     }
 
     /**
-     * Determines how many filled neighbours the cell at coordinates 
-     * {@code (x, y)} in the puzzle grid has. We only investigate direct 
-     * neighbours (no diagonal neighbours). A neighbouring cell is filled if its 
-     * cell-state is non-empty.
+     * Finds an open cell in the grid (a cell which is empty and unlocked) by 
+     * the cell scorer of this backtracker if it is set, or by the cell order 
+     * of this backtracker otherwise. By default, this is the cell with 
+     * the highest amount of filled neighbouring cells, while trying to avoid 
+     * iterating over all cells in the grid, as given by 
+     * {@code CellOrder.FILLED_NEIGHBOURS}.
      * 
-     * @param x  the x-coordinate in the grid of the cell under inspection
-     * @param x  the y-coordinate in the grid of the cell under inspection
-     * @return the amount of filled neighbouring cells of the cell at 
-     * coordinates {@code (x, y)} in the puzzle grid
+     * @pre the grid used in this backtracker has an empty cell / is not full.
+     * @return the open cell in the grid found by the cell order
+     * @throws IllegalStateException  if the grid used in this backtracker has 
+     * no empty cells / is full.
      */
-    private int getFilledNeighbourCount(final int x, final int y) {
-        List<Cell> neighbours = new ArrayList<Cell>();
+    protected Cell findOpenCell() throws IllegalStateException {
+        int position = findOpenPosition();
+        return grid.getCell(position % grid.getWidth(), 
+                position / grid.getWidth());
+    }
 
-        if (x > 0) {
-            neighbours.add(grid.getCell(x - 1, y));
-        }
-        if (x < grid.getWidth() - 1) {
-            neighbours.add(grid.getCell(x + 1, y));
-        }
-        if (y > 0) {
-            neighbours.add(grid.getCell(x, y - 1));
-        }
-        if (y < grid.getHeight() - 1) {
-            neighbours.add(grid.getCell(x, y + 1));
+    /**
+     * Finds the same open cell as {@code findOpenCell()}, but returns its 
+     * row-major position instead, such that no {@code Cell} objects are 
+     * needed while searching.
+     * 
+     * @pre the grid used in this backtracker has an empty cell / is not full.
+     * @return the position {@code y * grid.getWidth() + x} of the open cell 
+     * at coordinates {@code (x, y)} that is found
+     * @throws IllegalStateException  if the grid used in this backtracker has 
+     * no empty cells / is full.
+     */
+    protected int findOpenPosition() throws IllegalStateException {
+        if (openCellIndex != null) {
+            return openCellIndex.findOpenPosition();
         }
+        return cellOrder.findOpenPosition(grid);
+    }
 
-        int filledNeighbours = 0;
-        for (Cell neighbour : neighbours) {
-            if (neighbour.getState() != CellState.EMPTY) {
-                filledNeighbours ++;
-            }
-        }
-        return filledNeighbours;
+    /**
+     * Creates the trail of a new search on the grid. If a cell scorer is set,
+     * an index of the open cells of the grid is created as well, which is kept
+     * up to date by the trail, and which is used by
+     * {@code findOpenPosition()}. All changes of the grid during the search
+     * are to be made through the trail.
+     *
+     * @return a new empty trail of the grid
+     */
+    protected Trail createTrail() {
+        Trail newTrail = new Trail(grid);
+        openCellIndex = cellScorer == null ? null
+                : new OpenCellIndex(grid, cellScorer);
+        newTrail.setListener(openCellIndex);
+        return newTrail;
     }
     
 }
\ No newline at end of file
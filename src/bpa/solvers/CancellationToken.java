@@ -0,0 +1,58 @@
+package bpa.solvers;
+
+/**
+ * A token through which a running search is requested to stop. The search
+ * polls the token at convenient moments, such that it can stop cooperatively,
+ * leaving its state consistent. A token can be linked to a parent token, in
+ * which case it is also cancelled whenever its parent is, such that a single
+ * search can be stopped on its own without cancelling the parent.
+ *
+ * <p>
+ * Tokens are safe for use by multiple threads: a token is typically cancelled
+ * by another thread than the ones polling it.
+ */
+public class CancellationToken {
+
+    /** The token whose cancellation also cancels this token, if any. */
+    private final CancellationToken parent;
+
+    /** Whether {@code cancel()} has been called on this token. */
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a token that has not been cancelled.
+     */
+    public CancellationToken() {
+        this(null);
+    }
+
+    /**
+     * Creates a token that has not been cancelled, and that is cancelled
+     * whenever the given parent token is.
+     *
+     * @param parent  the parent token, or {@code null} if this token has no
+     * parent
+     */
+    public CancellationToken(final CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Requests the searches polling this token to stop. Does not affect the
+     * parent of this token.
+     *
+     * @post {@code isCancelled()}
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether this token, or any of its ancestors, has been
+     * cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+}
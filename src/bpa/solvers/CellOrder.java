@@ -0,0 +1,173 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+
+/**
+ * The heuristics by which a backtracker picks the open cell (a cell which is
+ * empty and unlocked) to speculate over. Different puzzles are solved fastest
+ * with different heuristics, so the heuristic of a backtracker can be set
+ * through {@code Backtracker.setCellOrder(CellOrder)}.
+ */
+public enum CellOrder {
+
+    /**
+     * Picks the cell with the highest amount of filled neighbouring cells,
+     * while trying to avoid iterating over all cells in the grid: the first
+     * cell, column by column, that has at least
+     * {@code FILLED_NEIGHBOUR_THRESHOLD} filled neighbours is picked directly.
+     * Speculation over open cells is more efficient if these open cells reside
+     * in areas in the grid where there are a lot of cells that are non-empty.
+     */
+    FILLED_NEIGHBOURS {
+        @Override
+        public int findOpenPosition(final Grid grid) {
+            int bestPosition = -1;
+            int maxNeighbourCount = -1;
+
+            for (int i = 0; i != grid.getWidth(); i ++) {
+                for (int j = 0; j != grid.getHeight(); j ++) {
+                    if (isOpen(grid, i, j)) {
+                        int filledNeighbourCount =
+                                getFilledNeighbourCount(grid, i, j);
+                        int position = j * grid.getWidth() + i;
+                        if (filledNeighbourCount
+                                >= FILLED_NEIGHBOUR_THRESHOLD) {
+                            return position;
+                        }
+                        else if (filledNeighbourCount >= maxNeighbourCount) {
+                            maxNeighbourCount = filledNeighbourCount;
+                            bestPosition = position;
+                        }
+                    }
+                }
+            }
+            return checkFound(bestPosition);
+        }
+    },
+
+    /**
+     * Picks the first open cell, row by row.
+     */
+    ROW_MAJOR {
+        @Override
+        public int findOpenPosition(final Grid grid) {
+            for (int y = 0; y != grid.getHeight(); y ++) {
+                for (int x = 0; x != grid.getWidth(); x ++) {
+                    if (isOpen(grid, x, y)) {
+                        return y * grid.getWidth() + x;
+                    }
+                }
+            }
+            return checkFound(-1);
+        }
+    },
+
+    /**
+     * Picks the open cell whose row and column together have the fewest empty
+     * cells, such that the speculation is most likely to force the remaining
+     * cells of these lines. Ties are broken row by row.
+     */
+    FULLEST_LINES {
+        @Override
+        public int findOpenPosition(final Grid grid) {
+            int bestPosition = -1;
+            int minEmptyCount = Integer.MAX_VALUE;
+
+            for (int y = 0; y != grid.getHeight(); y ++) {
+                int rowEmptyCount = grid.getRowCount(y, CellState.EMPTY);
+                if (rowEmptyCount == 0 || rowEmptyCount >= minEmptyCount) {
+                    continue;
+                }
+                for (int x = 0; x != grid.getWidth(); x ++) {
+                    if (isOpen(grid, x, y)) {
+                        int emptyCount = rowEmptyCount
+                                + grid.getColumnCount(x, CellState.EMPTY);
+                        if (emptyCount < minEmptyCount) {
+                            minEmptyCount = emptyCount;
+                            bestPosition = y * grid.getWidth() + x;
+                        }
+                    }
+                }
+            }
+            return checkFound(bestPosition);
+        }
+    };
+
+    /**
+     * The amount of filled neighbours an open cell should have to be picked
+     * directly by {@code FILLED_NEIGHBOURS}.
+     */
+    static final int FILLED_NEIGHBOUR_THRESHOLD = 2;
+
+    /**
+     * Finds an open cell in the given grid by this heuristic.
+     *
+     * @param grid  the grid in which an open cell is found
+     * @pre the given grid has an empty cell / is not full.
+     * @return the position {@code y * grid.getWidth() + x} of the open cell
+     * at coordinates {@code (x, y)} that is found
+     * @throws IllegalStateException  if the given grid has no empty cells / is
+     * full.
+     */
+    public abstract int findOpenPosition(Grid grid)
+        throws IllegalStateException;
+
+    /**
+     * Returns the given position, if a cell has been found.
+     *
+     * @throws IllegalStateException  if {@code position == -1}
+     */
+    private static int checkFound(final int position)
+        throws IllegalStateException {
+        if (position == -1) {
+            throw new IllegalStateException("Backtracker.findOpenCell.pre "
+                    + "violated: puzzle grid contains no open cells.");
+        }
+        return position;
+    }
+
+    /**
+     * Returns whether the cell at coordinates {@code (x, y)} in the given grid
+     * is open: empty and unlocked.
+     */
+    private static boolean isOpen(final Grid grid, final int x, final int y) {
+        return ! grid.isCellLocked(x, y)
+                && grid.getCellState(x, y) == CellState.EMPTY;
+    }
+
+    /**
+     * Determines how many filled neighbours the cell at coordinates
+     * {@code (x, y)} in the given puzzle grid has. We only investigate direct
+     * neighbours (no diagonal neighbours). A neighbouring cell is filled if its
+     * cell-state is non-empty.
+     */
+    static int getFilledNeighbourCount(final Grid grid, final int x,
+            final int y) {
+        int filledNeighbours = 0;
+
+        if (x > 0 && isFilled(grid, x - 1, y)) {
+            filledNeighbours ++;
+        }
+        if (x < grid.getWidth() - 1 && isFilled(grid, x + 1, y)) {
+            filledNeighbours ++;
+        }
+        if (y > 0 && isFilled(grid, x, y - 1)) {
+            filledNeighbours ++;
+        }
+        if (y < grid.getHeight() - 1 && isFilled(grid, x, y + 1)) {
+            filledNeighbours ++;
+        }
+        return filledNeighbours;
+    }
+
+    /**
+     * Returns whether the cell at coordinates {@code (x, y)} in the given grid
+     * is non-empty.
+     */
+    private static boolean isFilled(final Grid grid, final int x,
+            final int y) {
+        return grid.getCellState(x, y) != CellState.EMPTY;
+    }
+
+}
@@ -0,0 +1,155 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import java.util.Arrays;
+
+/**
+ * Probes single cells of a grid for the {@code ProbingStrategy} and the
+ * {@code ParallelProbingStrategy}: fills a cell tentatively with a zero and
+ * with a one, applies a propagating strategy after each, and deduces the
+ * changes that are forced by either both or the only consistent one of these
+ * probes. All tentative changes are undone through a trail of its own, such
+ * that the grid is left unchanged.
+ */
+final class CellProber {
+
+    /** The grid probed. */
+    private final Grid grid;
+
+    /** The strategy applied after each tentative change. */
+    private final Strategy propagation;
+
+    /** The trail of the tentative changes. */
+    private final Trail trail;
+
+    /** The states of the cells after the probe with a zero and a one. */
+    private final CellState[] zeroStates;
+    private final CellState[] oneStates;
+
+    /**
+     * Creates a prober of the given grid.
+     *
+     * @param grid  the grid probed
+     * @param propagation  the strategy applied after each tentative change,
+     * which is used by this prober only
+     */
+    CellProber(final Grid grid, final Strategy propagation) {
+        this.grid = grid;
+        this.propagation = propagation;
+        this.trail = new Trail(grid);
+        int cellCount = grid.getWidth() * grid.getHeight();
+        this.zeroStates = new CellState[cellCount];
+        this.oneStates = new CellState[cellCount];
+    }
+
+    /**
+     * Gets the grid probed.
+     */
+    Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns whether the cell at the given row-major position is open: empty
+     * and unlocked.
+     */
+    boolean isOpen(final int position) {
+        int x = position % grid.getWidth();
+        int y = position / grid.getWidth();
+        return ! grid.isCellLocked(x, y)
+                && grid.getCellState(x, y) == CellState.EMPTY;
+    }
+
+    /**
+     * Probes the open cell at the given row-major position. If one probe leads
+     * to a violation, all changes of the other probe are deduced. If neither
+     * does, the changes both probes agree on are deduced. If both do, the grid
+     * cannot be solved, and the changes of the probe with a zero are deduced,
+     * such that the violation shows.
+     *
+     * @param position  the position of the cell to be probed
+     * @pre {@code isOpen(position)}
+     * @return the deduced changes, each as the position of the cell shifted
+     * left by one, or'ed with one if the cell is to contain a one; or
+     * {@code null} if no change is deduced
+     */
+    int[] probe(final int position) {
+        boolean zeroFails = probe(position, CellState.ZERO, zeroStates);
+        boolean oneFails = probe(position, CellState.ONE, oneStates);
+        if (zeroFails || oneFails) {
+            return deduce(zeroFails && ! oneFails ? oneStates : zeroStates,
+                    null);
+        }
+        return deduce(zeroStates, oneStates);
+    }
+
+    /**
+     * Tentatively fills the cell at the given position with the given state,
+     * applies the propagating strategy, stores the resulting states of all
+     * cells in {@code states}, and undoes all changes. Returns whether the
+     * changes led to a violation.
+     */
+    private boolean probe(final int position, final CellState state,
+            final CellState[] states) {
+        trail.mark();
+        try {
+            trail.set(position, state);
+            propagation.apply(trail);
+            for (int y = 0; y != grid.getHeight(); y ++) {
+                for (int x = 0; x != grid.getWidth(); x ++) {
+                    states[y * grid.getWidth() + x] = grid.getCellState(x, y);
+                }
+            }
+            return grid.hasAnyViolation();
+        }
+        finally {
+            trail.backtrack();
+        }
+    }
+
+    /**
+     * Collects the changes of all empty cells to the state they have in
+     * {@code states}, or, if {@code otherStates} is given, to the state they
+     * have in both {@code states} and {@code otherStates}.
+     */
+    private int[] deduce(final CellState[] states,
+            final CellState[] otherStates) {
+        int count = 0;
+        int[] changes = null;
+        for (int position = 0; position != states.length; position ++) {
+            CellState state = states[position];
+            if (state == CellState.EMPTY
+                    || (otherStates != null
+                        && otherStates[position] != state)
+                    || grid.getCellState(position % grid.getWidth(),
+                        position / grid.getWidth()) != CellState.EMPTY) {
+                continue;
+            }
+            if (changes == null) {
+                changes = new int[states.length];
+            }
+            changes[count ++] = (position << 1)
+                    | (state == CellState.ONE ? 1 : 0);
+        }
+        if (changes == null) {
+            return null;
+        }
+        return Arrays.copyOf(changes, count);
+    }
+
+    /**
+     * Gets the position of the cell of the given deduced change.
+     */
+    static int positionOf(final int change) {
+        return change >>> 1;
+    }
+
+    /**
+     * Gets the state of the cell of the given deduced change.
+     */
+    static CellState stateOf(final int change) {
+        return (change & 1) != 0 ? CellState.ONE : CellState.ZERO;
+    }
+
+}
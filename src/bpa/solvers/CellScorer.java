@@ -0,0 +1,196 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+
+/**
+ * The scores by which an {@code OpenCellIndex} ranks the open cells of a
+ * grid, the open cell with the highest score being speculated over first.
+ * The score of a cell either only depends on the states of its direct
+ * neighbours, or it is the sum of the scores of its row and column, which only
+ * depend on the states of the cells in these lines. Hence, the index only
+ * needs to rescore the neighbours of a changed cell, or to rescore its row and
+ * column once and rank their cells by the new line scores.
+ */
+public enum CellScorer {
+
+    /**
+     * Scores a cell by its number of filled neighbouring cells, up to
+     * {@code CellOrder.FILLED_NEIGHBOUR_THRESHOLD}, and breaks ties such that
+     * the same cell is found as by {@code CellOrder.FILLED_NEIGHBOURS}: the
+     * first cell that reaches the threshold, or else the last cell with the
+     * most filled neighbours, column by column.
+     */
+    FILLED_NEIGHBOURS {
+        @Override
+        public int score(final Grid grid, final int x, final int y) {
+            return Math.min(CellOrder.getFilledNeighbourCount(grid, x, y),
+                    CellOrder.FILLED_NEIGHBOUR_THRESHOLD);
+        }
+
+        @Override
+        public boolean isLineScore() {
+            return false;
+        }
+
+        @Override
+        public boolean prefersFirst(final int score) {
+            return score >= CellOrder.FILLED_NEIGHBOUR_THRESHOLD;
+        }
+
+        @Override
+        public int getMaxScore(final Grid grid) {
+            return CellOrder.FILLED_NEIGHBOUR_THRESHOLD;
+        }
+    },
+
+    /**
+     * Scores a cell by the number of filled cells in its row and column
+     * together, like {@code CellOrder.FULLEST_LINES}.
+     */
+    FULLEST_LINES {
+        @Override
+        public int scoreLine(final Grid grid, final boolean row,
+                final int index) {
+            return row
+                    ? grid.getWidth() - grid.getRowCount(index, CellState.EMPTY)
+                    : grid.getHeight()
+                    - grid.getColumnCount(index, CellState.EMPTY);
+        }
+
+        @Override
+        public int getMaxScore(final Grid grid) {
+            return grid.getWidth() + grid.getHeight();
+        }
+    },
+
+    /**
+     * Scores a cell by how tight the counts of its row and column are: how
+     * few cells of the symbol that has the most cells left to be placed in a
+     * line remain to be placed. A line in which one symbol has nearly reached
+     * half of the cells forces the remaining cells soon.
+     */
+    TIGHTEST_COUNTS {
+        @Override
+        public int scoreLine(final Grid grid, final boolean row,
+                final int index) {
+            int half = (row ? grid.getWidth() : grid.getHeight()) / 2;
+            int most = row
+                    ? Math.max(grid.getRowCount(index, CellState.ZERO),
+                            grid.getRowCount(index, CellState.ONE))
+                    : Math.max(grid.getColumnCount(index, CellState.ZERO),
+                            grid.getColumnCount(index, CellState.ONE));
+            return Math.min(half, most);
+        }
+
+        @Override
+        public int getMaxScore(final Grid grid) {
+            return grid.getWidth() / 2 + grid.getHeight() / 2;
+        }
+    },
+
+    /**
+     * Scores a cell by the sizes of the domains of its row and column: the
+     * numbers of valid lines in their {@code LinePatternTable} that agree with
+     * their filled cells. The fewer valid lines remain, the higher the score.
+     * Only applicable to grids whose lines are not longer than
+     * {@code LinePatternTable.MAX_SIZE}, and the most expensive score to
+     * compute.
+     */
+    PATTERN_DOMAIN {
+        @Override
+        public int scoreLine(final Grid grid, final boolean row,
+                final int index) {
+            int size = row ? grid.getWidth() : grid.getHeight();
+            int filled = 0;
+            int ones = 0;
+            for (int i = 0; i != size; i ++) {
+                CellState state = row ? grid.getCellState(i, index)
+                        : grid.getCellState(index, i);
+                if (state != CellState.EMPTY) {
+                    filled |= 1 << i;
+                    if (state == CellState.ONE) {
+                        ones |= 1 << i;
+                    }
+                }
+            }
+            LinePatternTable table = LinePatternTable.forSize(size);
+            return table.getPatternCount()
+                    - table.countCompatible(filled, ones);
+        }
+
+        @Override
+        public int getMaxScore(final Grid grid)
+            throws IllegalArgumentException {
+            return LinePatternTable.forSize(grid.getWidth()).getPatternCount()
+                    + LinePatternTable.forSize(grid.getHeight())
+                    .getPatternCount();
+        }
+    };
+
+    /**
+     * Scores the open cell at coordinates {@code (x, y)} in the given grid. By
+     * default, the score of a cell is the sum of the scores of its row and
+     * column.
+     *
+     * @param grid  the grid the cell resides in
+     * @param x  the x-coordinate of the cell
+     * @param y  the y-coordinate of the cell
+     * @pre the cell is open
+     * @return the score of the cell, in {@code [0, getMaxScore(grid)]}
+     */
+    public int score(final Grid grid, final int x, final int y) {
+        return scoreLine(grid, true, y) + scoreLine(grid, false, x);
+    }
+
+    /**
+     * Returns whether this scorer scores a cell by the sum of the scores of its
+     * row and column, as given by {@code scoreLine()}. Otherwise, the score of
+     * a cell only depends on the states of its direct neighbours.
+     */
+    public boolean isLineScore() {
+        return true;
+    }
+
+    /**
+     * Returns whether, of the open cells with the given score, the first one
+     * column by column is to be speculated over first, rather than the last
+     * one.
+     *
+     * @param score  the score of the cells, in {@code [0, getMaxScore(grid)]}
+     */
+    public boolean prefersFirst(final int score) {
+        return true;
+    }
+
+    /**
+     * Scores the given line of the given grid, which contributes to the score
+     * of each of its cells.
+     *
+     * @param grid  the grid the line resides in
+     * @param row  whether the line is a row, rather than a column
+     * @param index  the index of the row or column
+     * @pre {@code isLineScore()}
+     * @return the score of the line, such that the score of the open cell at
+     * coordinates {@code (x, y)} is
+     * {@code scoreLine(grid, true, y) + scoreLine(grid, false, x)}
+     * @throws UnsupportedOperationException  if {@code ! isLineScore()}
+     */
+    public int scoreLine(final Grid grid, final boolean row, final int index)
+        throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("CellScorer.scoreLine.pre "
+                + "violated: " + this + " does not score lines");
+    }
+
+    /**
+     * Gets the highest score a cell in the given grid can have.
+     *
+     * @param grid  the grid the cells reside in
+     * @return the highest score of a cell in {@code grid}
+     * @throws IllegalArgumentException  if this scorer cannot score the cells
+     * of {@code grid}
+     */
+    public abstract int getMaxScore(Grid grid)
+        throws IllegalArgumentException;
+
+}
@@ -1,11 +1,6 @@
 package bpa.solvers;
 
-import bpa.model.Cell;
-import bpa.model.CellState;
 import bpa.model.Grid;
-import bpa.solvers.commands.CellCommand;
-import bpa.solvers.commands.Command;
-import bpa.solvers.commands.SetCellStateCommand;
 
 /**
  * A concretization of {@code Backtracker} that continues backtracking until all
@@ -25,39 +20,45 @@ public class CompleteSolver extends Backtracker {
 
     @Override
     public void solve() throws InterruptedException {
+        trail = createTrail();
+        trail.mark();
+        search();
+        trail.backtrack();
+    }
+
+    /**
+     * Applies the helper strategy and speculates over the state of an open 
+     * cell, by recursively searching both possibilities. All changes made are
+     * written into the trail, and are undone by the caller backtracking it.
+     */
+    private void search() throws InterruptedException {
 
-        if (aborted) {
+        if (isAborted()) {
             throw new InterruptedException("CompleteSolver.solve: execution "
                     + "aborted.");
         }
 
-        Command strategyCommand = helperStrategy.apply(grid);
+        helperStrategy.apply(trail);
 
-        if (! grid.getConstraintViolations().isEmpty()) {
-            strategyCommand.undo();
+        if (grid.hasAnyViolation()) {
             return;
         } 
         else if (grid.isFull()) {
-            notifyObservers(grid.toString());
-            setChanged();
-            strategyCommand.undo();
+            reportSolution();
             return;
         }
 
-        Cell openCell = findOpenCell();
-        CellCommand speculationCommand;
-
-        speculationCommand = new SetCellStateCommand(openCell, CellState.ZERO);
-        speculationCommand.execute();
-        solve();
-        speculationCommand.undo();
+        int openPosition = findOpenPosition();
 
-        speculationCommand = new SetCellStateCommand(openCell, CellState.ONE);
-        speculationCommand.execute();
-        solve();
-        speculationCommand.undo();
+        trail.mark();
+        trail.set(openPosition, getFirstValue());
+        search();
+        trail.backtrack();
 
-        strategyCommand.undo();
+        trail.mark();
+        trail.set(openPosition, getSecondValue());
+        search();
+        trail.backtrack();
     }
     
 }
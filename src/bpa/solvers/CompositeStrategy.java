@@ -46,20 +46,46 @@ public class CompositeStrategy extends Strategy {
         }
     }
 
+    /**
+     * Sets the trail of all composed strategies to the given trail.
+     */
+    @Override
+    public void setTrail(final Trail trail) {
+        super.setTrail(trail);
+        for (Strategy strategy : strategies) {
+            strategy.setTrail(trail);
+        }
+    }
+
     /**
      * Finds a single application among all composed strategies and if some 
      * strategy {@code X} in this list finds some application {@code Y}, then 
-     * the application of {@code this} is set to application {@code Y}.
+     * the application of {@code this} is set to application {@code Y}. If a
+     * trail is set, application {@code Y} has already been written into it.
      */
     @Override
     public boolean findApplication() {
         for (Strategy strategy : strategies) {
             if (strategy.findApplication()) {
-                setApplication(strategy.getApplication());
+                if (trail == null) {
+                    setApplication(strategy.getApplication());
+                }
                 return true;
             }
         }
         return false;
     }
-   
-}
\ No newline at end of file
+
+    /**
+     * Creates a composite strategy of copies of all composed strategies.
+     */
+    @Override
+    public Strategy copy() {
+        CompositeStrategy copy = new CompositeStrategy();
+        for (Strategy strategy : strategies) {
+            copy.add(strategy.copy());
+        }
+        return copy;
+    }
+    
+}
@@ -0,0 +1,93 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import java.util.Arrays;
+
+/**
+ * An explicit stack of the decisions of a backtracking search, which drives
+ * the search through a trail instead of through the call stack. Each decision
+ * is the position of an open cell that is speculated over, together with the
+ * number of values tried on it so far and the number of values to be tried on
+ * it. Each speculation starts a new level of the trail, such that backtracking
+ * a speculation amounts to backtracking the trail to its marker.
+ *
+ * <p>
+ * Shared by {@code IterativeBacktracker} and the tasks of
+ * {@code ParallelBacktracker}, such that the depth of neither search is
+ * bounded by the size of the call stack.
+ */
+class DecisionStack {
+
+    /** The values tried for each open cell, in order. */
+    private final CellState[] values;
+
+    /** The positions of the open cells of the decisions on the stack. */
+    private int[] positions = new int[16];
+
+    /** The number of values tried so far for each decision on the stack. */
+    private int[] tried = new int[16];
+
+    /** The number of values to be tried for each decision on the stack. */
+    private int[] counts = new int[16];
+
+    /** The number of decisions on the stack. */
+    private int depth;
+
+    /**
+     * Creates an empty stack of decisions, which tries the given values in
+     * order.
+     *
+     * @param firstValue  the value tried first for each open cell
+     * @param secondValue  the value tried second for each open cell
+     */
+    DecisionStack(final CellState firstValue, final CellState secondValue) {
+        this.values = new CellState[] {firstValue, secondValue};
+    }
+
+    /**
+     * Pushes a decision on the open cell at the given position, of which the
+     * given number of values are to be tried, starting with the first value.
+     *
+     * @pre {@code 0 < count <= 2}
+     */
+    void push(final int position, final int count) {
+        if (depth == positions.length) {
+            positions = Arrays.copyOf(positions, depth * 2);
+            tried = Arrays.copyOf(tried, depth * 2);
+            counts = Arrays.copyOf(counts, depth * 2);
+        }
+        positions[depth] = position;
+        tried[depth] = 0;
+        counts[depth] = count;
+        depth ++;
+    }
+
+    /**
+     * Moves the search to the next node: backtracks the speculation of the
+     * decision on top of the stack, pops the decisions all of whose values
+     * have been tried, and speculates over the next value of the decision
+     * then on top, in a new level of the given trail.
+     *
+     * @param trail  the trail through which the search changes the grid
+     * @return whether a next node was entered, or else all decisions have been
+     * popped
+     * @modifies trail
+     */
+    boolean advance(final Trail trail) {
+        while (depth != 0) {
+            int top = depth - 1;
+            if (tried[top] != 0) {
+                trail.backtrack();
+            }
+            if (tried[top] == counts[top]) {
+                depth --;
+                continue;
+            }
+            trail.mark();
+            trail.set(positions[top], values[tried[top] ++]);
+            return true;
+        }
+        return false;
+    }
+
+}
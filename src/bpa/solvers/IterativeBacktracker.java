@@ -0,0 +1,96 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+
+/**
+ * A generic backtracker that searches the same tree as the recursive
+ * backtrackers, but uses an explicit stack of decisions instead of the call
+ * stack. Hence, the depth of the search is not bounded by the size of the
+ * call stack, such that grids with many empty cells can be solved without
+ * tuning the stack size, and no stack frame is created per node. To be
+ * extended by a concrete backtracker that decides what to do upon finding a
+ * solution.
+ *
+ * <p>
+ * The decisions are kept on a {@code DecisionStack}: each decision is the
+ * position of an open cell that is speculated over, together with the number
+ * of values tried on it so far. All cell changes, of both the speculations and
+ * the applications of the helper strategy, are written into the trail, in
+ * which each speculation starts a new level, such that backtracking a
+ * speculation amounts to backtracking the trail to its marker.
+ */
+public abstract class IterativeBacktracker extends Backtracker {
+
+    /** The decisions of the current search. */
+    private DecisionStack decisions;
+
+    /** Whether the search has been stopped at a solution. */
+    private boolean stopped;
+
+    public IterativeBacktracker(final Grid grid) {
+        super(grid);
+    }
+
+    /**
+     * Called whenever the grid is full and does not violate any constraint.
+     * Concrete backtrackers decide whether to stop the search, in which case
+     * the solution is left in the grid, or to continue with the next
+     * possibility.
+     *
+     * @pre {@code grid.isSolved()}
+     * @return whether the search should stop
+     */
+    protected abstract boolean solutionFound();
+
+    /**
+     * Applies a backtracking algorithm to solve the grid, using an explicit
+     * stack of decisions.
+     *
+     * @throws InterruptedException  if this backtracker has been aborted: if
+     * {@code abort()} is called during execution of this method.
+     */
+    @Override
+    public void solve() throws InterruptedException {
+        trail = createTrail();
+        decisions = new DecisionStack(getFirstValue(), getSecondValue());
+        stopped = false;
+        trail.mark();
+        enter();
+        while (! stopped && decisions.advance(trail)) {
+            enter();
+        }
+        if (stopped) {
+            trail.clear();
+        }
+        else {
+            trail.backtrack();
+        }
+    }
+
+    /**
+     * Enters a new node of the search tree: applies the helper strategy and
+     * either reports a solution or pushes a new decision on an open cell. Any
+     * changes made are undone by the caller backtracking the trail.
+     *
+     * @throws InterruptedException  if this backtracker has been aborted
+     */
+    private void enter() throws InterruptedException {
+        if (isAborted()) {
+            throw new InterruptedException(getClass().getSimpleName()
+                    + ".solve: execution aborted.");
+        }
+
+        helperStrategy.apply(trail);
+
+        if (grid.hasAnyViolation()) {
+            return;
+        }
+        else if (grid.isFull()) {
+            stopped = solutionFound();
+        }
+        else {
+            decisions.push(findOpenPosition(), 2);
+        }
+    }
+
+}
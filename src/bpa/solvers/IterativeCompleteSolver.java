@@ -0,0 +1,24 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+
+/**
+ * A concretization of {@code IterativeBacktracker} that continues
+ * backtracking until all possibilities have been exhausted, like
+ * {@code CompleteSolver}. After exhausting all possibilities, the grid returns
+ * to its state of before the call to {@code solve()} was made. All found
+ * solutions are notified to any registred observers.
+ */
+public class IterativeCompleteSolver extends IterativeBacktracker {
+
+    public IterativeCompleteSolver(final Grid grid) {
+        super(grid);
+    }
+
+    @Override
+    protected boolean solutionFound() {
+        reportSolution();
+        return false;
+    }
+
+}
@@ -0,0 +1,22 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+
+/**
+ * A concretization of {@code IterativeBacktracker} that stops backtracking as
+ * soon as a first solution is found, on which it will leave the solution in
+ * the puzzle grid, like {@code SingleSolver}. The solution is not notified to
+ * any registred observers.
+ */
+public class IterativeSingleSolver extends IterativeBacktracker {
+
+    public IterativeSingleSolver(final Grid grid) {
+        super(grid);
+    }
+
+    @Override
+    protected boolean solutionFound() {
+        return true;
+    }
+
+}
@@ -3,7 +3,8 @@ package bpa.solvers;
 import bpa.model.Grid;
 import bpa.solvers.commands.Command;
 import bpa.solvers.commands.CompoundCommand;
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A concrete decorator of {@code Strategy} that exhausts the possibility of
@@ -35,7 +36,7 @@ public class IterativeStrategy extends StrategyDecorator {
     @Override
     public Command apply(final Grid grid) {
         setGrid(grid);
-        Stack<Command> applicationStack = new Stack<Command>();        
+        List<Command> applications = new ArrayList<Command>();
         CompoundCommand compoundCommand = new CompoundCommand();
         boolean change = true;
         
@@ -44,16 +45,44 @@ public class IterativeStrategy extends StrategyDecorator {
             if (super.findApplication()) {
                 Command application = super.getApplication();
                 application.execute();
-                applicationStack.push(application);
+                applications.add(application);
                 compoundCommand.add(application);
                 change = true;
             }
         }
-        for (Command application : applicationStack) {
-            application.undo();
+        for (int i = applications.size() - 1; i >= 0; i --) {
+            applications.get(i).undo();
         }
         compoundCommand.execute();
         return compoundCommand;
     }
+
+    /**
+     * Applies the decorated strategy on the grid of the given trail until no
+     * further changes occur on that grid, writing all applications directly
+     * into the trail.
+     *
+     * @return whether any application was found and applied
+     */
+    @Override
+    public boolean apply(final Trail trail) {
+        setGrid(trail.getGrid());
+        setTrail(trail);
+        boolean change = false;
+        try {
+            while (super.findApplication()) {
+                change = true;
+            }
+        }
+        finally {
+            setTrail(null);
+        }
+        return change;
+    }
+
+    @Override
+    public Strategy copy() {
+        return new IterativeStrategy(decoratedStrategy.copy());
+    }
     
 }
@@ -0,0 +1,313 @@
+package bpa.solvers;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded cache of the forced cells of partially filled lines, as determined
+ * by {@code LinePatternTable.intersect()}. These deductions depend only on the
+ * size of a line and the states of its cells, which recur constantly over the
+ * rows and columns of a grid, over the nodes of a search and over different
+ * puzzles, so a single cache may be shared by any number of strategies and
+ * threads.
+ *
+ * <p>
+ * The deductions are kept in an open-addressing hash table of primitive keys
+ * and values, which is at most half full, such that lookups create no objects
+ * and probe few slots. Lookups do not block: each slot has a stamp that is odd
+ * while the slot is being written, and a lookup that sees the stamp of a slot
+ * change while reading it counts as a miss. Insertions are serialized.
+ *
+ * <p>
+ * If the cache is full, inserting a deduction evicts one by the CLOCK
+ * algorithm: the deductions form a ring in order of insertion, over which a
+ * hand sweeps, clearing the reference bit of each deduction that has been
+ * looked up since the hand last passed it, until it finds a deduction that has
+ * not. The slot of the evicted deduction is freed by shifting the deductions
+ * after it back, such that no slot is ever marked as deleted.
+ */
+public class LineDeductionCache {
+
+    /** The capacity of the default cache. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** The cache shared by all strategies that are not given one. */
+    private static final LineDeductionCache DEFAULT =
+            new LineDeductionCache(DEFAULT_CAPACITY);
+
+    /**
+     * The value of the deduction of a line that agrees with no valid line.
+     */
+    private static final long CONTRADICTION = -1L;
+
+    /** The result of a lookup of a line that is not found. */
+    private static final long MISSING = -2L;
+
+    /** The key of an empty slot, which is the key of no line. */
+    private static final long EMPTY = 0L;
+
+    /** The maximum number of deductions held by this cache. */
+    private final int capacity;
+
+    /** The number of slots of the table, a power of two, minus one. */
+    private final int mask;
+
+    /** The key and the value of the deduction in each slot of the table. */
+    private final AtomicLongArray keys;
+    private final AtomicLongArray values;
+
+    /** The stamp of each slot, which is odd while the slot is written. */
+    private final AtomicIntegerArray stamps;
+
+    /**
+     * The reference bit of the deduction in each slot: whether it has been
+     * looked up since the hand passed it.
+     */
+    private final AtomicIntegerArray referenced;
+
+    /**
+     * The ring of the keys of the deductions swept by the hand, guarded by
+     * {@code this}.
+     */
+    private final long[] clock;
+
+    /** The number of deductions in the ring, and the position of the hand. */
+    private int size;
+    private int hand;
+
+    /** The number of lookups that were and were not found in this cache. */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates an empty cache holding at most the given number of deductions.
+     *
+     * @param capacity  the maximum number of deductions held
+     * @pre {@code capacity > 0}
+     * @throws IllegalArgumentException  if {@code capacity <= 0}
+     */
+    public LineDeductionCache(final int capacity)
+        throws IllegalArgumentException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("LineDeductionCache."
+                    + "LineDeductionCache.pre violated: capacity " + capacity
+                    + " <= 0");
+        }
+        this.capacity = capacity;
+        int length = Integer.highestOneBit(Math.max(1, capacity - 1)) << 2;
+        this.mask = length - 1;
+        this.keys = new AtomicLongArray(length);
+        this.values = new AtomicLongArray(length);
+        this.stamps = new AtomicIntegerArray(length);
+        this.referenced = new AtomicIntegerArray(length);
+        this.clock = new long[capacity];
+    }
+
+    /**
+     * Gets the cache shared by all strategies that are not given one.
+     */
+    public static LineDeductionCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Determines the cells forced by all valid lines that are compatible with
+     * a partially filled line, like {@code LinePatternTable.intersect()},
+     * looking the deduction up in this cache first.
+     *
+     * @param lineSize  the size of the line
+     * @param filled  the bitmask of the filled cells of the line
+     * @param ones  the bitmask of the cells of the line containing a one
+     * @param result  the array that receives the bitmask of the cells forced
+     * to a one at index 0, and of the cells forced to a zero at index 1
+     * @pre {@code 0 < lineSize <= LinePatternTable.MAX_SIZE &&
+     * (ones & ~filled) == 0 && result.length >= 2}
+     * @return whether any valid line is compatible
+     * @modifies result
+     */
+    public boolean deduce(final int lineSize, final int filled, final int ones,
+            final int[] result) {
+        long key = ((long) lineSize << 48) | ((long) filled << 24) | ones;
+        long value = lookup(key);
+        if (value != MISSING) {
+            hits.incrementAndGet();
+        }
+        else {
+            misses.incrementAndGet();
+            boolean compatible = LinePatternTable.forSize(lineSize)
+                    .intersect(filled, ones, result);
+            value = compatible
+                    ? ((long) result[0] << 32) | (result[1] & 0xFFFFFFFFL)
+                    : CONTRADICTION;
+            insert(key, value);
+        }
+        if (value == CONTRADICTION) {
+            result[0] = 0;
+            result[1] = 0;
+            return false;
+        }
+        result[0] = (int) (value >>> 32);
+        result[1] = (int) value;
+        return true;
+    }
+
+    /**
+     * Gets the slot at which the probing for the given key starts.
+     */
+    private int home(final long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * Looks the value of the given key up without blocking, and sets the
+     * reference bit of its slot if it is found and the bit is not set yet.
+     * Returns {@code MISSING} if the key is not found, which may also happen
+     * while the key is being moved by another thread.
+     */
+    private long lookup(final long key) {
+        int slot = home(key);
+        for (int probes = 0; probes <= mask; probes ++) {
+            int stamp = stamps.get(slot);
+            long slotKey = keys.get(slot);
+            long value = values.get(slot);
+            if ((stamp & 1) != 0 || stamps.get(slot) != stamp
+                    || slotKey == EMPTY) {
+                return MISSING;
+            }
+            if (slotKey == key) {
+                if (referenced.get(slot) == 0) {
+                    referenced.set(slot, 1);
+                }
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Inserts the given deduction, evicting another if this cache is full. If
+     * another thread has inserted the deduction of the same line meanwhile,
+     * the given deduction is dropped.
+     */
+    private synchronized void insert(final long key, final long value) {
+        if (find(key) >= 0) {
+            return;
+        }
+        if (size < capacity) {
+            clock[size ++] = key;
+        }
+        else {
+            int slot = find(clock[hand]);
+            while (referenced.get(slot) != 0) {
+                referenced.set(slot, 0);
+                hand = (hand + 1) % capacity;
+                slot = find(clock[hand]);
+            }
+            delete(slot);
+            clock[hand] = key;
+            hand = (hand + 1) % capacity;
+        }
+        int slot = home(key);
+        while (keys.get(slot) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        write(slot, key, value, 0);
+    }
+
+    /**
+     * Finds the slot of the given key, or returns -1 if it is not in the
+     * table. Only to be called while holding the lock of this cache.
+     */
+    private int find(final long key) {
+        for (int slot = home(key); ; slot = (slot + 1) & mask) {
+            long slotKey = keys.get(slot);
+            if (slotKey == key) {
+                return slot;
+            }
+            if (slotKey == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Empties the given slot, shifting the deductions after it back to fill
+     * the gap, such that each deduction stays reachable from its home slot.
+     * Only to be called while holding the lock of this cache.
+     */
+    private void delete(final int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+            long key = keys.get(next);
+            if (key == EMPTY) {
+                break;
+            }
+            if (((next - home(key)) & mask) >= ((next - hole) & mask)) {
+                write(hole, key, values.get(next), referenced.get(next));
+                hole = next;
+            }
+        }
+        write(hole, EMPTY, 0L, 0);
+    }
+
+    /**
+     * Writes the given deduction into the given slot, making the stamp of
+     * the slot odd while doing so. Only to be called while holding the lock
+     * of this cache.
+     */
+    private void write(final int slot, final long key, final long value,
+            final int reference) {
+        int stamp = stamps.get(slot);
+        stamps.set(slot, stamp + 1);
+        keys.set(slot, key);
+        values.set(slot, value);
+        referenced.set(slot, reference);
+        stamps.set(slot, stamp + 2);
+    }
+
+    /**
+     * Gets the maximum number of deductions held by this cache.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of deductions currently held by this cache.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of lookups that were found in this cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups that were not found in this cache.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Removes all deductions from this cache and resets its counters.
+     */
+    public synchronized void clear() {
+        for (int slot = 0; slot <= mask; slot ++) {
+            if (keys.get(slot) != EMPTY) {
+                write(slot, EMPTY, 0L, 0);
+            }
+        }
+        size = 0;
+        hand = 0;
+        hits.set(0);
+        misses.set(0);
+    }
+
+}
@@ -0,0 +1,191 @@
+package bpa.solvers;
+
+import java.util.Arrays;
+
+/**
+ * The table of all valid lines of a given size: all assignments of zeros and
+ * ones to the cells of a full line that violate neither the triplet constraint
+ * nor the line constraint, i.e. that contain no three adjacent equal symbols
+ * and not more than {@code size / 2} cells of either symbol. Each line is
+ * represented by the bitmask that has bit i set if and only if the i-th cell
+ * of the line contains a one.
+ *
+ * <p>
+ * The tables are built once per size upon first request and shared by all
+ * threads, since they are never changed afterwards.
+ */
+public final class LinePatternTable {
+
+    /**
+     * The largest size of lines for which a table can be built. The number of
+     * valid lines grows exponentially with their size, such that tables of
+     * larger lines are not worth building.
+     */
+    public static final int MAX_SIZE = 24;
+
+    /** The tables built so far, indexed by size. */
+    private static final LinePatternTable[] TABLES =
+            new LinePatternTable[MAX_SIZE + 1];
+
+    /** The size of the lines in this table. */
+    private final int size;
+
+    /** The bitmasks of all valid lines, in increasing order. */
+    private final int[] patterns;
+
+    /** The valid lines enumerated so far, while building this table. */
+    private int[] buffer;
+    private int count;
+
+    /**
+     * Creates the table of all valid lines of the given size.
+     */
+    private LinePatternTable(final int size) {
+        this.size = size;
+        buffer = new int[16];
+        enumerate(0, 0, 0);
+        patterns = Arrays.copyOf(buffer, count);
+        buffer = null;
+        Arrays.sort(patterns);
+    }
+
+    /**
+     * Adds all valid lines starting with the given prefix of the given length,
+     * holding the given number of ones, to the buffer.
+     */
+    private void enumerate(final int prefix, final int length,
+            final int oneCount) {
+        if (length == size) {
+            if (count == buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * count);
+            }
+            buffer[count ++] = prefix;
+            return;
+        }
+        for (int bit = 0; bit != 2; bit ++) {
+            int ones = oneCount + bit;
+            if (ones > size / 2 || length + 1 - ones > size / 2) {
+                continue;
+            }
+            if (length >= 2 && ((prefix >> (length - 1)) & 1) == bit
+                    && ((prefix >> (length - 2)) & 1) == bit) {
+                continue;
+            }
+            enumerate(prefix | (bit << length), length + 1, ones);
+        }
+    }
+
+    /**
+     * Gets the table of all valid lines of the given size, building it if it
+     * has not been requested before.
+     *
+     * @param size  the size of the lines
+     * @pre {@code 0 < size <= MAX_SIZE}
+     * @return the table of all valid lines of size {@code size}
+     * @throws IllegalArgumentException  if {@code size <= 0 ||
+     * size > MAX_SIZE}
+     */
+    public static synchronized LinePatternTable forSize(final int size)
+        throws IllegalArgumentException {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("LinePatternTable.forSize.pre "
+                    + "violated: size " + size + " not in (0, " + MAX_SIZE
+                    + "]");
+        }
+        if (TABLES[size] == null) {
+            TABLES[size] = new LinePatternTable(size);
+        }
+        return TABLES[size];
+    }
+
+    /**
+     * Gets the size of the lines in this table.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of valid lines in this table.
+     */
+    public int getPatternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * Gets the bitmask of the i-th valid line in this table, in increasing
+     * order.
+     *
+     * @pre {@code 0 <= i < getPatternCount()}
+     */
+    public int getPattern(final int i) {
+        return patterns[i];
+    }
+
+    /**
+     * Returns whether the line represented by the given bitmask is valid.
+     *
+     * @param pattern  the bitmask of a full line of size {@code getSize()}
+     */
+    public boolean isValid(final int pattern) {
+        return Arrays.binarySearch(patterns, pattern) >= 0;
+    }
+
+    /**
+     * Counts the valid lines that are compatible with a partially filled
+     * line: that have {@code ones} set exactly at its filled cells containing
+     * a one.
+     *
+     * @param filled  the bitmask of the filled cells of the line
+     * @param ones  the bitmask of the cells of the line containing a one
+     * @pre {@code (ones & ~filled) == 0}
+     * @return the number of valid lines compatible with the line
+     */
+    public int countCompatible(final int filled, final int ones) {
+        int count = 0;
+        for (int pattern : patterns) {
+            if ((pattern & filled) == ones) {
+                count ++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determines the cells on which all valid lines agree that are compatible
+     * with a partially filled line. A valid line is compatible if it has
+     * {@code ones} set exactly at the filled cells containing a one.
+     *
+     * @param filled  the bitmask of the filled cells of the line
+     * @param ones  the bitmask of the cells of the line containing a one
+     * @param result  the array that receives the bitmask of the empty cells
+     * that contain a one in all compatible lines at index 0, and the bitmask
+     * of the empty cells that contain a zero in all compatible lines at index
+     * 1
+     * @pre {@code (ones & ~filled) == 0 && result.length >= 2}
+     * @return whether any valid line is compatible
+     * @modifies result
+     */
+    public boolean intersect(final int filled, final int ones,
+            final int[] result) {
+        int open = ((1 << size) - 1) & ~filled;
+        int alwaysOne = open;
+        int alwaysZero = open;
+        boolean compatible = false;
+        for (int pattern : patterns) {
+            if ((pattern & filled) != ones) {
+                continue;
+            }
+            compatible = true;
+            alwaysOne &= pattern;
+            alwaysZero &= ~pattern;
+            if ((alwaysOne | alwaysZero) == 0) {
+                break;
+            }
+        }
+        result[0] = compatible ? alwaysOne : 0;
+        result[1] = compatible ? alwaysZero : 0;
+        return compatible;
+    }
+
+}
@@ -0,0 +1,85 @@
+package bpa.solvers;
+
+/**
+ * A queue of the lines of a grid that need to be examined by a propagating
+ * strategy, in which each line is held at most once. The lines are numbered
+ * like {@code Grid.lineViews()}: rows are given by their row number {@code y}
+ * and columns by {@code height + x}. The queue is kept in a ring buffer, such
+ * that no objects are created after construction.
+ */
+class LineQueue {
+
+    /** The lines in the queue, from the head onwards. */
+    private final int[] lines;
+
+    /** The position of the head of the queue, and the number of lines in it. */
+    private int head;
+    private int size;
+
+    /** Whether each line is currently in the queue. */
+    private final boolean[] queued;
+
+    /**
+     * Creates an empty queue of the given number of lines.
+     *
+     * @param lineCount  the number of lines of the grid
+     */
+    LineQueue(final int lineCount) {
+        lines = new int[lineCount];
+        queued = new boolean[lineCount];
+    }
+
+    /**
+     * Gets the number of lines of the grid of this queue.
+     */
+    int getLineCount() {
+        return lines.length;
+    }
+
+    /**
+     * Empties this queue, and then adds all lines in order.
+     */
+    void addAll() {
+        head = 0;
+        size = lines.length;
+        for (int line = 0; line != lines.length; line ++) {
+            lines[line] = line;
+            queued[line] = true;
+        }
+    }
+
+    /**
+     * Adds the given line to the end of this queue, if it is not already in
+     * it.
+     *
+     * @pre {@code 0 <= line < getLineCount()}
+     */
+    void add(final int line) {
+        if (! queued[line]) {
+            queued[line] = true;
+            lines[(head + size) % lines.length] = line;
+            size ++;
+        }
+    }
+
+    /**
+     * Returns whether this queue holds no lines.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes the line at the head of this queue and returns it.
+     *
+     * @pre {@code ! isEmpty()}
+     */
+    int remove() {
+        int line = lines[head];
+        head = (head + 1) % lines.length;
+        size --;
+        queued[line] = false;
+        return line;
+    }
+
+}
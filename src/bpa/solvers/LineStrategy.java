@@ -1,12 +1,7 @@
 package bpa.solvers;
 
-import bpa.model.Cell;
 import bpa.model.CellState;
-import bpa.solvers.commands.Command;
-import bpa.solvers.commands.CompoundCommand;
-import bpa.solvers.commands.SetCellStateCommand;
-import java.util.ArrayList;
-import java.util.List;
+import bpa.model.LineView;
 
 /**
  * The strategy that applies the following concept: If half of the cells in a
@@ -20,29 +15,16 @@ public class LineStrategy extends Strategy {
 
     @Override
     public boolean findApplication() {
-        for (List<Cell> line : grid.lines()) {
-            List<Cell> emptyCells = new ArrayList<Cell>();
-            int zeroes = 0;
-            int ones = 0;
-            for (Cell cell : line) {
-                if (cell.getState() == CellState.EMPTY) {
-                    emptyCells.add(cell);
-                }
-                if (cell.getState() == CellState.ZERO) {
-                    zeroes ++;
-                }
-                if (cell.getState() == CellState.ONE) {
-                    ones ++;
-                }
+        for (LineView line : grid.lineViews()) {
+            if (line.countEmpty() == 0) {
+                continue;
             }
-            if (zeroes == (line.size() / 2) && emptyCells.size() > 0) {
-                CompoundCommand compoundCommand = buildCommand(emptyCells, CellState.ONE);
-                setApplication(compoundCommand);
+            if (line.countZeros() == (line.size() / 2)) {
+                fill(line, CellState.ONE);
                 return true;
             }
-            if (ones == (line.size() / 2) && emptyCells.size() > 0) {
-                CompoundCommand compoundCommand = buildCommand(emptyCells, CellState.ZERO);
-                setApplication(compoundCommand);
+            if (line.countOnes() == (line.size() / 2)) {
+                fill(line, CellState.ZERO);
                 return true;
             }
         }
@@ -50,17 +32,22 @@ public class LineStrategy extends Strategy {
     }
 
     /**
-     * Builds the {@code CompoundCommand} that defines a cell-state-change of
-     * all cells in cells to newCellState.
+     * Fills all empty cells in line with newCellState, as the application of
+     * this strategy.
      */
-    private CompoundCommand buildCommand(
-        final List<Cell> cells, final CellState newCellState) {        
-        CompoundCommand compoundCommand = new CompoundCommand();
-        for (Cell emptyCell : cells) {
-            Command command = new SetCellStateCommand(emptyCell, newCellState);
-            compoundCommand.add(command);
+    private void fill(final LineView line, final CellState newCellState) {
+        startApplication();
+        for (int i = 0; i != line.size(); i ++) {
+            if (line.stateAt(i) == CellState.EMPTY) {
+                set(line, i, newCellState);
+            }
         }
-        return compoundCommand;
+        finishApplication();
+    }
+
+    @Override
+    public Strategy copy() {
+        return new LineStrategy();
     }
     
 }
@@ -0,0 +1,293 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import java.util.Arrays;
+
+/**
+ * An index of the open cells of a grid (the cells which are empty and
+ * unlocked), ranked by a {@code CellScorer}, which finds the open cell with
+ * the highest score without scanning the grid. The open cells are kept in
+ * buckets by score, each bucket being a bitset of the cells in column-major
+ * order, such that no objects are created after a bucket is first used, and
+ * ties are broken by the position of the cells like {@code CellOrder} does.
+ *
+ * <p>
+ * The index is kept up to date by being the listener of the trail through
+ * which all changes of the grid are made: upon a change of a cell, the cell
+ * and its neighbours are marked, or its row and column if the scorer scores
+ * lines, and the marked cells are rescored upon the next query. Each marked
+ * line is then scored once, after which its cells are ranked by the cached
+ * scores of their row and column. Hence, a change costs constant time, and
+ * changes that are undone before the next query, as happens upon a violation,
+ * are hardly paid for. Changes that are not made through the trail must be
+ * undone before the index is queried again.
+ */
+public class OpenCellIndex implements Trail.Listener {
+
+    /** The score of a cell that is not open. */
+    private static final int NONE = -1;
+
+    /** The grid whose open cells are indexed. */
+    private final Grid grid;
+
+    /** The scorer by which the open cells are ranked. */
+    private final CellScorer scorer;
+
+    /**
+     * The bitset of the cells in the bucket of each score, in which the cell
+     * at coordinates {@code (x, y)} is given by bit {@code x * height + y}, or
+     * {@code null} if no cell has had the score yet.
+     */
+    private final long[][] buckets;
+
+    /** The number of cells in the bucket of each score. */
+    private final int[] sizes;
+
+    /** The score of each cell, or {@code NONE} if the cell is not open. */
+    private final int[] scores;
+
+    /** A score such that all buckets of higher scores are empty. */
+    private int top;
+
+    /**
+     * The score of each line, rows being given by their row number {@code y}
+     * and columns by {@code height + x}, or {@code null} if the scorer does
+     * not score lines.
+     */
+    private final int[] lineScores;
+
+    /**
+     * Whether each line is marked to be rescored if the scorer scores lines,
+     * or whether each cell is marked to be rescored otherwise.
+     */
+    private final boolean[] marked;
+
+    /** The lines or cells marked to be rescored, and their number. */
+    private final int[] markedItems;
+    private int markedCount;
+
+    /**
+     * Creates an index of the open cells of the given grid, ranked by the
+     * given scorer.
+     *
+     * @param grid  the grid whose open cells are indexed
+     * @param scorer  the scorer by which the open cells are ranked
+     * @throws IllegalArgumentException  if {@code scorer} cannot score the
+     * cells of {@code grid}
+     */
+    public OpenCellIndex(final Grid grid, final CellScorer scorer)
+        throws IllegalArgumentException {
+        this.grid = grid;
+        this.scorer = scorer;
+        int cellCount = grid.getWidth() * grid.getHeight();
+        this.buckets = new long[scorer.getMaxScore(grid) + 1][];
+        this.sizes = new int[buckets.length];
+        this.scores = new int[cellCount];
+        int lineCount = grid.getWidth() + grid.getHeight();
+        this.lineScores = scorer.isLineScore() ? new int[lineCount] : null;
+        this.marked = new boolean[lineScores != null ? lineCount : cellCount];
+        this.markedItems = new int[marked.length];
+        Arrays.fill(scores, NONE);
+        if (lineScores != null) {
+            for (int line = 0; line != lineCount; line ++) {
+                scoreLine(line);
+            }
+        }
+        for (int position = 0; position != cellCount; position ++) {
+            update(position);
+        }
+    }
+
+    /**
+     * Finds the open cell with the highest score. Of the cells with equal
+     * scores, the first one column by column is found, or the last one if the
+     * scorer does not prefer the first one for their score.
+     *
+     * @pre the grid has an open cell
+     * @return the position {@code y * grid.getWidth() + x} of the open cell
+     * at coordinates {@code (x, y)} that is found
+     * @throws IllegalStateException  if the grid has no open cells
+     */
+    public int findOpenPosition() throws IllegalStateException {
+        if (lineScores != null) {
+            rescoreMarkedLines();
+        }
+        else {
+            rescoreMarkedCells();
+        }
+        while (top >= 0 && sizes[top] == 0) {
+            top --;
+        }
+        if (top < 0) {
+            top = 0;
+            throw new IllegalStateException("Backtracker.findOpenCell.pre "
+                    + "violated: puzzle grid contains no open cells.");
+        }
+        long[] bucket = buckets[top];
+        int bit;
+        if (scorer.prefersFirst(top)) {
+            int i = 0;
+            while (bucket[i] == 0) {
+                i ++;
+            }
+            bit = (i << 6) + Long.numberOfTrailingZeros(bucket[i]);
+        }
+        else {
+            int i = bucket.length - 1;
+            while (bucket[i] == 0) {
+                i --;
+            }
+            bit = (i << 6) + 63 - Long.numberOfLeadingZeros(bucket[i]);
+        }
+        return bit % grid.getHeight() * grid.getWidth()
+                + bit / grid.getHeight();
+    }
+
+    /**
+     * Marks the row and column of the changed cell to be rescored if the
+     * scorer scores lines, or the changed cell and its neighbours otherwise.
+     */
+    @Override
+    public void cellChanged(final int position) {
+        int width = grid.getWidth();
+        int x = position % width;
+        int y = position / width;
+        if (lineScores != null) {
+            mark(y);
+            mark(grid.getHeight() + x);
+            return;
+        }
+        mark(position);
+        if (x > 0) {
+            mark(position - 1);
+        }
+        if (x < width - 1) {
+            mark(position + 1);
+        }
+        if (y > 0) {
+            mark(position - width);
+        }
+        if (y < grid.getHeight() - 1) {
+            mark(position + width);
+        }
+    }
+
+    /**
+     * Marks the given line or cell to be rescored, if it is not marked
+     * already.
+     */
+    private void mark(final int item) {
+        if (! marked[item]) {
+            marked[item] = true;
+            markedItems[markedCount ++] = item;
+        }
+    }
+
+    /**
+     * Rescores the marked cells, and unmarks them.
+     */
+    private void rescoreMarkedCells() {
+        while (markedCount != 0) {
+            int position = markedItems[-- markedCount];
+            marked[position] = false;
+            update(position);
+        }
+    }
+
+    /**
+     * Scores each marked line once, then rescores all cells in the marked
+     * lines by the new line scores, and unmarks them.
+     */
+    private void rescoreMarkedLines() {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        for (int i = 0; i != markedCount; i ++) {
+            scoreLine(markedItems[i]);
+        }
+        while (markedCount != 0) {
+            int line = markedItems[-- markedCount];
+            marked[line] = false;
+            if (line < height) {
+                for (int x = 0; x != width; x ++) {
+                    update(line * width + x);
+                }
+            }
+            else {
+                for (int y = 0; y != height; y ++) {
+                    update(y * width + line - height);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores the given line, and caches its score.
+     */
+    private void scoreLine(final int line) {
+        int height = grid.getHeight();
+        lineScores[line] = line < height ? scorer.scoreLine(grid, true, line)
+                : scorer.scoreLine(grid, false, line - height);
+    }
+
+    /**
+     * Removes the cell at the given position from its bucket, and adds it to
+     * the bucket of its current score if it is open. If the scorer scores
+     * lines, the current score is taken from the cached line scores.
+     */
+    private void update(final int position) {
+        int x = position % grid.getWidth();
+        int y = position / grid.getWidth();
+        int score = NONE;
+        if (! grid.isCellLocked(x, y)
+                && grid.getCellState(x, y) == CellState.EMPTY) {
+            score = lineScores != null
+                    ? lineScores[y] + lineScores[grid.getHeight() + x]
+                    : scorer.score(grid, x, y);
+        }
+        if (score == scores[position]) {
+            return;
+        }
+        if (scores[position] != NONE) {
+            remove(position);
+        }
+        scores[position] = score;
+        if (score != NONE) {
+            add(position, score);
+        }
+    }
+
+    /**
+     * Adds the cell at the given position to the bucket of the given score.
+     */
+    private void add(final int position, final int score) {
+        if (buckets[score] == null) {
+            buckets[score] = new long[(scores.length + 63) >>> 6];
+        }
+        int bit = getBit(position);
+        buckets[score][bit >>> 6] |= 1L << bit;
+        sizes[score] ++;
+        if (score > top) {
+            top = score;
+        }
+    }
+
+    /**
+     * Removes the cell at the given position from its bucket.
+     */
+    private void remove(final int position) {
+        int score = scores[position];
+        int bit = getBit(position);
+        buckets[score][bit >>> 6] &= ~(1L << bit);
+        sizes[score] --;
+    }
+
+    /**
+     * Gets the bit of the cell at the given position in the buckets.
+     */
+    private int getBit(final int position) {
+        return position % grid.getWidth() * grid.getHeight()
+                + position / grid.getWidth();
+    }
+
+}
@@ -0,0 +1,206 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A generic backtracker that searches the tree of speculations on several
+ * threads of a {@code ForkJoinPool}. At a speculation, a task may fork the
+ * subtree of one of the two possibilities as a new task that searches its own
+ * copy of the grid with its own copy of the helper strategy, while it
+ * continues with the other possibility itself. Idle threads steal forked
+ * tasks, such that uneven subtrees are balanced among the threads. To be
+ * extended by a concrete backtracker that decides what to do upon finding a
+ * solution.
+ *
+ * <p>
+ * Like {@code IterativeBacktracker}, each task searches its subtree through a
+ * {@code DecisionStack} instead of the call stack, and a task never waits for
+ * the tasks it forked: each task completes its parent once it and all its
+ * forks are done. Hence, neither the depth of the search nor the number of
+ * forks is bounded by the size of the call stack of a thread.
+ *
+ * <p>
+ * The threads are those of a {@code ForkJoinPool} owned by this backtracker,
+ * or of a pool given by the caller, such that no threads are started per call
+ * to {@code solve()}.
+ *
+ * <p>
+ * The grid to be solved is never changed by the search itself. The tasks poll
+ * a cancellation token of their own, linked to the cancellation token of this
+ * backtracker, such that the search can be stopped by aborting this
+ * backtracker as well as by {@code stopSearch()}.
+ */
+public abstract class ParallelBacktracker extends Backtracker {
+
+    /**
+     * The number of tasks the queue of a thread may hold before a task stops
+     * forking new tasks. Forking only while few tasks are queued keeps the
+     * tasks large, while leaving enough tasks to be stolen by idle threads.
+     */
+    private static final int SURPLUS_THRESHOLD = 3;
+
+    /** The pool whose threads search, which may be shared. */
+    private final ForkJoinPool pool;
+
+    /** The token polled by the tasks of the current search. */
+    private CancellationToken searchToken;
+
+    /**
+     * Initializes a new backtracker that solves the given grid on a pool of its
+     * own, of the given number of threads.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     * @param parallelism  the number of threads used to search
+     * @pre {@code parallelism > 0}
+     * @throws IllegalArgumentException  if {@code parallelism <= 0}
+     */
+    public ParallelBacktracker(final Grid grid, final int parallelism)
+        throws IllegalArgumentException {
+        super(grid);
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + "." + getClass().getSimpleName() + ".pre violated: "
+                    + "parallelism " + parallelism + " <= 0");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Initializes a new backtracker that solves the given grid on the threads
+     * of the given pool.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     * @param pool  the pool whose threads search, which may be shared
+     */
+    public ParallelBacktracker(final Grid grid, final ForkJoinPool pool) {
+        super(grid);
+        this.pool = pool;
+    }
+
+    /**
+     * Called by the thread of a task whenever its grid is full and does not
+     * violate any constraint. The given grid is owned by that task, and must
+     * not be changed, nor kept after returning. May be called by several
+     * threads concurrently.
+     *
+     * @param solution  the grid of the task, holding a solution
+     * @pre {@code solution.isSolved()}
+     */
+    protected abstract void solutionFound(Grid solution);
+
+    /**
+     * Stops the current search, without aborting this backtracker: all tasks
+     * return as soon as they poll their cancellation token, after which
+     * {@code solve()} returns normally.
+     */
+    protected void stopSearch() {
+        searchToken.cancel();
+    }
+
+    /**
+     * Searches the tree of speculations of the grid on the threads of the
+     * pool, returning after all tasks are done. The pool is left running.
+     *
+     * @throws InterruptedException  if this backtracker has been aborted: if
+     * {@code abort()} is called during execution of this method.
+     */
+    @Override
+    public void solve() throws InterruptedException {
+        searchToken = new CancellationToken(getCancellationToken());
+        pool.invoke(new SearchTask(null, grid.copy()));
+        if (isAborted()) {
+            throw new InterruptedException(getClass().getSimpleName()
+                    + ".solve: execution aborted.");
+        }
+    }
+
+    /**
+     * A task that searches the subtree of speculations rooted at the state of
+     * its own grid, and completes its parent once it and all the tasks it
+     * forked are done.
+     */
+    @SuppressWarnings("serial")
+    private class SearchTask extends CountedCompleter<Void> {
+
+        /** The grid searched by this task. */
+        private final Grid grid;
+
+        /** The helper strategy applied by this task. */
+        private final Strategy strategy;
+
+        /** The trail of the changes made by this task on its grid. */
+        private final Trail trail;
+
+        /** The decisions of the search of this task. */
+        private final DecisionStack decisions;
+
+        /** The token polled by this task. */
+        private final CancellationToken token;
+
+        /**
+         * The index of the open cells of the grid, or {@code null} if the
+         * cell order is used.
+         */
+        private final OpenCellIndex openCellIndex;
+
+        SearchTask(final SearchTask parent, final Grid grid) {
+            super(parent);
+            this.grid = grid;
+            this.strategy = helperStrategy.copy();
+            this.trail = new Trail(grid);
+            this.decisions = new DecisionStack(getFirstValue(),
+                    getSecondValue());
+            this.token = searchToken;
+            this.openCellIndex = cellScorer == null ? null
+                    : new OpenCellIndex(grid, cellScorer);
+            trail.setListener(openCellIndex);
+        }
+
+        @Override
+        public void compute() {
+            if (! token.isCancelled()) {
+                enter();
+                while (! token.isCancelled() && decisions.advance(trail)) {
+                    enter();
+                }
+            }
+            tryComplete();
+        }
+
+        /**
+         * Enters a new node of the search tree: applies the helper strategy
+         * and either reports a solution or pushes a new decision on an open
+         * cell, the second value of which may be forked. Any changes made are
+         * undone by the decision stack backtracking the trail.
+         */
+        private void enter() {
+            strategy.apply(trail);
+
+            if (grid.hasAnyViolation()) {
+                return;
+            }
+            else if (grid.isFull()) {
+                solutionFound(grid);
+                return;
+            }
+
+            int openPosition = openCellIndex != null
+                    ? openCellIndex.findOpenPosition()
+                    : cellOrder.findOpenPosition(grid);
+
+            int count = 2;
+            if (getSurplusQueuedTaskCount() < SURPLUS_THRESHOLD) {
+                Grid branch = grid.copy();
+                branch.setCellState(openPosition % grid.getWidth(),
+                        openPosition / grid.getWidth(), getSecondValue());
+                addToPendingCount(1);
+                new SearchTask(this, branch).fork();
+                count = 1;
+            }
+            decisions.push(openPosition, count);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import bpa.model.GridWriter;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A concretization of {@code ParallelBacktracker} that finds all solutions,
+ * like {@code CompleteSolver}, but on several threads. The grid to be solved
+ * is never changed, so it is in its state of before the call to
+ * {@code solve()} afterwards. All found solutions are notified to any
+ * registred observers, one at a time, in no particular order.
+ */
+public class ParallelCompleteSolver extends ParallelBacktracker {
+
+    /** The writers used by each thread to format the solutions it finds. */
+    private final ThreadLocal<GridWriter> solutionWriters =
+            new ThreadLocal<GridWriter>() {
+                @Override
+                protected GridWriter initialValue() {
+                    return new GridWriter();
+                }
+            };
+
+    /**
+     * Initializes a new backtracker that solves the given grid on a pool of its
+     * own, of as many threads as there are available processors.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     */
+    public ParallelCompleteSolver(final Grid grid) {
+        this(grid, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a new backtracker that solves the given grid on a pool of its
+     * own, of the given number of threads.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     * @param parallelism  the number of threads used to search
+     * @pre {@code parallelism > 0}
+     * @throws IllegalArgumentException  if {@code parallelism <= 0}
+     */
+    public ParallelCompleteSolver(final Grid grid, final int parallelism)
+        throws IllegalArgumentException {
+        super(grid, parallelism);
+    }
+
+    /**
+     * Initializes a new backtracker that solves the given grid on the threads
+     * of the given pool.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     * @param pool  the pool whose threads search, which may be shared
+     */
+    public ParallelCompleteSolver(final Grid grid, final ForkJoinPool pool) {
+        super(grid, pool);
+    }
+
+    @Override
+    protected void solutionFound(final Grid solution) {
+        reportSolution(solutionWriters.get().format(solution));
+    }
+
+    /**
+     * Reports the given solution to all registered observers. Synchronized,
+     * since solutions are found by several threads, such that observers are
+     * notified of one solution at a time.
+     */
+    @Override
+    protected synchronized void reportSolution(final String solution) {
+        super.reportSolution(solution);
+    }
+
+}
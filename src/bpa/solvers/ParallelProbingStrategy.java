@@ -0,0 +1,293 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The strategy that applies the concept of the {@code ProbingStrategy} to all
+ * open cells of the grid at once, on several threads of a
+ * {@code ForkJoinPool}. The probes of a round are independent of each other,
+ * so the open cells are divided into chunks, each of which is probed by a task
+ * on its own copy of the grid with its own copy of the propagating strategy.
+ * The changes deduced by all tasks are then merged into the grid, after which
+ * the propagating strategy is applied on the grid itself.
+ *
+ * <p>
+ * A single call to {@code findApplication()} repeats these rounds until a
+ * round that probes all open cells deduces no more changes, such that this
+ * strategy need not be decorated by an {@code IterativeStrategy}. After a
+ * round that changed cells, only the open cells in the rows and columns of
+ * these cells are probed in the next round, since the probes of other cells
+ * are the least likely to be affected by these changes. Once these rounds
+ * deduce nothing, all open cells are probed once more. Like all strategies,
+ * the changes of all rounds are returned as a single application, such that
+ * they can be undone at once.
+ *
+ * <p>
+ * The threads are those of a {@code ForkJoinPool} owned by the caller, or of
+ * the common pool by default, such that no threads are started per call.
+ *
+ * <p>
+ * If the probes of two cells deduce different states for the same cell, the
+ * grid cannot be solved, and the state merged first is kept, such that the
+ * propagating strategy lets the violation show.
+ */
+public class ParallelProbingStrategy extends Strategy {
+
+    /** The number of chunks the open cells are divided into per thread. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /** The strategy applied after each tentative change. */
+    private final Strategy propagation;
+
+    /** The pool whose threads probe, which may be shared. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a strategy that probes on the threads of the common pool, using
+     * the given propagating strategy.
+     *
+     * @param propagation  the strategy applied after each tentative change
+     */
+    public ParallelProbingStrategy(final Strategy propagation) {
+        this(propagation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a strategy that probes on a pool of the given number of threads
+     * of its own, using the given propagating strategy. The pool is shared
+     * with the copies of this strategy.
+     *
+     * @param propagation  the strategy applied after each tentative change,
+     * which should be applied iteratively itself
+     * @param parallelism  the number of threads used to probe
+     * @pre {@code parallelism > 0}
+     * @throws IllegalArgumentException  if {@code parallelism <= 0}
+     */
+    public ParallelProbingStrategy(final Strategy propagation,
+            final int parallelism)
+        throws IllegalArgumentException {
+        this(propagation, createPool(parallelism));
+    }
+
+    /**
+     * Creates a strategy that probes on the threads of the given pool, using
+     * the given propagating strategy.
+     *
+     * @param propagation  the strategy applied after each tentative change,
+     * which should be applied iteratively itself
+     * @param pool  the pool whose threads probe, which may be shared
+     */
+    public ParallelProbingStrategy(final Strategy propagation,
+            final ForkJoinPool pool) {
+        this.propagation = propagation;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a pool of the given number of threads.
+     */
+    private static ForkJoinPool createPool(final int parallelism)
+        throws IllegalArgumentException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("ParallelProbingStrategy."
+                    + "ParallelProbingStrategy.pre violated: parallelism "
+                    + parallelism + " <= 0");
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Probes and merges rounds of open cells until a round that probes all
+     * open cells deduces no more changes. If a trail is set, the changes are
+     * written into the trail. Otherwise, they are undone afterwards and
+     * compounded into a single application.
+     */
+    @Override
+    public boolean findApplication() {
+        int cellCount = grid.getWidth() * grid.getHeight();
+        startApplication();
+        CellState[] before = new CellState[cellCount];
+        boolean[] candidate = new boolean[cellCount];
+        Arrays.fill(candidate, true);
+        boolean full = true;
+
+        while (true) {
+            List<Integer> positions = new ArrayList<Integer>();
+            for (int position = 0; position != cellCount; position ++) {
+                if (candidate[position] && isOpen(position)) {
+                    positions.add(position);
+                }
+                candidate[position] = false;
+            }
+            if (! positions.isEmpty()) {
+                snapshot(before);
+                if (merge(probeAll(positions))) {
+                    if (grid.hasAnyViolation()) {
+                        break;
+                    }
+                    for (int position = 0; position != cellCount;
+                            position ++) {
+                        if (before[position] != stateAt(position)) {
+                            markLines(candidate, position);
+                        }
+                    }
+                    full = false;
+                    continue;
+                }
+            }
+            if (full) {
+                break;
+            }
+            // the changed lines are exhausted, so all open cells are probed
+            // once more
+            Arrays.fill(candidate, true);
+            full = true;
+        }
+        return finishApplication();
+    }
+
+    /**
+     * Probes the cells at the given positions on the threads of the pool, and
+     * returns the changes deduced by all probes, in order of the positions.
+     */
+    private List<int[]> probeAll(final List<Integer> positions) {
+        int chunkCount = Math.min(positions.size(),
+                pool.getParallelism() * CHUNKS_PER_THREAD);
+        List<Callable<List<int[]>>> tasks =
+                new ArrayList<Callable<List<int[]>>>();
+        for (int i = 0; i != chunkCount; i ++) {
+            // the copies are made here, such that the grid is only read by
+            // the calling thread
+            tasks.add(new ProbeTask(new CellProber(grid.copy(),
+                    propagation.copy()), positions.subList(
+                    i * positions.size() / chunkCount,
+                    (i + 1) * positions.size() / chunkCount)));
+        }
+        List<int[]> deductions = new ArrayList<int[]>();
+        try {
+            for (Future<List<int[]>> future : pool.invokeAll(tasks)) {
+                deductions.addAll(future.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return deductions;
+    }
+
+    /**
+     * Applies the given deduced changes of cells that are still empty, and
+     * then applies the propagating strategy on the grid. Returns whether any
+     * change was applied.
+     */
+    private boolean merge(final List<int[]> deductions) {
+        boolean merged = false;
+        for (int[] changes : deductions) {
+            for (int change : changes) {
+                int position = CellProber.positionOf(change);
+                if (stateAt(position) == CellState.EMPTY) {
+                    set(position % grid.getWidth(),
+                            position / grid.getWidth(),
+                            CellProber.stateOf(change));
+                    merged = true;
+                }
+            }
+        }
+        if (merged) {
+            include(propagation);
+        }
+        return merged;
+    }
+
+    /**
+     * Marks all cells in the row and the column of the cell at the given
+     * position.
+     */
+    private void markLines(final boolean[] marks, final int position) {
+        int width = grid.getWidth();
+        int x = position % width;
+        int y = position / width;
+        for (int i = 0; i != width; i ++) {
+            marks[y * width + i] = true;
+        }
+        for (int j = 0; j != grid.getHeight(); j ++) {
+            marks[j * width + x] = true;
+        }
+    }
+
+    /**
+     * Stores the states of all cells in the given array.
+     */
+    private void snapshot(final CellState[] states) {
+        for (int position = 0; position != states.length; position ++) {
+            states[position] = stateAt(position);
+        }
+    }
+
+    /**
+     * Returns the state of the cell at the given position.
+     */
+    private CellState stateAt(final int position) {
+        return grid.getCellState(position % grid.getWidth(),
+                position / grid.getWidth());
+    }
+
+    /**
+     * Returns whether the cell at the given position is empty and unlocked.
+     */
+    private boolean isOpen(final int position) {
+        int x = position % grid.getWidth();
+        int y = position / grid.getWidth();
+        return ! grid.isCellLocked(x, y)
+                && grid.getCellState(x, y) == CellState.EMPTY;
+    }
+
+    @Override
+    public Strategy copy() {
+        return new ParallelProbingStrategy(propagation.copy(), pool);
+    }
+
+    /**
+     * A task that probes a chunk of cells on its own copy of the grid.
+     */
+    private static class ProbeTask implements Callable<List<int[]>> {
+
+        /** The prober of the copy of the grid. */
+        private final CellProber prober;
+
+        /** The positions of the cells to be probed. */
+        private final List<Integer> positions;
+
+        ProbeTask(final CellProber prober, final List<Integer> positions) {
+            this.prober = prober;
+            this.positions = positions;
+        }
+
+        @Override
+        public List<int[]> call() {
+            List<int[]> deductions = new ArrayList<int[]>();
+            for (int position : positions) {
+                int[] changes = prober.probe(position);
+                if (changes != null) {
+                    deductions.add(changes);
+                }
+            }
+            return deductions;
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A concretization of {@code ParallelBacktracker} that stops backtracking as
+ * soon as a first solution is found by any of its threads, like
+ * {@code SingleSolver}. Since disjoint subtrees are searched at the same time,
+ * a solution in a subtree that {@code SingleSolver} would only reach late is
+ * found early. If the puzzle has several solutions, any one of them may be
+ * found.
+ *
+ * <p>
+ * The threads search copies of the grid, which remains unchanged during the
+ * search. The solution found is published into the grid only after all threads
+ * have stopped, while holding the lock of the grid: a reader that synchronizes
+ * on the grid sees either its original state or the complete solution, while
+ * other readers may see a partly copied solution. The solution is not notified
+ * to any registred observers.
+ */
+public class ParallelSingleSolver extends ParallelBacktracker {
+
+    /** The first solution found by any thread, if any. */
+    private Grid solution;
+
+    /**
+     * Initializes a new backtracker that solves the given grid on a pool of its
+     * own, of as many threads as there are available processors.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     */
+    public ParallelSingleSolver(final Grid grid) {
+        this(grid, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a new backtracker that solves the given grid on a pool of its
+     * own, of the given number of threads.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     * @param parallelism  the number of threads used to search
+     * @pre {@code parallelism > 0}
+     * @throws IllegalArgumentException  if {@code parallelism <= 0}
+     */
+    public ParallelSingleSolver(final Grid grid, final int parallelism)
+        throws IllegalArgumentException {
+        super(grid, parallelism);
+    }
+
+    /**
+     * Initializes a new backtracker that solves the given grid on the threads
+     * of the given pool.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     * @param pool  the pool whose threads search, which may be shared
+     */
+    public ParallelSingleSolver(final Grid grid, final ForkJoinPool pool) {
+        super(grid, pool);
+    }
+
+    @Override
+    public void solve() throws InterruptedException {
+        solution = null;
+        super.solve();
+        if (solution != null) {
+            publishSolution(solution);
+        }
+    }
+
+    /**
+     * Keeps a copy of the first solution found and stops the search.
+     * Synchronized, such that only one solution is kept if several threads
+     * find one at the same time.
+     */
+    @Override
+    protected synchronized void solutionFound(final Grid solution) {
+        if (this.solution == null) {
+            this.solution = solution.copy();
+            stopSearch();
+        }
+    }
+
+}
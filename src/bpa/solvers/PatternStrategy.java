@@ -0,0 +1,137 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.LineView;
+import java.util.List;
+
+/**
+ * The strategy that applies the following concept: if all valid lines that
+ * agree with the filled cells of a line in the grid contain the same symbol at
+ * some empty cell of that line, then that cell must be filled by that symbol.
+ * The valid lines are looked up in the {@code LinePatternTable} of the size of
+ * the line, through a {@code LineDeductionCache}, such that the deduction of
+ * a line state that has been seen before is not repeated. This concept
+ * combines the concepts of the {@code TripletStrategy} and the
+ * {@code LineStrategy} within a line, and hence finds all forced changes
+ * either of them finds, as well as changes neither of them finds on its own.
+ *
+ * <p>
+ * Lines longer than {@code LinePatternTable.MAX_SIZE} are skipped. A line that
+ * agrees with no valid line at all is skipped as well, since it can be filled
+ * by no symbol; the violation this leads to is left to be found by the
+ * constraints of the grid.
+ *
+ * <p>
+ * Like the {@code PropagationStrategy}, this strategy keeps a queue of the
+ * lines that need to be examined. Initially, all lines are queued. Upon a
+ * change of a cell, only the line crossing the examined line at that cell is
+ * queued again, since the examined line itself is already exhausted. A single
+ * call to {@code findApplication()} finds all forced changes, until no more
+ * can be found, so this strategy need not be decorated by an
+ * {@code IterativeStrategy}.
+ */
+public class PatternStrategy extends Strategy {
+
+    /** The cache the deductions of lines are looked up in. */
+    private final LineDeductionCache cache;
+
+    /** The cells found to be forced to a one and to a zero in a line. */
+    private final int[] forced = new int[2];
+
+    /** The queue of lines to be examined. */
+    private LineQueue queue = new LineQueue(0);
+
+    /**
+     * Creates a strategy that looks the deductions of lines up in the
+     * default cache.
+     */
+    public PatternStrategy() {
+        this(LineDeductionCache.getDefault());
+    }
+
+    /**
+     * Creates a strategy that looks the deductions of lines up in the given
+     * cache.
+     *
+     * @param cache  the cache, which may be shared with other strategies
+     */
+    public PatternStrategy(final LineDeductionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Propagates all forced changes in the grid. If a trail is set, the
+     * changes are written into the trail. Otherwise, they are undone
+     * afterwards and compounded into a single application.
+     */
+    @Override
+    public boolean findApplication() {
+        List<LineView> lines = grid.lineViews();
+        if (queue.getLineCount() != lines.size()) {
+            queue = new LineQueue(lines.size());
+        }
+        queue.addAll();
+        startApplication();
+
+        while (! queue.isEmpty()) {
+            LineView line = lines.get(queue.remove());
+            if (line.countEmpty() == 0
+                    || line.size() > LinePatternTable.MAX_SIZE) {
+                continue;
+            }
+            if (findForcedCells(line)) {
+                fill(line);
+            }
+        }
+
+        return finishApplication();
+    }
+
+    /**
+     * Intersects all valid lines that agree with the given line, storing the
+     * cells forced to a one and to a zero in {@code forced}, and returns
+     * whether any cell is forced.
+     */
+    private boolean findForcedCells(final LineView line) {
+        int filled = 0;
+        int ones = 0;
+        for (int i = 0; i != line.size(); i ++) {
+            CellState state = line.stateAt(i);
+            if (state != CellState.EMPTY) {
+                filled |= 1 << i;
+                if (state == CellState.ONE) {
+                    ones |= 1 << i;
+                }
+            }
+        }
+        return cache.deduce(line.size(), filled, ones, forced)
+                && (forced[0] | forced[1]) != 0;
+    }
+
+    /**
+     * Fills the cells in {@code forced} in the given line, and queues the
+     * lines crossing the given line at the filled cells.
+     */
+    private void fill(final LineView line) {
+        for (int i = 0; i != line.size(); i ++) {
+            CellState newCellState;
+            if ((forced[0] & (1 << i)) != 0) {
+                newCellState = CellState.ONE;
+            }
+            else if ((forced[1] & (1 << i)) != 0) {
+                newCellState = CellState.ZERO;
+            }
+            else {
+                continue;
+            }
+            set(line, i, newCellState);
+            queue.add(line.isRow() ? grid.getHeight() + i : i);
+        }
+    }
+
+    @Override
+    public Strategy copy() {
+        return new PatternStrategy(cache);
+    }
+
+}
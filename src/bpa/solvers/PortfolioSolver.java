@@ -0,0 +1,310 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A concretization of {@code Backtracker} that races a portfolio of
+ * configurations against each other: each configuration searches its own copy
+ * of the grid with an {@code IterativeSingleSolver} on a thread of its own,
+ * using its own cell order, value order and helper strategy. The first
+ * configuration to finish, either by finding a solution or by exhausting all
+ * possibilities, wins, after which all others are cancelled. Since different
+ * puzzles are solved fastest by different configurations, the portfolio
+ * finishes about as fast as the best configuration for each puzzle.
+ *
+ * <p>
+ * Like {@code SingleSolver}, the solution found, if any, is left in the grid,
+ * and is not notified to any registred observers. It is published into the
+ * grid only after all configurations have stopped, while holding the lock of
+ * the grid, like {@code ParallelSingleSolver}. The helper strategy of this
+ * backtracker itself is not used: each configuration has its own. The
+ * statistics of each configuration are kept over all calls to
+ * {@code solve()}.
+ */
+public class PortfolioSolver extends Backtracker {
+
+    /** The configurations raced against each other. */
+    private final List<Configuration> configurations;
+
+    /** The configuration that has won the current race, if any. */
+    private Configuration winner;
+
+    /** The grid holding the result of the winner, if any. */
+    private Grid result;
+
+    /**
+     * Initializes a new backtracker that solves the given grid by racing the
+     * given configurations.
+     *
+     * @param grid  the puzzle grid to be solved by this backtracker
+     * @param configurations  the configurations to be raced
+     * @pre {@code !configurations.isEmpty()}
+     * @throws IllegalArgumentException  if {@code configurations.isEmpty()}
+     */
+    public PortfolioSolver(final Grid grid,
+            final List<Configuration> configurations)
+        throws IllegalArgumentException {
+        super(grid);
+        if (configurations.isEmpty()) {
+            throw new IllegalArgumentException("PortfolioSolver."
+                    + "PortfolioSolver.pre violated: no configurations");
+        }
+        this.configurations = Collections.unmodifiableList(
+                new ArrayList<Configuration>(configurations));
+    }
+
+    /**
+     * Creates the default portfolio of configurations for the given helper
+     * strategy, varying the cell order, the value order and whether the
+     * helper strategy is applied iteratively or only once per speculation.
+     *
+     * @param strategy  the helper strategy, not applied iteratively
+     * @return a list of new configurations using copies of {@code strategy}
+     */
+    public static List<Configuration> defaultConfigurations(
+            final Strategy strategy) {
+        return Arrays.asList(
+                new Configuration(CellOrder.FILLED_NEIGHBOURS, CellState.ZERO,
+                        new IterativeStrategy(strategy.copy())),
+                new Configuration(CellOrder.FILLED_NEIGHBOURS, CellState.ONE,
+                        new IterativeStrategy(strategy.copy())),
+                new Configuration(CellOrder.FULLEST_LINES, CellState.ZERO,
+                        new IterativeStrategy(strategy.copy())),
+                new Configuration(CellOrder.FULLEST_LINES, CellState.ONE,
+                        new IterativeStrategy(strategy.copy())),
+                new Configuration(CellOrder.ROW_MAJOR, CellState.ZERO,
+                        new IterativeStrategy(strategy.copy())),
+                new Configuration(CellOrder.FILLED_NEIGHBOURS, CellState.ZERO,
+                        strategy.copy()),
+                new Configuration(CellOrder.FULLEST_LINES, CellState.ONE,
+                        strategy.copy()));
+    }
+
+    /**
+     * Gets the configurations raced by this backtracker, holding their
+     * statistics.
+     */
+    public List<Configuration> getConfigurations() {
+        return configurations;
+    }
+
+    /**
+     * Gets the configuration that won the last race, or {@code null} if no
+     * race has been completed.
+     */
+    public Configuration getWinner() {
+        return winner;
+    }
+
+    /**
+     * Races all configurations on a thread each, and publishes the solution
+     * of the winner into the grid, if it found one.
+     *
+     * @throws InterruptedException  if this backtracker has been aborted: if
+     * {@code abort()} is called during execution of this method.
+     */
+    @Override
+    public void solve() throws InterruptedException {
+        winner = null;
+        result = null;
+        CancellationToken raceToken =
+                new CancellationToken(getCancellationToken());
+        ExecutorService executor =
+                Executors.newFixedThreadPool(configurations.size());
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (Configuration configuration : configurations) {
+                futures.add(executor.submit(
+                        new Contestant(configuration, raceToken)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        finally {
+            raceToken.cancel();
+            executor.shutdown();
+        }
+        if (isAborted()) {
+            winner = null;
+            throw new InterruptedException("PortfolioSolver.solve: "
+                    + "execution aborted.");
+        }
+        if (result.isSolved()) {
+            publishSolution(result);
+        }
+    }
+
+    /**
+     * Declares the given configuration the winner, unless another
+     * configuration has already won, and cancels all other configurations.
+     *
+     * @param configuration  the configuration that finished
+     * @param solver  the solver of the configuration
+     * @param raceToken  the token shared by all configurations
+     * @return whether {@code configuration} won
+     */
+    private synchronized boolean finish(final Configuration configuration,
+            final Backtracker solver, final CancellationToken raceToken) {
+        if (winner != null) {
+            return false;
+        }
+        winner = configuration;
+        result = solver.grid;
+        raceToken.cancel();
+        return true;
+    }
+
+    /**
+     * The search of a single configuration in the race.
+     */
+    private class Contestant implements Callable<Void> {
+
+        /** The configuration searching. */
+        private final Configuration configuration;
+
+        /** The token shared by all configurations. */
+        private final CancellationToken raceToken;
+
+        Contestant(final Configuration configuration,
+                final CancellationToken raceToken) {
+            this.configuration = configuration;
+            this.raceToken = raceToken;
+        }
+
+        @Override
+        public Void call() {
+            Backtracker solver = new IterativeSingleSolver(grid.copy());
+            solver.setCellOrder(configuration.getCellOrder());
+            solver.setFirstValue(configuration.getFirstValue());
+            solver.setHelperStrategy(configuration.getStrategy().copy());
+            solver.setCancellationToken(raceToken);
+            long start = System.nanoTime();
+            boolean won;
+            try {
+                solver.solve();
+                won = finish(configuration, solver, raceToken);
+            }
+            catch (InterruptedException e) {
+                won = false;
+            }
+            configuration.record(won, System.nanoTime() - start);
+            return null;
+        }
+    }
+
+    /**
+     * A configuration of a backtracker raced in a portfolio, together with its
+     * statistics over all races it took part in.
+     */
+    public static final class Configuration {
+
+        /** The heuristic by which open cells are found. */
+        private final CellOrder cellOrder;
+
+        /** The state tried first for each open cell. */
+        private final CellState firstValue;
+
+        /** The helper strategy, of which each race uses a copy. */
+        private final Strategy strategy;
+
+        /** The number of races taken part in, and won. */
+        private int races;
+        private int wins;
+
+        /** The total time spent in races, and in races won, in ns. */
+        private long totalTime;
+        private long winTime;
+
+        /**
+         * Creates a configuration of the given cell order, value order and
+         * helper strategy.
+         *
+         * @param cellOrder  the heuristic by which open cells are found
+         * @param firstValue  the state tried first for each open cell
+         * @param strategy  the helper strategy, which is copied for each race
+         */
+        public Configuration(final CellOrder cellOrder,
+                final CellState firstValue, final Strategy strategy) {
+            this.cellOrder = cellOrder;
+            this.firstValue = firstValue;
+            this.strategy = strategy;
+        }
+
+        /** Gets the heuristic by which open cells are found. */
+        public CellOrder getCellOrder() {
+            return cellOrder;
+        }
+
+        /** Gets the state tried first for each open cell. */
+        public CellState getFirstValue() {
+            return firstValue;
+        }
+
+        /** Gets the helper strategy, of which each race uses a copy. */
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        /** Gets the number of races this configuration took part in. */
+        public synchronized int getRaces() {
+            return races;
+        }
+
+        /** Gets the number of races this configuration won. */
+        public synchronized int getWins() {
+            return wins;
+        }
+
+        /**
+         * Gets the total time, in nanoseconds, this configuration spent in
+         * all races, including the ones in which it was cancelled.
+         */
+        public synchronized long getTotalTime() {
+            return totalTime;
+        }
+
+        /**
+         * Gets the total time, in nanoseconds, this configuration needed to
+         * finish the races it won.
+         */
+        public synchronized long getWinTime() {
+            return winTime;
+        }
+
+        /**
+         * Records a race this configuration took part in.
+         */
+        private synchronized void record(final boolean won, final long time) {
+            races ++;
+            totalTime += time;
+            if (won) {
+                wins ++;
+                winTime += time;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return cellOrder + "/" + firstValue + "/"
+                    + strategy.getClass().getSimpleName();
+        }
+    }
+
+}
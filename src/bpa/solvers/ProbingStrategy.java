@@ -0,0 +1,126 @@
+package bpa.solvers;
+
+
+/**
+ * The strategy that applies one level of lookahead on top of a propagating
+ * strategy: each open cell is tentatively filled with a zero and with a one,
+ * after which the propagating strategy is applied. If one of these probes
+ * leads to a violation of the constraints of the grid, the cell must be
+ * filled with the other symbol, together with all changes that the other
+ * probe propagated. If neither probe does, all empty cells that are filled
+ * with the same symbol by both probes must be filled with that symbol as well.
+ * If both probes lead to a violation, the grid cannot be solved, and the
+ * changes of the probe with a zero are applied, such that the violation shows.
+ *
+ * <p>
+ * Before probing, the propagating strategy is applied on the grid itself, and
+ * if it finds an application, that is the application of this strategy.
+ * Probing costs two applications of the propagating strategy per probed cell,
+ * which makes this strategy expensive as the helper strategy of a
+ * {@code Backtracker}. Hence, the number of cells probed per call to
+ * {@code findApplication()} can be bounded by a budget. The cells are probed
+ * row by row, starting after the cell probed last, whether or not its probe
+ * led to an application, such that successive calls probe different cells.
+ */
+public class ProbingStrategy extends Strategy {
+
+    /** The strategy applied after each tentative change. */
+    private final Strategy propagation;
+
+    /** The maximum number of cells probed per call. */
+    private final int budget;
+
+    /** The prober of the grid. */
+    private CellProber prober;
+
+    /** The position of the cell to be probed first, after the last one. */
+    private int nextPosition;
+
+    /**
+     * Creates a strategy that probes all open cells in each call, using the
+     * given propagating strategy.
+     *
+     * @param propagation  the strategy applied after each tentative change
+     */
+    public ProbingStrategy(final Strategy propagation) {
+        this(propagation, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a strategy that probes at most the given number of cells in each
+     * call, using the given propagating strategy.
+     *
+     * @param propagation  the strategy applied after each tentative change,
+     * which should be applied iteratively itself
+     * @param budget  the maximum number of cells probed per call
+     * @pre {@code budget > 0}
+     * @throws IllegalArgumentException  if {@code budget <= 0}
+     */
+    public ProbingStrategy(final Strategy propagation, final int budget)
+        throws IllegalArgumentException {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("ProbingStrategy."
+                    + "ProbingStrategy.pre violated: budget " + budget
+                    + " <= 0");
+        }
+        this.propagation = propagation;
+        this.budget = budget;
+    }
+
+    /**
+     * Gets the maximum number of cells probed per call.
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    @Override
+    public boolean findApplication() {
+        startApplication();
+        if (include(propagation)) {
+            return finishApplication();
+        }
+        if (prober == null || prober.getGrid() != grid) {
+            prober = new CellProber(grid, propagation.copy());
+            nextPosition = 0;
+        }
+        int cellCount = grid.getWidth() * grid.getHeight();
+
+        int probes = 0;
+        int lastPosition = -1;
+        for (int i = 0; i != cellCount && probes != budget; i ++) {
+            int position = (nextPosition + i) % cellCount;
+            if (! prober.isOpen(position)) {
+                continue;
+            }
+            probes ++;
+            lastPosition = position;
+            int[] changes = prober.probe(position);
+            if (changes != null) {
+                fill(changes);
+                break;
+            }
+        }
+        if (lastPosition != -1) {
+            nextPosition = (lastPosition + 1) % cellCount;
+        }
+        return finishApplication();
+    }
+
+    /**
+     * Applies the given changes deduced by the prober.
+     */
+    private void fill(final int[] changes) {
+        for (int change : changes) {
+            int position = CellProber.positionOf(change);
+            set(position % grid.getWidth(), position / grid.getWidth(),
+                    CellProber.stateOf(change));
+        }
+    }
+
+    @Override
+    public Strategy copy() {
+        return new ProbingStrategy(propagation.copy(), budget);
+    }
+
+}
@@ -0,0 +1,171 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+
+/**
+ * The strategy that exhausts the concepts of both the {@code TripletStrategy}
+ * and the {@code LineStrategy}, like an {@code IterativeStrategy} decorating
+ * them, but by propagation: rather than rescanning the whole grid after each
+ * forced cell change, it keeps a queue of the lines that need to be examined.
+ * Initially, all lines are queued. Upon a change of a cell, only the row and
+ * the column of that cell are queued again, since the triplets and counts of
+ * all other lines are unaffected. Hence, the cost of a single application is
+ * linear in the size of the grid plus the number of forced changes times the
+ * length of a line, rather than the number of forced changes times the size
+ * of the grid.
+ *
+ * <p>
+ * A single call to {@code findApplication()} finds all forced changes, until
+ * no more can be found, so this strategy need not be decorated by an
+ * {@code IterativeStrategy}.
+ */
+public class PropagationStrategy extends Strategy {
+
+    /** Whether the concept of the {@code TripletStrategy} is applied. */
+    private final boolean triplets;
+
+    /** Whether the concept of the {@code LineStrategy} is applied. */
+    private final boolean lines;
+
+    /** The queue of lines to be examined. */
+    private LineQueue queue = new LineQueue(0);
+
+    /**
+     * Creates a strategy that propagates the concepts of both the
+     * {@code TripletStrategy} and the {@code LineStrategy}.
+     */
+    public PropagationStrategy() {
+        this(true, true);
+    }
+
+    /**
+     * Creates a strategy that propagates the given concepts.
+     *
+     * @param triplets  whether the concept of the {@code TripletStrategy} is
+     * applied
+     * @param lines  whether the concept of the {@code LineStrategy} is applied
+     */
+    public PropagationStrategy(final boolean triplets, final boolean lines) {
+        this.triplets = triplets;
+        this.lines = lines;
+    }
+
+    /**
+     * Propagates all forced changes in the grid. If a trail is set, the
+     * changes are written into the trail. Otherwise, they are undone
+     * afterwards and compounded into a single application.
+     */
+    @Override
+    public boolean findApplication() {
+        int lineCount = grid.getWidth() + grid.getHeight();
+        if (queue.getLineCount() != lineCount) {
+            queue = new LineQueue(lineCount);
+        }
+        queue.addAll();
+        startApplication();
+
+        while (! queue.isEmpty()) {
+            examine(queue.remove());
+        }
+
+        return finishApplication();
+    }
+
+    /**
+     * Applies the concepts of this strategy to all cells of the given line.
+     */
+    private void examine(final int line) {
+        boolean row = line < grid.getHeight();
+        int index = row ? line : line - grid.getHeight();
+        int size = row ? grid.getWidth() : grid.getHeight();
+
+        if (lines) {
+            int empty = count(row, index, CellState.EMPTY);
+            if (empty != 0) {
+                if (count(row, index, CellState.ZERO) == size / 2) {
+                    fill(row, index, size, CellState.ONE);
+                    return;
+                }
+                if (count(row, index, CellState.ONE) == size / 2) {
+                    fill(row, index, size, CellState.ZERO);
+                    return;
+                }
+            }
+        }
+        if (triplets) {
+            for (int i = 0; i < size - 2; i ++) {
+                CellState s0 = stateAt(row, index, i);
+                CellState s1 = stateAt(row, index, i + 1);
+                CellState s2 = stateAt(row, index, i + 2);
+                if (s0 == s1 && s0 != CellState.EMPTY
+                        && s2 == CellState.EMPTY) {
+                    assign(row, index, i + 2, toggle(s0));
+                }
+                else if (s0 == s2 && s0 != CellState.EMPTY
+                        && s1 == CellState.EMPTY) {
+                    assign(row, index, i + 1, toggle(s0));
+                }
+                else if (s1 == s2 && s1 != CellState.EMPTY
+                        && s0 == CellState.EMPTY) {
+                    assign(row, index, i, toggle(s1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the cells with the given state in the given line.
+     */
+    private int count(final boolean row, final int index,
+            final CellState state) {
+        return row ? grid.getRowCount(index, state)
+                : grid.getColumnCount(index, state);
+    }
+
+    /**
+     * Returns the state of the i-th cell of the given line.
+     */
+    private CellState stateAt(final boolean row, final int index,
+            final int i) {
+        return row ? grid.getCellState(i, index)
+                : grid.getCellState(index, i);
+    }
+
+    /**
+     * Fills all empty cells of the given line with the given state.
+     */
+    private void fill(final boolean row, final int index, final int size,
+            final CellState state) {
+        for (int i = 0; i != size; i ++) {
+            if (stateAt(row, index, i) == CellState.EMPTY) {
+                assign(row, index, i, state);
+            }
+        }
+    }
+
+    /**
+     * Changes the state of the i-th cell of the given line, and queues the row
+     * and column of that cell.
+     */
+    private void assign(final boolean row, final int index, final int i,
+            final CellState state) {
+        int x = row ? i : index;
+        int y = row ? index : i;
+        set(x, y, state);
+        queue.add(y);
+        queue.add(grid.getHeight() + x);
+    }
+
+    /**
+     * Toggles the given non-empty state.
+     */
+    private static CellState toggle(final CellState state) {
+        return state == CellState.ZERO ? CellState.ONE : CellState.ZERO;
+    }
+
+    @Override
+    public Strategy copy() {
+        return new PropagationStrategy(triplets, lines);
+    }
+
+}
@@ -1,11 +1,6 @@
 package bpa.solvers;
 
-import bpa.model.Cell;
-import bpa.model.CellState;
 import bpa.model.Grid;
-import bpa.solvers.commands.CellCommand;
-import bpa.solvers.commands.Command;
-import bpa.solvers.commands.SetCellStateCommand;
 
 /**
  * A concretization of {@code Backtracker} that continues backtracking until a
@@ -27,45 +22,57 @@ public class SingleSolver extends Backtracker {
     
     @Override
     public void solve() throws InterruptedException {
+        trail = createTrail();
+        trail.mark();
+        solved = search();
+        if (solved) {
+            trail.clear();
+        }
+        else {
+            trail.backtrack();
+        }
+    }
 
-        if (aborted) {
+    /**
+     * Applies the helper strategy and speculates over the state of an open 
+     * cell, by recursively searching both possibilities. All changes made are
+     * written into the trail, and are left in the grid if a solution is found.
+     * 
+     * @return whether a solution has been found
+     */
+    private boolean search() throws InterruptedException {
+
+        if (isAborted()) {
             throw new InterruptedException("SingleSolver.solve: execution "
                     + "aborted.");
         }
 
-        Command strategyCommand = helperStrategy.apply(grid);
+        helperStrategy.apply(trail);
 
-        if (! grid.getConstraintViolations().isEmpty()) {
-            strategyCommand.undo();
-            solved = false;
-            return;
+        if (grid.hasAnyViolation()) {
+            return false;
         } 
         else if (grid.isFull()) {
-            solved = true;
-            return;
+            return true;
         }
 
-        Cell openCell = findOpenCell();
-        CellCommand speculationCommand;
+        int openPosition = findOpenPosition();
 
-        speculationCommand = new SetCellStateCommand(openCell, CellState.ZERO);
-        speculationCommand.execute();
-        solve();
-        if (solved) {
-            return;
+        trail.mark();
+        trail.set(openPosition, getFirstValue());
+        if (search()) {
+            return true;
         }
-        speculationCommand.undo();
+        trail.backtrack();
 
-        speculationCommand = new SetCellStateCommand(openCell, CellState.ONE);
-        speculationCommand.execute();
-        solve();
-        if (solved) {
-            return;
+        trail.mark();
+        trail.set(openPosition, getSecondValue());
+        if (search()) {
+            return true;
         }
-        speculationCommand.undo();
+        trail.backtrack();
 
-        strategyCommand.undo();
-        solved = false;
+        return false;
     }
     
 }
\ No newline at end of file
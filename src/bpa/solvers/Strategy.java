@@ -1,14 +1,31 @@
 package bpa.solvers;
 
+import bpa.model.CellState;
 import bpa.model.Grid;
+import bpa.model.LineView;
 import bpa.solvers.commands.Command;
 import bpa.solvers.commands.CompoundCommand;
+import bpa.solvers.commands.SetCellStateCommand;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A strategy used to intelligently find and apply forced cell changes on a 
  * certain {@code Grid}. Can be decorated using a {@code StrategyDecorator} to
  * decorate and change the functionality provided by this class.
  *
+ * <p>
+ * A strategy can either be applied through {@code apply(Grid)}, which wraps
+ * the found applications in {@code Command} objects that can be undone and
+ * redone, or through {@code apply(Trail)}, which writes the forced cell
+ * changes directly into a {@code Trail} without creating any objects, as is
+ * done during a search. Hence, concrete strategies should check
+ * {@code trail} in {@code findApplication()}: if it is set, the found
+ * application is to be written into it instead of being set by
+ * {@code setApplication(Command)}. Concrete strategies may leave this to the
+ * helpers {@code startApplication()}, {@code set(int, int, CellState)},
+ * {@code include(Strategy)} and {@code finishApplication()}.
+ *
  * @author iVerb
  * @since 3-4-13
  */
@@ -24,6 +41,21 @@ public abstract class Strategy {
      */
     private Command application;
 
+    /**
+     * The trail the found applications are written into, or {@code null} if
+     * they are to be set as {@code Command} objects.
+     */
+    protected Trail trail;
+
+    /**
+     * The executed commands of the cell changes of the current application,
+     * if no trail is set, which are undone when the application is finished.
+     */
+    private List<Command> changes;
+
+    /** Whether the current application has changed any cell. */
+    private boolean changed;
+
     /**
      * Sets the {@code Grid} object to be used by this strategy.
      * 
@@ -43,6 +75,18 @@ public abstract class Strategy {
         return grid;
     }
 
+    /**
+     * Sets the trail the applications found by this strategy are written
+     * into.
+     *
+     * @param trail  the trail to be written into, or {@code null} if the
+     * applications are to be set as {@code Command} objects
+     * @modifies trail
+     */
+    public void setTrail(final Trail trail) {
+        this.trail = trail;
+    }
+
     /**
      * Sets the found application of this strategy to the given {@code Command}.
      * This method is to be used if a call to {@code findApplication()} results
@@ -103,13 +147,148 @@ public abstract class Strategy {
         return compoundCommand;
     }
 
+    /**
+     * Starts an application of this strategy, which consists of all cell
+     * changes made through {@code set} and {@code include} until
+     * {@code finishApplication()} is called.
+     */
+    protected void startApplication() {
+        changes = trail == null ? new ArrayList<Command>() : null;
+        changed = false;
+    }
+
+    /**
+     * Changes the state of the cell at coordinates {@code (x, y)} as a part
+     * of the current application: writes the change into the trail if it is
+     * set, or executes and collects the command that defines it otherwise.
+     *
+     * @pre {@code startApplication()} has been called
+     * @param x  the x-coordinate of the cell
+     * @param y  the y-coordinate of the cell
+     * @param state  the new state of the cell
+     */
+    protected void set(final int x, final int y, final CellState state) {
+        if (trail != null) {
+            trail.set(x, y, state);
+        }
+        else {
+            Command command = new SetCellStateCommand(grid.getCell(x, y),
+                    state);
+            command.execute();
+            changes.add(command);
+        }
+        changed = true;
+    }
+
+    /**
+     * Changes the state of the i-th cell in the given line as a part of the
+     * current application, like {@code set(int, int, CellState)}.
+     *
+     * @pre {@code startApplication()} has been called and
+     * {@code 0 <= i < line.size()}
+     * @param line  the line the cell resides in
+     * @param i  the position of the cell in the line
+     * @param state  the new state of the cell
+     */
+    protected void set(final LineView line, final int i,
+            final CellState state) {
+        if (line.isRow()) {
+            set(i, line.getIndex(), state);
+        }
+        else {
+            set(line.getIndex(), i, state);
+        }
+    }
+
+    /**
+     * Applies the given strategy once on the grid of this strategy as a part
+     * of the current application: on the trail if it is set, or by executing
+     * and collecting the application it finds otherwise.
+     *
+     * @pre {@code startApplication()} has been called
+     * @param strategy  the strategy to be applied
+     * @return whether the given strategy found an application
+     */
+    protected boolean include(final Strategy strategy) {
+        boolean found;
+        if (trail != null) {
+            found = strategy.apply(trail);
+        }
+        else {
+            strategy.setGrid(grid);
+            found = strategy.findApplication();
+            if (found) {
+                Command command = strategy.getApplication();
+                command.execute();
+                changes.add(command);
+            }
+        }
+        changed |= found;
+        return found;
+    }
+
+    /**
+     * Finishes the current application of this strategy. If no trail is set
+     * and any cell has been changed, the collected commands are undone and
+     * compounded into the application of this strategy, such that the grid
+     * is left unchanged.
+     *
+     * @pre {@code startApplication()} has been called
+     * @return whether the application has changed any cell
+     */
+    protected boolean finishApplication() {
+        if (trail == null && changed) {
+            CompoundCommand compoundCommand = new CompoundCommand();
+            for (int i = changes.size() - 1; i >= 0; i --) {
+                changes.get(i).undo();
+            }
+            for (Command command : changes) {
+                compoundCommand.add(command);
+            }
+            setApplication(compoundCommand);
+        }
+        changes = null;
+        return changed;
+    }
+
+    /**
+     * Applies this strategy once on the grid of the given trail, writing the
+     * forced cell changes found directly into the trail, such that they can
+     * be undone by backtracking it.
+     *
+     * @param trail  the trail on whose grid this strategy is applied
+     * @return whether an application was found and applied
+     */
+    public boolean apply(final Trail trail) {
+        setGrid(trail.getGrid());
+        setTrail(trail);
+        try {
+            return findApplication();
+        }
+        finally {
+            setTrail(null);
+        }
+    }
+
+    /**
+     * Creates a new strategy that applies the same concept as this strategy,
+     * but that can be applied independently of this strategy, e.g. on another
+     * grid by another thread.
+     *
+     * @return a new strategy equivalent to this strategy, sharing none of its
+     * grid, trail or application
+     */
+    public abstract Strategy copy();
+
     /**
      * Finds if this strategy can be applied on the grid and returns 
      * {@code true} if it is and sets the found application of this strategy 
      * (through {@code setApplication(Command)}) such that it can be used upon 
      * calling {@code apply(Grid)}. Note that this method is required to call 
      * {@code setApplication(Command)} upon finding an application and should 
-     * only be called after {@code setGrid(Grid)}.
+     * only be called after {@code setGrid(Grid)}. If a trail has been set
+     * through {@code setTrail(Trail)}, the application is instead written into
+     * the trail, and hence applied, by this method.
      * 
      * @return whether an application is found in the grid or not.
      */
@@ -37,6 +37,11 @@ public abstract class StrategyDecorator extends Strategy {
         return decoratedStrategy.getGrid();
     }
 
+    @Override
+    public void setTrail(final Trail trail) {
+        decoratedStrategy.setTrail(trail);
+    }
+
     @Override
     public void setApplication(final Command command) {
         decoratedStrategy.setApplication(command);
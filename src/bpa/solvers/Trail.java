@@ -0,0 +1,197 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import java.util.Arrays;
+
+/**
+ * The trail of all cell changes made on a grid during a search, used to undo
+ * them upon backtracking without creating a {@code Command} object for each
+ * change. Each entry holds the position of the changed cell and its previous
+ * state, packed into a single {@code int}. Markers divide the trail into
+ * levels, such that backtracking amounts to restoring the entries above the
+ * last marker in reverse order.
+ */
+public class Trail {
+
+    /** The states of cells, by ordinal. */
+    private static final CellState[] STATES = CellState.values();
+
+    /** The number of bits used to store the previous state of an entry. */
+    private static final int STATE_BITS = 2;
+
+    /** The grid the changes are made on. */
+    private final Grid grid;
+
+    /**
+     * The entries of the trail, in order of their changes: the row-major
+     * position {@code y * width + x} of the changed cell, shifted left by
+     * {@code STATE_BITS}, or'ed with the ordinal of its previous state.
+     */
+    private int[] entries = new int[64];
+
+    /** The number of entries on the trail. */
+    private int size;
+
+    /** The sizes of the trail at which the levels start. */
+    private int[] markers = new int[16];
+
+    /** The number of levels. */
+    private int level;
+
+    /** The listener notified of all changes, or {@code null} if none. */
+    private Listener listener;
+
+    /**
+     * Creates an empty trail of the changes made on the given grid.
+     *
+     * @param grid  the grid the changes are made on
+     */
+    public Trail(final Grid grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Sets the listener that is notified of every change made through this
+     * trail, including the changes undone by backtracking.
+     *
+     * @param listener  the listener, or {@code null} if none is to be
+     * notified
+     * @modifies listener
+     */
+    public void setListener(final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the grid the changes are made on.
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Changes the state of the cell at the given coordinates and records its
+     * previous state on the trail. Nothing is recorded if the cell already has
+     * the given state.
+     *
+     * @param x  the x-coordinate of the cell
+     * @param y  the y-coordinate of the cell
+     * @param state  the new state of the cell
+     * @pre {@code grid.checkCoordinates(x, y) && !grid.isCellLocked(x, y)}
+     * @post {@code grid.getCellState(x, y) == state}
+     * @throws IllegalArgumentException  if the cell does not exist or is
+     * locked
+     */
+    public void set(final int x, final int y, final CellState state)
+        throws IllegalArgumentException {
+        CellState previous = grid.getCellState(x, y);
+        if (previous == state) {
+            return;
+        }
+        grid.setCellState(x, y, state);
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        int position = y * grid.getWidth() + x;
+        entries[size ++] = (position << STATE_BITS) | previous.ordinal();
+        if (listener != null) {
+            listener.cellChanged(position);
+        }
+    }
+
+    /**
+     * Changes the state of the cell at the given row-major position.
+     *
+     * @param position  the position {@code y * grid.getWidth() + x} of the
+     * cell
+     * @param state  the new state of the cell
+     * @see #set(int, int, CellState)
+     */
+    public void set(final int position, final CellState state)
+        throws IllegalArgumentException {
+        set(position % grid.getWidth(), position / grid.getWidth(), state);
+    }
+
+    /**
+     * Starts a new level: all changes made after this call are undone by the
+     * matching call to {@code backtrack()}.
+     *
+     * @post {@code getLevel() == old.getLevel() + 1}
+     */
+    public void mark() {
+        if (level == markers.length) {
+            markers = Arrays.copyOf(markers, level * 2);
+        }
+        markers[level ++] = size;
+    }
+
+    /**
+     * Undoes all changes made since the last call to {@code mark()}, in
+     * reverse order, and removes the last level.
+     *
+     * @pre {@code getLevel() > 0}
+     * @post {@code getLevel() == old.getLevel() - 1}
+     * @throws IllegalStateException  if {@code getLevel() == 0}
+     */
+    public void backtrack() throws IllegalStateException {
+        if (level == 0) {
+            throw new IllegalStateException("Trail.backtrack.pre violated: "
+                    + "no level has been marked.");
+        }
+        int marker = markers[-- level];
+        int width = grid.getWidth();
+        while (size > marker) {
+            int entry = entries[-- size];
+            int position = entry >>> STATE_BITS;
+            grid.setCellState(position % width, position / width,
+                    STATES[entry & ((1 << STATE_BITS) - 1)]);
+            if (listener != null) {
+                listener.cellChanged(position);
+            }
+        }
+    }
+
+    /**
+     * Forgets all changes and levels, without undoing any of them, such that
+     * the grid keeps its current state.
+     *
+     * @post {@code size() == 0 && getLevel() == 0}
+     */
+    public void clear() {
+        size = 0;
+        level = 0;
+    }
+
+    /**
+     * Gets the number of changes on the trail.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of levels that have been marked and not yet
+     * backtracked.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * A listener that is notified of the changes made through a trail, such
+     * that it can keep structures derived from the grid up to date without
+     * rescanning it.
+     */
+    public interface Listener {
+
+        /**
+         * Called after the state of the cell at the given row-major position
+         * has been changed, or restored by backtracking.
+         *
+         * @param position  the position {@code y * width + x} of the cell
+         */
+        void cellChanged(int position);
+    }
+
+}
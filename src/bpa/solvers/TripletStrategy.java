@@ -1,10 +1,7 @@
 package bpa.solvers;
 
-import bpa.model.Cell;
 import bpa.model.CellState;
-import bpa.solvers.commands.Command;
-import bpa.solvers.commands.SetCellStateCommand;
-import java.util.List;
+import bpa.model.LineView;
 
 /**
  * The strategy that applies the following concept: if three adjacent cells 
@@ -18,13 +15,9 @@ public class TripletStrategy extends Strategy {
 
     @Override
     public boolean findApplication() {
-        Cell c1, c2, c3;
-        for (List<Cell> line : grid.lines()) {
-            for (int i = 0; i != line.size() - 2; i ++) {
-                c1 = line.get(i);
-                c2 = line.get(i + 1);
-                c3 = line.get(i + 2);
-                if (findApplicatoryCell(c1, c2, c3)) {
+        for (LineView line : grid.lineViews()) {
+            for (int i = 0; i < line.size() - 2; i ++) {
+                if (findApplicatoryCell(line, i)) {
                     return true;
                 }
             }
@@ -33,18 +26,18 @@ public class TripletStrategy extends Strategy {
     }
 
     /**
-     * Inspects the given triplet to find a cell on which this strategy can be
-     * applied and returns true if it is found, or false, if it is not.
+     * Inspects the triplet starting at position i in the given line to find a
+     * cell on which this strategy can be applied and returns true if it is 
+     * found, or false, if it is not.
      */
-    private boolean findApplicatoryCell(
-            final Cell c1, final Cell c2, final Cell c3) {
-        if (isCellApplicatory(c1, c2, c3)) {
+    private boolean findApplicatoryCell(final LineView line, final int i) {
+        if (isCellApplicatory(line, i, i + 1, i + 2)) {
             return true;
         } 
-        else if (isCellApplicatory(c1, c3, c2)) {
+        else if (isCellApplicatory(line, i, i + 2, i + 1)) {
             return true;
         } 
-        else if (isCellApplicatory(c2, c3, c1)) {
+        else if (isCellApplicatory(line, i + 1, i + 2, i)) {
             return true;
         }
         return false;
@@ -54,19 +47,18 @@ public class TripletStrategy extends Strategy {
      * Determines whether the given target cell in the given triplet is forced 
      * to a given state by the other two cells, and if so, the corresponding 
      * boolean is returned and the application command is set to the resulting
-     * cell change.
+     * cell change. The cells are given by their position in the given line.
      */
-    private boolean isCellApplicatory(
-            final Cell c1, final Cell c2, final Cell targetCell) {
-        CellState s1 = c1.getState();
-        CellState s2 = c2.getState();
-        CellState targetState = targetCell.getState();
+    private boolean isCellApplicatory(final LineView line, 
+            final int c1, final int c2, final int targetCell) {
+        CellState s1 = line.stateAt(c1);
+        CellState s2 = line.stateAt(c2);
+        CellState targetState = line.stateAt(targetCell);
 
         if (s1 == s2 && s1 != CellState.EMPTY && targetState == CellState.EMPTY) {            
-            CellState newCellState = toggleState(s1);
-            Command command = new SetCellStateCommand(targetCell, newCellState);
-            setApplication(command);
-            return true;
+            startApplication();
+            set(line, targetCell, toggleState(s1));
+            return finishApplication();
         }
         return false;
     }
@@ -93,5 +85,10 @@ public class TripletStrategy extends Strategy {
                         + "illegal CellState: " + state);
         }
     }
+
+    @Override
+    public Strategy copy() {
+        return new TripletStrategy();
+    }
     
 }
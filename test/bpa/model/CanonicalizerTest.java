@@ -0,0 +1,74 @@
+package bpa.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code Canonicalizer}.
+ */
+public class CanonicalizerTest {
+
+    /** The specification files used in these tests. */
+    private static final String[] SPECIFICATIONS = {
+        "correctSpec", "completeSpec", "partlySolvedSpec"
+    };
+
+    /**
+     * Creates the grid specified in the given file.
+     */
+    private static Grid createGrid(final String gridSpecification)
+        throws IOException {
+        List<Constraint> constraints = Arrays.asList();
+        return new GridArrays(new Scanner(new File(gridSpecification + ".txt")),
+                constraints);
+    }
+
+    /**
+     * Test of inverse method, of class Canonicalizer.Transform. Tests whether
+     * each transform is undone by its inverse.
+     */
+    @Test
+    public void testInverse() throws IOException {
+        System.out.println("transform inverse");
+        for (String specification : SPECIFICATIONS) {
+            Grid grid = createGrid(specification);
+            for (Canonicalizer.Transform t : Canonicalizer.Transform.ALL) {
+                Grid transformed = t.apply(grid);
+                assertEquals(specification + " " + t, grid,
+                        t.inverse().apply(transformed));
+            }
+        }
+    }
+
+    /**
+     * Test of canonicalize method, of class Canonicalizer. Tests whether all
+     * equivalent grids have the same canonical form and representative.
+     */
+    @Test
+    public void testCanonicalize() throws IOException {
+        System.out.println("canonicalize");
+        for (String specification : SPECIFICATIONS) {
+            Grid grid = createGrid(specification);
+            Canonicalizer.CanonicalForm form = Canonicalizer.canonicalize(grid);
+            Grid representative = form.getTransform().apply(grid);
+            assertEquals(grid,
+                    form.getTransform().inverse().apply(representative));
+            for (Canonicalizer.Transform t : Canonicalizer.Transform.ALL) {
+                Grid equivalent = t.apply(grid);
+                assertEquals(specification + " " + t, form.getHash(),
+                        Canonicalizer.canonicalize(equivalent).getHash());
+                assertEquals(specification + " " + t, representative,
+                        Canonicalizer.canonicalRepresentative(equivalent));
+            }
+        }
+        assertFalse(Canonicalizer.canonicalize(createGrid("completeSpec"))
+                .getHash() == Canonicalizer.canonicalize(
+                createGrid("partlySolvedSpec")).getHash());
+    }
+
+}
@@ -5,6 +5,8 @@ import java.io.FileNotFoundException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
 
 /**
  * Test cases for {@code GridArrays}.
@@ -35,4 +37,35 @@ public class GridArraysTest extends GridTestCases {
         return new GridArrays(scanner, constraints);
     }
     
-}
\ No newline at end of file
+    /**
+     * Test of the violation index of GridArrays. Tests whether the violations
+     * are kept up to date after cells change, both through 
+     * {@code setCellState()} and directly through the {@code Cell} object.
+     */
+    @Test
+    public void testViolationIndexUpdate() {
+        System.out.println("violation index");
+        setInstance(correctSpec);
+        GridArrays grid = (GridArrays) instance;
+        Constraint tripletConstraint = new BinaryPuzzleTripletConstraint();
+        Constraint lineConstraint = new BinaryPuzzleLineConstraint();
+        grid.setConstraints(Arrays.asList(lineConstraint, tripletConstraint));
+        assertEquals(3, grid.getConstraintViolations().size());
+        assertTrue(grid.hasAnyViolation());
+        
+        grid.setCellState(1, 0, CellState.ZERO);
+        assertEquals(1, grid.getConstraintViolations().size());
+        assertEquals(0, grid.getCellViolations(1, 1).size());
+        assertEquals(1, grid.getCellViolations(1, 2).size());
+        
+        grid.getCell(1, 2).setState(CellState.ZERO);
+        assertEquals(1, grid.getConstraintViolations().size());
+        grid.getCell(1, 3).setState(CellState.ONE);
+        assertTrue(grid.getConstraintViolations().isEmpty());
+        assertFalse(grid.hasAnyViolation());
+        
+        grid.setCellState(1, 3, CellState.ZERO);
+        assertTrue(grid.hasAnyViolation());
+    }
+    
+}
@@ -0,0 +1,109 @@
+package bpa.model;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code GridMapped}.
+ */
+public class GridMappedTest extends GridTestCases {
+
+    @Override
+    protected void setInstance(final String gridSpecification) {
+        try {
+            File file = new File(gridSpecification + ".txt");
+            Scanner sc = new Scanner(file);
+            instance = createInstance(sc);
+        }
+        catch (FileNotFoundException e) {
+            System.out.println("Test file " + gridSpecification + ".txt could "
+                    + "not be found. Aborting all tests.");
+            System.exit(1);
+        }
+    }
+
+    @Override
+    protected Grid createInstance(final Scanner scanner) {
+        List<Constraint> constraints = Arrays.asList();
+        Grid source = new GridArrays(scanner, constraints);
+        try {
+            return GridMapped.create(createTempFile(), source);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates a temporary file that is deleted when the tests are done.
+     */
+    private static File createTempFile() throws IOException {
+        File file = File.createTempFile("grid", ".bpag");
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Test of open method, of class GridMapped. Tests whether changes to a
+     * grid are visible after reopening its file.
+     */
+    @Test
+    public void testOpen() throws IOException {
+        System.out.println("open");
+        setInstance(correctSpec);
+        GridMapped grid = (GridMapped) instance;
+        grid.setCellState(1, 0, CellState.ONE);
+        grid.flush();
+
+        File file = createTempFile();
+        GridMapped copy = GridMapped.create(file, grid);
+        copy.flush();
+        GridMapped reopened = GridMapped.open(file, grid.getConstraints());
+        assertEquals(grid.toString(), reopened.toString());
+        assertEquals(CellState.ONE, reopened.getCellState(1, 0));
+        assertTrue(reopened.isRepOk());
+    }
+
+    /**
+     * Test of open method, of class GridMapped. Tests whether files that do
+     * not hold a grid are rejected.
+     */
+    @Test
+    public void testOpenRobustness() throws IOException {
+        System.out.println("open robustness");
+        File file = createTempFile();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.writeInt(GridMapped.MAGIC);
+        raf.writeInt(GridMapped.VERSION);
+        raf.writeInt(4);
+        raf.writeInt(4);
+        raf.close();
+        List<Constraint> constraints = Arrays.asList();
+        try {
+            GridMapped.open(file, constraints);
+            fail("truncated file accepted");
+        }
+        catch (IllegalArgumentException e) {
+            //expected
+        }
+
+        raf = new RandomAccessFile(file, "rw");
+        raf.writeInt(0);
+        raf.close();
+        try {
+            GridMapped.open(file, constraints);
+            fail("file without magic number accepted");
+        }
+        catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package bpa.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code GridReader}.
+ */
+public class GridReaderTest {
+
+    /**
+     * Parses the given specification using {@code GridReader}.
+     */
+    private static GridReader.Specification parse(final String specification) {
+        return GridReader.parse(ByteBuffer.wrap(
+                specification.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Determines the message of the exception thrown upon parsing the given
+     * specification using {@code GridArrays.GridParser}.
+     */
+    private static String parserMessage(final String specification) {
+        try {
+            GridArrays.GridParser.parseGrid(new Scanner(specification));
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Determines the message of the exception thrown upon parsing the given
+     * specification using {@code GridReader}.
+     */
+    private static String readerMessage(final String specification) {
+        try {
+            parse(specification);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Test of parse method, of class GridReader. Tests whether the
+     * specification files are parsed to the same cells as
+     * {@code GridArrays.GridParser} does.
+     */
+    @Test
+    public void testParse() throws IOException {
+        System.out.println("parse");
+        String[] files = {"correctSpec", "completeSpec", "partlySolvedSpec"};
+        for (String file : files) {
+            Cell[][] expected = GridArrays.GridParser.parseGrid(
+                    new Scanner(new File(file + ".txt")));
+            InputStream in = new FileInputStream(file + ".txt");
+            GridReader.Specification result = GridReader.parse(in);
+            in.close();
+            assertEquals(file, expected.length, result.getWidth());
+            assertEquals(file, expected[0].length, result.getHeight());
+            for (int x = 0; x != result.getWidth(); x ++) {
+                for (int y = 0; y != result.getHeight(); y ++) {
+                    assertEquals(file, expected[x][y].getState(),
+                            result.getState(x, y));
+                    assertEquals(file, expected[x][y].isLocked(),
+                            result.isLocked(x, y));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of parse method, of class GridReader. Tests the supported line
+     * separators and whitespace.
+     */
+    @Test
+    public void testParseSeparators() throws IOException {
+        System.out.println("parse separators");
+        String specification = "0 1*\r\n.\t1\r1* 0\n.  .";
+        GridReader.Specification result = GridReader.parse(
+                new ByteArrayInputStream(
+                specification.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, result.getWidth());
+        assertEquals(4, result.getHeight());
+        assertEquals(CellState.ONE, result.getState(1, 0));
+        assertFalse(result.isLocked(1, 0));
+        assertEquals(CellState.EMPTY, result.getState(0, 1));
+        assertTrue(result.isLocked(1, 2));
+        assertEquals(CellState.EMPTY, result.getState(1, 3));
+    }
+
+    /**
+     * Test of parse method, of class GridReader. Tests whether the same
+     * errors are reported as by {@code GridArrays.GridParser}.
+     */
+    @Test
+    public void testParseForException() {
+        System.out.println("parse robustness");
+        String[] specifications = {
+            "0 1\n0 2\n", "0 1\n0*1\n", "0 .*\n", "0 1\n0\n", "0 1\n\n0 1\n",
+            "0 1 0\n0 1\n0 x\n"
+        };
+        for (String specification : specifications) {
+            String expected = parserMessage(specification);
+            assertNotNull(specification, expected);
+            assertEquals(specification, expected,
+                    readerMessage(specification));
+        }
+        assertNotNull(readerMessage(""));
+    }
+
+}
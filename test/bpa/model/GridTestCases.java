@@ -1,5 +1,7 @@
 package bpa.model;
 
+import bpa.solvers.commands.Command;
+import bpa.solvers.commands.SetCellStateCommand;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -85,13 +87,14 @@ public abstract class GridTestCases {
     /** 
      * Checks if two arbitrary lines in the grid hold the same sequence of 
      * {@code Cell} objects. Useful for comparing expected lines with actual 
-     * lines.
+     * lines. Cells are compared using {@code equals()}, such that grids 
+     * handing out a new handle upon each request can be compared as well.
      */
     private boolean checkSimilar(
             final List<Cell> line1, final List<Cell> line2) {
         
         for (int i = 0; i != line1.size(); i ++) {
-            if (line1.get(i) != line2.get(i)) {
+            if (! line1.get(i).equals(line2.get(i))) {
                 return false;
             }            
         }
@@ -408,6 +411,38 @@ public abstract class GridTestCases {
         assertEquals("cell violation count", expViolations, violationCount);
     }
     
+    /**
+     * Test of hasAnyViolation method, of class Grid.
+     */
+    @Test
+    public void testHasAnyViolation() {
+        System.out.println("hasAnyViolation");
+        
+        Constraint tripletConstraint = new BinaryPuzzleTripletConstraint();
+        Constraint lineConstraint = new BinaryPuzzleLineConstraint();
+        List<Constraint> constraints;
+        
+        setInstance(correctSpec);
+        constraints = Arrays.asList(lineConstraint, tripletConstraint);
+        instance.setConstraints(constraints);
+        assertTrue(instance.hasAnyViolation());
+        
+        constraints = Arrays.asList();
+        instance.setConstraints(constraints);
+        assertFalse(instance.hasAnyViolation());
+        
+        setInstance(completeSpec);
+        constraints = Arrays.asList(lineConstraint);
+        instance.setConstraints(constraints);
+        assertTrue(instance.hasAnyViolation());
+        
+        constraints = Arrays.asList(tripletConstraint);
+        instance.setConstraints(constraints);
+        assertFalse(instance.hasAnyViolation());
+        assertEquals(instance.getConstraintViolations().isEmpty(), 
+                ! instance.hasAnyViolation());
+    }
+    
     /**
      * Test of getCellViolations method, of class Grid.
      */
@@ -482,6 +517,38 @@ public abstract class GridTestCases {
         assertTrue("correctSpec", checkViolatingCellsList(expViolatingCells));       
     }
     
+    /**
+     * Test of getViolationMap method, of class Grid.
+     */
+    @Test
+    public void testGetViolationMap() {
+        System.out.println("getViolationMap");
+
+        Constraint tripletConstraint = new BinaryPuzzleTripletConstraint();
+        Constraint lineConstraint = new BinaryPuzzleLineConstraint();
+        List<Constraint> constraints;
+        
+        setInstance(correctSpec);
+        constraints = Arrays.asList(lineConstraint, tripletConstraint);
+        instance.setConstraints(constraints);
+        ViolationMap violationMap = instance.getViolationMap();
+        List<Cell> violatingCells = instance.getViolatingCells();
+        assertEquals(violatingCells.size(), 
+                violationMap.getViolatingCellCount());
+        for (int i = 0; i != instance.getWidth(); i ++) {
+            for (int j = 0; j != instance.getHeight(); j ++) {
+                Cell cell = instance.getCell(i, j);
+                assertEquals(violatingCells.contains(cell), 
+                        violationMap.isViolating(i, j));
+                assertEquals(instance.getCellViolations(i, j), 
+                        violationMap.getConstraints(i, j));
+            }
+        }
+        assertEquals(3, violationMap.getMask(1, 2));
+        assertEquals(1, violationMap.getMask(0, 2));
+        assertEquals(0, violationMap.getMask(0, 0));
+    }
+    
     /**
      * Checks whether the given list of cells holds the exact same elements as
      * the list of violating cells produced by the getViolatingCells method, of
@@ -516,6 +583,102 @@ public abstract class GridTestCases {
         assertTrue("completeSpec", instance.isFull());
     }
     
+    /**
+     * Test of getRowCount, getColumnCount and getEmptyCount methods, of class 
+     * Grid. Tests whether the counts are kept up to date after cells change.
+     */
+    @Test
+    public void testLineCounts() {
+        System.out.println("line counts");
+        setInstance(correctSpec);
+        
+        assertEquals(2, instance.getEmptyCount());
+        assertEquals(1, instance.getRowCount(0, CellState.ONE));
+        assertEquals(1, instance.getRowCount(0, CellState.EMPTY));
+        assertEquals(0, instance.getRowCount(2, CellState.ZERO));
+        assertEquals(3, instance.getColumnCount(1, CellState.ONE));
+        assertEquals(1, instance.getColumnCount(1, CellState.ZERO));
+        
+        instance.setCellState(0, 0, CellState.ZERO);
+        instance.getCell(1, 0).setState(CellState.ZERO);
+        assertEquals(1, instance.getEmptyCount());
+        assertEquals(2, instance.getRowCount(0, CellState.ZERO));
+        assertEquals(0, instance.getRowCount(0, CellState.EMPTY));
+        assertEquals(2, instance.getColumnCount(1, CellState.ZERO));
+        assertEquals(2, instance.getColumnCount(0, CellState.ZERO));
+        
+        instance.setCellState(0, 3, CellState.ONE);
+        assertEquals(0, instance.getEmptyCount());
+        assertTrue(instance.isFull());
+    }
+    
+    /**
+     * Test of getZobristHash method, of class Grid. Tests whether the hash is
+     * kept up to date after cells change, both directly and through commands.
+     */
+    @Test
+    public void testZobristHash() {
+        System.out.println("getZobristHash");
+        setInstance(correctSpec);
+        long initial = instance.getZobristHash();
+        assertEquals(Zobrist.hash(instance), initial);
+        
+        instance.setCellState(0, 0, CellState.ZERO);
+        assertEquals(Zobrist.hash(instance), instance.getZobristHash());
+        assertTrue(initial != instance.getZobristHash());
+        
+        Command command = new SetCellStateCommand(instance.getCell(0, 3), 
+                CellState.ONE);
+        command.execute();
+        assertEquals(Zobrist.hash(instance), instance.getZobristHash());
+        command.undo();
+        instance.setCellState(0, 0, CellState.EMPTY);
+        assertEquals(initial, instance.getZobristHash());
+    }
+    
+    /**
+     * Test of equals and hashCode methods, of class Grid.
+     */
+    @Test
+    public void testEquals() {
+        System.out.println("equals");
+        setInstance(correctSpec);
+        Grid other = instance;
+        setInstance(correctSpec);
+        assertEquals(other, instance);
+        assertEquals(other.hashCode(), instance.hashCode());
+        
+        instance.setCellState(0, 0, CellState.ONE);
+        assertFalse(other.equals(instance));
+        other.setCellState(0, 0, CellState.ONE);
+        assertEquals(other, instance);
+        
+        instance.getCell(0, 0).setLocked(true);
+        assertFalse(other.equals(instance));
+        
+        setInstance(completeSpec);
+        assertFalse(other.equals(instance));
+        assertFalse(instance.equals(null));
+    }
+    
+    /**
+     * Test of copy method, of class Grid.
+     */
+    @Test
+    public void testCopy() {
+        System.out.println("copy");
+        setInstance(correctSpec);
+        instance.setCellState(0, 0, CellState.ONE);
+        Grid copy = instance.copy();
+        assertEquals(instance, copy);
+        assertSame(instance.getConstraints(), copy.getConstraints());
+        assertEquals(instance.isCellLocked(1, 0), copy.isCellLocked(1, 0));
+        
+        copy.setCellState(0, 0, CellState.ZERO);
+        assertEquals(CellState.ONE, instance.getCellState(0, 0));
+        assertFalse(instance.equals(copy));
+    }
+    
     /**
      * Test of isSolved method, of class Grid.
      */
@@ -640,6 +803,39 @@ public abstract class GridTestCases {
                 expCollectionSize, visited.size());
     }
     
+    /**
+     * Test of lineViews, getRowView and getColumnView methods, of class Grid. 
+     * Tests whether the views are reused and hold the correct cells and 
+     * counts.
+     */
+    @Test
+    public void testLineViews() {
+        System.out.println("lineViews");
+        setInstance(correctSpec);
+        
+        List<LineView> views = instance.lineViews();
+        assertEquals(instance.getWidth() + instance.getHeight(), views.size());
+        assertSame(views.get(0), instance.getRowView(0));
+        assertSame(instance.getColumnView(1), instance.getColumnView(1));
+        assertTrue(checkSimilar(instance.getRow(2), instance.getRowView(2)));
+        assertTrue(checkSimilar(instance.getColumn(1), 
+                instance.getColumnView(1)));
+        
+        LineView column = instance.getColumnView(0);
+        assertFalse(column.isRow());
+        assertEquals(0, column.getIndex());
+        assertEquals(CellState.EMPTY, column.stateAt(0));
+        assertEquals(CellState.ZERO, column.stateAt(1));
+        assertEquals(1, column.countZeros());
+        assertEquals(1, column.countOnes());
+        assertEquals(2, column.countEmpty());
+        
+        instance.setCellState(0, 0, CellState.ONE);
+        assertEquals(CellState.ONE, column.stateAt(0));
+        assertEquals(2, column.countOnes());
+        assertEquals(1, column.countEmpty());
+    }
+    
     /**
      * Test of iterator method, of class Grid. Tests whether the 
      * collection that is iterated over, contains the correct elements.
@@ -654,7 +850,7 @@ public abstract class GridTestCases {
             
             for (int i = 0; i != instance.getWidth(); i ++) {
                 for (int j = 0; j != instance.getHeight(); j ++) {
-                    if (instance.getCell(i, j) == cell) {
+                    if (instance.getCell(i, j).equals(cell)) {
                         correctElement = true;
                     }   
                 }
@@ -675,7 +871,7 @@ public abstract class GridTestCases {
         
         for (Cell cell : instance) {          
             for (Cell visitedCell : visited) {
-                assertFalse("duplicates", visitedCell == cell);
+                assertFalse("duplicates", visitedCell.equals(cell));
             }
             visited.add(cell);
         }
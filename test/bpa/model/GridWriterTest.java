@@ -0,0 +1,97 @@
+package bpa.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code GridWriter}.
+ */
+public class GridWriterTest {
+
+    /** The line separator written after each row. */
+    private static final String NL = System.getProperty("line.separator");
+
+    /**
+     * Creates the grid specified in the given file.
+     */
+    private static Grid createGrid(final String gridSpecification)
+        throws IOException {
+        List<Constraint> constraints = Arrays.asList();
+        return new GridArrays(new Scanner(new File(gridSpecification + ".txt")),
+                constraints);
+    }
+
+    /**
+     * Test of format method, of class GridWriter.
+     */
+    @Test
+    public void testFormat() throws IOException {
+        System.out.println("format");
+        Grid grid = createGrid("correctSpec");
+        String expected = ".  1* " + NL + "0  1  " + NL + "1  1* " + NL
+                + ".  0* " + NL;
+        assertEquals(expected, new GridWriter().format(grid));
+        assertEquals(expected, grid.toString());
+    }
+
+    /**
+     * Test of write methods, of class GridWriter. Tests whether writing to a
+     * writer and to a channel give the same specification as
+     * {@code format()}.
+     */
+    @Test
+    public void testWrite() throws IOException {
+        System.out.println("write");
+        GridWriter writer = new GridWriter();
+        Grid grid = createGrid("partlySolvedSpec");
+        String expected = writer.format(grid);
+
+        StringWriter out = new StringWriter();
+        writer.write(grid, out);
+        assertEquals(expected, out.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writer.write(grid, Channels.newChannel(bytes));
+        assertEquals(expected, new String(bytes.toByteArray(),
+                StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Test of write method, of class GridWriter. Tests whether a grid larger
+     * than the buffer of the writer is written completely, such that it can be
+     * read back.
+     */
+    @Test
+    public void testWriteLarge() throws IOException {
+        System.out.println("write large");
+        List<Constraint> constraints = Arrays.asList();
+        GridPacked grid = new GridPacked(200, 100, constraints);
+        for (int i = 0; i < grid.getCellCount(); i += 3) {
+            grid.setState(i, i % 2 == 0 ? CellState.ZERO : CellState.ONE);
+            if (i % 5 == 0) {
+                grid.setLocked(i, true);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new GridWriter().write(grid, Channels.newChannel(bytes));
+        GridPacked result = new GridPacked(
+                new ByteArrayInputStream(bytes.toByteArray()), constraints);
+        assertEquals(grid.getWidth(), result.getWidth());
+        assertEquals(grid.getHeight(), result.getHeight());
+        for (int i = 0; i != grid.getCellCount(); i ++) {
+            assertEquals(grid.getState(i), result.getState(i));
+            assertEquals(grid.isLocked(i), result.isLocked(i));
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package bpa.model;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code GroupCache}.
+ */
+public class GroupCacheTest {
+    
+    /** Test fixture. */
+    private GroupCache instance;
+    
+    /** The grid of which the groups are cached by the test fixture. */
+    private Grid grid;
+    
+    /**
+     * Sets instance to the group cache of a newly constructed grid, which is 
+     * initialized using the given {@code gridSpecification} that points to 
+     * some file.
+     */
+    private void setInstance(final String gridSpecification) {
+        try {
+            File file = new File(gridSpecification + ".txt");
+            Scanner sc = new Scanner(file);
+            List<Constraint> constraints = Arrays.asList();
+            grid = new GridArrays(sc, constraints);
+            instance = grid.getGroupCache();
+        }
+        catch (FileNotFoundException e) {
+            System.out.println("Test file " + gridSpecification + ".txt could "
+                    + "not be found. Aborting all tests.");
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Test of getGroups method, of class GroupCache.
+     */
+    @Test
+    public void testGetGroups() {
+        System.out.println("getGroups");
+        setInstance("completeSpec");
+        Constraint constraint = new BinaryPuzzleTripletConstraint();
+        
+        List<List<Cell>> groups = instance.getGroups(constraint);
+        assertEquals(constraint.obtainGroups(grid), groups);
+        assertSame(groups, instance.getGroups(constraint));
+        assertSame(instance, grid.getGroupCache());
+    }
+    
+    /**
+     * Test of getGroupIndices and getGroupsContaining methods, of class 
+     * GroupCache.
+     */
+    @Test
+    public void testGetGroupsContaining() {
+        System.out.println("getGroupsContaining");
+        setInstance("completeSpec");
+        Constraint tripletConstraint = new BinaryPuzzleTripletConstraint();
+        Constraint lineConstraint = new BinaryPuzzleLineConstraint();
+        
+        assertEquals(2, instance.getGroupIndices(tripletConstraint, 0, 0).length);
+        assertEquals(4, instance.getGroupIndices(tripletConstraint, 1, 1).length);
+        assertEquals(2, instance.getGroupIndices(lineConstraint, 3, 2).length);
+        
+        for (int x = 0; x != grid.getWidth(); x ++) {
+            for (int y = 0; y != grid.getHeight(); y ++) {
+                Cell cell = grid.getCell(x, y);
+                for (List<Cell> group : 
+                        instance.getGroupsContaining(tripletConstraint, x, y)) {
+                    assertTrue(group.contains(cell));
+                }
+            }
+        }
+    }
+    
+}
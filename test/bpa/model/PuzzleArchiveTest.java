@@ -0,0 +1,161 @@
+package bpa.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code BinaryGridFormat}, {@code PuzzleArchive} and
+ * {@code PuzzleArchiveWriter}.
+ */
+public class PuzzleArchiveTest {
+
+    /** The specification files used in these tests. */
+    private static final String[] SPECIFICATIONS = {
+        "correctSpec", "completeSpec", "partlySolvedSpec"
+    };
+
+    /** The constraints of the grids used in these tests. */
+    private final List<Constraint> constraints = Arrays.asList();
+
+    /**
+     * Creates the grid specified in the given file.
+     */
+    private Grid createGrid(final String gridSpecification)
+        throws IOException {
+        return new GridArrays(new Scanner(new File(gridSpecification + ".txt")),
+                constraints);
+    }
+
+    /**
+     * Test of encode and decode methods, of class BinaryGridFormat. Tests
+     * whether grids round-trip losslessly through the binary format.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        System.out.println("binary round trip");
+        for (String specification : SPECIFICATIONS) {
+            Grid grid = createGrid(specification);
+            byte[] binary = BinaryGridFormat.encode(grid);
+            Grid decoded = new GridArrays(
+                    BinaryGridFormat.decode(ByteBuffer.wrap(binary)),
+                    constraints);
+            assertEquals(specification, grid.toString(), decoded.toString());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryGridFormat.write(grid, out);
+            Grid read = new GridPacked(BinaryGridFormat.read(
+                    new ByteArrayInputStream(out.toByteArray())), constraints);
+            assertEquals(specification, grid.toString(), read.toString());
+        }
+    }
+
+    /**
+     * Test of decode method, of class BinaryGridFormat. Tests whether invalid
+     * binary grids are rejected.
+     */
+    @Test
+    public void testDecodeForException() throws IOException {
+        System.out.println("binary robustness");
+        byte[] binary = BinaryGridFormat.encode(createGrid("correctSpec"));
+        byte[][] invalid = {
+            Arrays.copyOf(binary, binary.length - 1),
+            binary.clone(),
+            binary.clone()
+        };
+        invalid[1][0] = 0;
+        invalid[2][BinaryGridFormat.HEADER_SIZE] = (byte) 0xFF;
+        for (byte[] bytes : invalid) {
+            try {
+                BinaryGridFormat.decode(ByteBuffer.wrap(bytes));
+                fail("invalid binary grid accepted");
+            }
+            catch (IllegalArgumentException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Test of PuzzleArchive and PuzzleArchiveWriter. Tests whether all puzzles
+     * written to an archive can be looked up and scanned in order.
+     */
+    @Test
+    public void testArchive() throws IOException {
+        System.out.println("archive");
+        File file = File.createTempFile("puzzles", ".bpaa");
+        file.deleteOnExit();
+        PuzzleArchiveWriter writer = new PuzzleArchiveWriter(file);
+        for (int i = 0; i != 100; i ++) {
+            writer.add(createGrid(SPECIFICATIONS[i % SPECIFICATIONS.length]));
+        }
+        writer.close();
+
+        PuzzleArchive archive = new PuzzleArchive(file);
+        try {
+            assertEquals(100, archive.size());
+            String expected = createGrid(SPECIFICATIONS[1]).toString();
+            assertEquals(expected,
+                    new GridArrays(archive.get(97), constraints).toString());
+            int i = 0;
+            for (GridReader.Specification specification : archive) {
+                assertEquals(createGrid(SPECIFICATIONS[i % 3]).toString(),
+                        new GridArrays(specification, constraints).toString());
+                i ++;
+            }
+            assertEquals(100, i);
+        }
+        finally {
+            archive.close();
+        }
+    }
+
+    /**
+     * Test of iterator method, of class PuzzleArchive. Tests whether two
+     * iterators that are advanced alternately over an archive larger than
+     * their buffers, with lookups in between, both scan all puzzles in order.
+     */
+    @Test
+    public void testInterleavedIterators() throws IOException {
+        System.out.println("interleavedIterators");
+        File file = File.createTempFile("puzzles", ".bpaa");
+        file.deleteOnExit();
+        String[] expected = new String[SPECIFICATIONS.length];
+        PuzzleArchiveWriter writer = new PuzzleArchiveWriter(file);
+        for (int i = 0; i != 3000; i ++) {
+            Grid grid = createGrid(SPECIFICATIONS[i % SPECIFICATIONS.length]);
+            expected[i % SPECIFICATIONS.length] = grid.toString();
+            writer.add(grid);
+        }
+        writer.close();
+        assertTrue(file.length() > 1 << 16);
+
+        PuzzleArchive archive = new PuzzleArchive(file);
+        try {
+            Iterator<GridReader.Specification> first = archive.iterator();
+            Iterator<GridReader.Specification> second = archive.iterator();
+            for (int i = 0; i != archive.size(); i ++) {
+                String grid = expected[i % SPECIFICATIONS.length];
+                assertEquals(grid,
+                        new GridArrays(first.next(), constraints).toString());
+                archive.get(archive.size() - 1 - i);
+                assertEquals(grid,
+                        new GridArrays(second.next(), constraints).toString());
+            }
+            assertFalse(first.hasNext());
+            assertFalse(second.hasNext());
+        }
+        finally {
+            archive.close();
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import java.util.HashSet;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code IterativeSingleSolver} and
+ * {@code IterativeCompleteSolver}, which are compared to their recursive
+ * counterparts.
+ */
+public class IterativeBacktrackerTest extends SolverTestCases {
+
+    /** A puzzle with many solutions. */
+    private static final String OPEN =
+              ". . . . . .\n"
+            + ". . 1 . . .\n"
+            + ". . . . 0 .\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n";
+
+    /**
+     * Test of solve method, of class IterativeSingleSolver.
+     */
+    @Test
+    public void testSingleSolve() throws InterruptedException {
+        System.out.println("single solve");
+        for (String specification : new String[] {SINGLE, OPEN}) {
+            Grid expected = createGrid(specification);
+            new SingleSolver(expected).solve();
+            Grid grid = createGrid(specification);
+            List<String> solutions = collect(new IterativeSingleSolver(grid));
+
+            assertTrue("solved", grid.isSolved());
+            assertEquals("same solution", expected, grid);
+            assertTrue("no notifications", solutions.isEmpty());
+        }
+    }
+
+    /**
+     * Test of solve method, of class IterativeCompleteSolver.
+     */
+    @Test
+    public void testCompleteSolve() throws InterruptedException {
+        System.out.println("complete solve");
+        for (String specification : new String[] {SINGLE, OPEN}) {
+            List<String> expected = collect(new CompleteSolver(
+                    createGrid(specification)));
+            Grid grid = createGrid(specification);
+            List<String> solutions = collect(
+                    new IterativeCompleteSolver(grid));
+
+            assertFalse("found solutions", solutions.isEmpty());
+            assertEquals("same solutions", expected, solutions);
+            assertEquals("distinct solutions", solutions.size(),
+                    new HashSet<String>(solutions).size());
+            assertEquals("restored", createGrid(specification), grid);
+        }
+        assertEquals("single solution", 1,
+                collect(new IterativeCompleteSolver(createGrid(SINGLE)))
+                .size());
+    }
+
+    /**
+     * Test of abort method, of class IterativeBacktracker.
+     */
+    @Test(expected = InterruptedException.class)
+    public void testAbort() throws InterruptedException {
+        System.out.println("abort");
+        Backtracker instance = new IterativeCompleteSolver(createGrid(OPEN));
+        instance.abort();
+        instance.solve();
+    }
+
+}
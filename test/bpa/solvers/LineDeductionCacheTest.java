@@ -0,0 +1,114 @@
+package bpa.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code LineDeductionCache}.
+ */
+public class LineDeductionCacheTest {
+
+    /**
+     * Test of deduce method, of class LineDeductionCache, which should agree
+     * with {@code LinePatternTable.intersect()} on all line states.
+     */
+    @Test
+    public void testDeduce() {
+        System.out.println("deduce");
+        LineDeductionCache instance = new LineDeductionCache(64);
+        LinePatternTable table = LinePatternTable.forSize(6);
+        int[] expected = new int[2];
+        int[] result = new int[2];
+        for (int round = 0; round != 2; round ++) {
+            for (int filled = 0; filled != 1 << 6; filled ++) {
+                for (int ones = filled; ; ones = (ones - 1) & filled) {
+                    boolean compatible =
+                            table.intersect(filled, ones, expected);
+                    assertEquals(filled + "/" + ones, compatible,
+                            instance.deduce(6, filled, ones, result));
+                    assertArrayEquals(filled + "/" + ones, expected, result);
+                    if (ones == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        assertEquals("bounded", 64, instance.size());
+        assertEquals("lookups", 2 * 729,
+                instance.getHits() + instance.getMisses());
+    }
+
+    /**
+     * Test of deduce method, of class LineDeductionCache, on the hit and miss
+     * counters and the eviction of entries.
+     */
+    @Test
+    public void testEviction() {
+        System.out.println("eviction");
+        LineDeductionCache instance = new LineDeductionCache(2);
+        int[] result = new int[2];
+        instance.deduce(6, 0x21, 0, result);
+        instance.deduce(6, 0x03, 0x03, result);
+        assertEquals("misses", 2, instance.getMisses());
+
+        // the first entry is referenced, so the second one is evicted
+        instance.deduce(6, 0x21, 0, result);
+        assertEquals("hits", 1, instance.getHits());
+        instance.deduce(6, 0x07, 0x07, result);
+        assertEquals("size", 2, instance.size());
+        instance.deduce(6, 0x21, 0, result);
+        assertEquals("kept", 2, instance.getHits());
+        instance.deduce(6, 0x03, 0x03, result);
+        assertEquals("evicted", 4, instance.getMisses());
+
+        instance.clear();
+        assertEquals("cleared", 0, instance.size());
+        assertEquals("hits reset", 0, instance.getHits());
+        assertEquals("misses reset", 0, instance.getMisses());
+    }
+
+    /**
+     * Test of deduce method, of class LineDeductionCache, used by several
+     * threads at once.
+     */
+    @Test
+    public void testConcurrentDeduce() throws InterruptedException {
+        System.out.println("concurrent deduce");
+        final LineDeductionCache instance = new LineDeductionCache(16);
+        final LinePatternTable table = LinePatternTable.forSize(8);
+        final boolean[] failed = new boolean[1];
+        List<Thread> threads = new ArrayList();
+        for (int t = 0; t != 4; t ++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    int[] expected = new int[2];
+                    int[] result = new int[2];
+                    for (int filled = 0; filled != 1 << 8; filled ++) {
+                        int ones = filled & 0x55;
+                        table.intersect(filled, ones, expected);
+                        instance.deduce(8, filled, ones, result);
+                        if (expected[0] != result[0]
+                                || expected[1] != result[1]) {
+                            synchronized (failed) {
+                                failed[0] = true;
+                            }
+                        }
+                    }
+                }
+            };
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse("consistent", failed[0]);
+        assertTrue("bounded", instance.size() <= 16);
+        assertEquals("lookups", 4 * 256,
+                instance.getHits() + instance.getMisses());
+    }
+
+}
@@ -0,0 +1,96 @@
+package bpa.solvers;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code LinePatternTable}.
+ */
+public class LinePatternTableTest {
+
+    /** The numbers of valid lines of sizes 2, 4, ..., 14. */
+    private static final int[] PATTERN_COUNTS = {
+        2, 6, 14, 34, 84, 208, 518
+    };
+
+    /**
+     * Returns whether the given line of the given size is valid, checked cell
+     * by cell.
+     */
+    private boolean isValid(final int pattern, final int size) {
+        int ones = Integer.bitCount(pattern);
+        if (ones > size / 2 || size - ones > size / 2) {
+            return false;
+        }
+        for (int i = 0; i < size - 2; i ++) {
+            int triplet = (pattern >> i) & 7;
+            if (triplet == 0 || triplet == 7) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Test of forSize method, of class LinePatternTable.
+     */
+    @Test
+    public void testForSize() {
+        System.out.println("forSize");
+        for (int i = 0; i != PATTERN_COUNTS.length; i ++) {
+            int size = 2 * (i + 1);
+            LinePatternTable table = LinePatternTable.forSize(size);
+            assertEquals("size", size, table.getSize());
+            assertEquals("count " + size, PATTERN_COUNTS[i],
+                    table.getPatternCount());
+            assertSame("shared", table, LinePatternTable.forSize(size));
+            for (int pattern = 0; pattern != 1 << size; pattern ++) {
+                assertEquals("valid " + pattern, isValid(pattern, size),
+                        table.isValid(pattern));
+            }
+        }
+        assertEquals("odd size", 0, LinePatternTable.forSize(5)
+                .getPatternCount());
+    }
+
+    /**
+     * Test of forSize method, of class LinePatternTable, violating its
+     * precondition.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testForSizeTooLarge() {
+        System.out.println("forSize too large");
+        LinePatternTable.forSize(LinePatternTable.MAX_SIZE + 1);
+    }
+
+    /**
+     * Test of intersect method, of class LinePatternTable.
+     */
+    @Test
+    public void testIntersect() {
+        System.out.println("intersect");
+        LinePatternTable table = LinePatternTable.forSize(6);
+        int[] result = new int[2];
+
+        // 0 . . . . 0 forces ones at both cells next to the zeros
+        assertTrue(table.intersect(0x21, 0, result));
+        assertEquals("ones", 0x12, result[0]);
+        assertEquals("zeros", 0, result[1]);
+
+        // 1 1 . . . . forces a zero next to the ones
+        assertTrue(table.intersect(0x03, 0x03, result));
+        assertEquals("ones", 0, result[0] & 0x04);
+        assertEquals("zeros", 0x04, result[1] & 0x04);
+
+        // an empty line forces nothing
+        assertTrue(table.intersect(0, 0, result));
+        assertEquals("ones", 0, result[0]);
+        assertEquals("zeros", 0, result[1]);
+
+        // 1 1 1 . . . agrees with no valid line
+        assertFalse(table.intersect(0x07, 0x07, result));
+        assertEquals("ones", 0, result[0]);
+        assertEquals("zeros", 0, result[1]);
+    }
+
+}
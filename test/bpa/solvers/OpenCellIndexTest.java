@@ -0,0 +1,144 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code OpenCellIndex} and {@code CellScorer}.
+ */
+public class OpenCellIndexTest extends SolverTestCases {
+
+    /** A puzzle with many solutions. */
+    private static final String OPEN =
+              ". . . .\n"
+            + ". . . .\n"
+            + ". . . .\n"
+            + ". . . .\n";
+
+    /**
+     * Asserts that the given position is an open cell with the highest score
+     * in the given grid.
+     */
+    private void assertBest(final String message, final Grid grid,
+            final CellScorer scorer, final int position) {
+        int width = grid.getWidth();
+        int x = position % width;
+        int y = position / width;
+        assertEquals(message + " open", CellState.EMPTY,
+                grid.getCellState(x, y));
+        int best = -1;
+        for (int j = 0; j != grid.getHeight(); j ++) {
+            for (int i = 0; i != width; i ++) {
+                if (grid.getCellState(i, j) == CellState.EMPTY) {
+                    best = Math.max(best, scorer.score(grid, i, j));
+                }
+            }
+        }
+        assertEquals(message + " best", best, scorer.score(grid, x, y));
+    }
+
+    /**
+     * Test of findOpenPosition method, of class OpenCellIndex, while changing
+     * and backtracking cells at random through a trail.
+     */
+    @Test
+    public void testFindOpenPosition() {
+        System.out.println("findOpenPosition");
+        for (CellScorer scorer : CellScorer.values()) {
+            Random random = new Random(7);
+            Grid grid = createGrid(SINGLE);
+            Trail trail = new Trail(grid);
+            OpenCellIndex instance = new OpenCellIndex(grid, scorer);
+            trail.setListener(instance);
+            for (int step = 0; step != 200; step ++) {
+                if (grid.getEmptyCount() != 0
+                        && (trail.getLevel() == 0 || random.nextInt(3) != 0)) {
+                    int position = instance.findOpenPosition();
+                    assertBest(scorer + " " + step, grid, scorer, position);
+                    if (scorer == CellScorer.FILLED_NEIGHBOURS) {
+                        assertEquals(scorer + " " + step + " order",
+                                CellOrder.FILLED_NEIGHBOURS
+                                .findOpenPosition(grid), position);
+                    }
+                    trail.mark();
+                    trail.set(position, random.nextBoolean()
+                            ? CellState.ZERO : CellState.ONE);
+                }
+                else {
+                    trail.backtrack();
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of findOpenPosition method, of class OpenCellIndex, on a full grid.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testFindOpenPositionFull() throws InterruptedException {
+        System.out.println("findOpenPosition full");
+        Grid grid = createGrid(SINGLE);
+        new SingleSolver(grid).solve();
+        new OpenCellIndex(grid, CellScorer.FULLEST_LINES).findOpenPosition();
+    }
+
+    /**
+     * Test of the backtrackers with each cell scorer set, which should find
+     * the same solutions as with the cell order.
+     */
+    @Test
+    public void testSolve() throws InterruptedException {
+        System.out.println("solve");
+        Backtracker reference = new CompleteSolver(createGrid(OPEN));
+        reference.setCellOrder(CellOrder.FILLED_NEIGHBOURS);
+        Set<String> expected = collectDistinct(reference);
+        Grid single = createGrid(SINGLE);
+        reference = new SingleSolver(single);
+        reference.setCellOrder(CellOrder.FILLED_NEIGHBOURS);
+        reference.solve();
+
+        for (CellScorer scorer : CellScorer.values()) {
+            Backtracker[] backtrackers = {
+                new CompleteSolver(createGrid(OPEN)),
+                new IterativeCompleteSolver(createGrid(OPEN)),
+                new ParallelCompleteSolver(createGrid(OPEN), 2)
+            };
+            for (Backtracker backtracker : backtrackers) {
+                backtracker.setCellScorer(scorer);
+                assertEquals(scorer + " " + backtracker.getClass()
+                        .getSimpleName(), expected,
+                        collectDistinct(backtracker));
+            }
+
+            Grid grid = createGrid(SINGLE);
+            Backtracker instance = new SingleSolver(grid);
+            instance.setCellScorer(scorer);
+            instance.solve();
+            assertEquals(scorer + " single", single, grid);
+        }
+    }
+
+    /**
+     * Test of the default cell scorer of the backtrackers, which should find
+     * the same first solution as the default cell order.
+     */
+    @Test
+    public void testDefaultScorer() throws InterruptedException {
+        System.out.println("default scorer");
+        Grid expected = createGrid(OPEN);
+        Backtracker reference = new SingleSolver(expected);
+        reference.setCellOrder(CellOrder.FILLED_NEIGHBOURS);
+        reference.solve();
+        Grid grid = createGrid(OPEN);
+        new SingleSolver(grid).solve();
+        assertEquals(expected, grid);
+        grid = createGrid(OPEN);
+        new IterativeSingleSolver(grid).solve();
+        assertEquals(expected, grid);
+    }
+
+}
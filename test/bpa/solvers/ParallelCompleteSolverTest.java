@@ -0,0 +1,98 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code ParallelCompleteSolver}, which is compared to
+ * {@code CompleteSolver}.
+ */
+public class ParallelCompleteSolverTest extends SolverTestCases {
+
+    /** A puzzle with many solutions. */
+    private static final String OPEN =
+              ". . . . . .\n"
+            + ". . 1 . . .\n"
+            + ". . . . 0 .\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n";
+
+    /**
+     * Solves the grid of the given solver, using the iterative triplet and
+     * line strategy, and collects the notified solutions.
+     */
+    private Set<String> solveAll(final Backtracker solver)
+        throws InterruptedException {
+        solver.setHelperStrategy(createStrategy());
+        return collectDistinct(solver);
+    }
+
+    /**
+     * Test of solve method, of class ParallelCompleteSolver.
+     */
+    @Test
+    public void testSolve() throws InterruptedException {
+        System.out.println("solve");
+        Set<String> expected = solveAll(new CompleteSolver(createGrid(OPEN)));
+        for (int parallelism : new int[] {1, 4}) {
+            Grid grid = createGrid(OPEN);
+            Set<String> solutions = solveAll(
+                    new ParallelCompleteSolver(grid, parallelism));
+
+            assertFalse("found solutions", solutions.isEmpty());
+            assertEquals("same solutions", expected, solutions);
+            assertEquals("unchanged", createGrid(OPEN), grid);
+        }
+    }
+
+    /**
+     * Test of solve method, of class ParallelCompleteSolver, solving twice on
+     * the pool of the solver and on a pool shared by two solvers, which
+     * should be left running.
+     */
+    @Test
+    public void testSolvePools() throws InterruptedException {
+        System.out.println("solve pools");
+        Set<String> expected = solveAll(new CompleteSolver(createGrid(OPEN)));
+        Backtracker instance = new ParallelCompleteSolver(createGrid(OPEN), 2);
+        assertEquals("first", expected, solveAll(instance));
+        assertEquals("second", expected, solveAll(instance));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int i = 0; i != 2; i ++) {
+                assertEquals("shared pool", expected, solveAll(
+                        new ParallelCompleteSolver(createGrid(OPEN), pool)));
+                assertFalse("running", pool.isShutdown());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test of abort method, of class ParallelCompleteSolver.
+     */
+    @Test(expected = InterruptedException.class)
+    public void testAbort() throws InterruptedException {
+        System.out.println("abort");
+        Backtracker instance = new ParallelCompleteSolver(createGrid(OPEN), 2);
+        instance.abort();
+        instance.solve();
+    }
+
+    /**
+     * Test of constructor robustness, of class ParallelCompleteSolver.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRobustness() {
+        System.out.println("constructor robustness");
+        new ParallelCompleteSolver(createGrid(OPEN), 0);
+    }
+
+}
@@ -0,0 +1,128 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import bpa.solvers.commands.Command;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code ParallelProbingStrategy}.
+ */
+public class ParallelProbingStrategyTest extends SolverTestCases {
+
+    /**
+     * A puzzle with a single solution, in which the triplet and line
+     * strategies get stuck, while one level of lookahead solves it.
+     */
+    private static final String LOOKAHEAD =
+              "0 0 . . . .\n"
+            + ". . . . 1 1\n"
+            + ". . 0 1 . .\n"
+            + ". 1 . . 0 .\n"
+            + "0 . . . . .\n"
+            + ". . . 1 . .\n";
+
+    /** The numbers of threads tested. */
+    private static final int[] PARALLELISMS = {1, 2, 4};
+
+    /**
+     * Test of apply method, of class ParallelProbingStrategy, which should
+     * return all changes as a single command.
+     */
+    @Test
+    public void testApply() throws InterruptedException {
+        System.out.println("apply");
+        Grid solution = createGrid(LOOKAHEAD);
+        new SingleSolver(solution).solve();
+        for (int parallelism : PARALLELISMS) {
+            Grid grid = createGrid(LOOKAHEAD);
+            Command command = new ParallelProbingStrategy(
+                    new PropagationStrategy(), parallelism).apply(grid);
+            assertEquals("solved " + parallelism, solution, grid);
+
+            command.undo();
+            assertEquals("undone " + parallelism, createGrid(LOOKAHEAD), grid);
+            command.execute();
+            assertEquals("redone " + parallelism, solution, grid);
+        }
+    }
+
+    /**
+     * Test of apply method, of class ParallelProbingStrategy, through a trail.
+     */
+    @Test
+    public void testApplyTrail() throws InterruptedException {
+        System.out.println("apply trail");
+        Grid solution = createGrid(LOOKAHEAD);
+        new SingleSolver(solution).solve();
+        for (int parallelism : PARALLELISMS) {
+            Grid grid = createGrid(LOOKAHEAD);
+            Trail trail = new Trail(grid);
+            trail.mark();
+            Strategy instance = new ParallelProbingStrategy(
+                    new PropagationStrategy(), parallelism);
+            assertTrue("changed", instance.apply(trail));
+            assertEquals("solved " + parallelism, solution, grid);
+            assertFalse("fixpoint", instance.apply(trail));
+
+            trail.backtrack();
+            assertEquals("backtracked " + parallelism, createGrid(LOOKAHEAD),
+                    grid);
+        }
+    }
+
+    /**
+     * Test of apply method, of class ParallelProbingStrategy, probing on the
+     * common pool and on a pool shared by a copy, which should be left
+     * running.
+     */
+    @Test
+    public void testApplyPools() throws InterruptedException {
+        System.out.println("apply pools");
+        Grid solution = createGrid(LOOKAHEAD);
+        new SingleSolver(solution).solve();
+        Grid grid = createGrid(LOOKAHEAD);
+        new ParallelProbingStrategy(new PropagationStrategy()).apply(grid);
+        assertEquals("common pool", solution, grid);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Strategy instance = new ParallelProbingStrategy(
+                    new PropagationStrategy(), pool);
+            for (Strategy strategy : new Strategy[] {instance,
+                    instance.copy()}) {
+                grid = createGrid(LOOKAHEAD);
+                strategy.apply(grid);
+                assertEquals("shared pool", solution, grid);
+                assertFalse("running", pool.isShutdown());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test of apply method, of class ParallelProbingStrategy, on a puzzle
+     * without solutions.
+     */
+    @Test
+    public void testApplyFalse() {
+        System.out.println("apply false");
+        Grid grid = createGrid(FALSE);
+        new ParallelProbingStrategy(new PropagationStrategy(), 2).apply(grid);
+        assertTrue("violation", grid.hasAnyViolation());
+    }
+
+    /**
+     * Test of the constructor of class ParallelProbingStrategy, violating its
+     * precondition.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroParallelism() {
+        System.out.println("zero parallelism");
+        new ParallelProbingStrategy(new PropagationStrategy(), 0);
+    }
+
+}
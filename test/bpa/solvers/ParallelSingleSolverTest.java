@@ -0,0 +1,93 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code ParallelSingleSolver} and {@code CancellationToken}.
+ */
+public class ParallelSingleSolverTest extends SolverTestCases {
+
+    /** A puzzle with many solutions. */
+    private static final String OPEN =
+              ". . . . . . . .\n"
+            + ". . 1 . . . . .\n"
+            + ". . . . 0 . . .\n"
+            + ". 1 . . . . . .\n"
+            + ". . . . . . . 1\n"
+            + ". . . . . . . .\n"
+            + ". . . . . . . .\n"
+            + ". . . . . . . .\n";
+
+    /**
+     * Test of solve method, of class ParallelSingleSolver.
+     */
+    @Test
+    public void testSolve() throws InterruptedException {
+        System.out.println("solve");
+        Grid expected = createGrid(SINGLE);
+        new SingleSolver(expected).solve();
+        for (int parallelism : new int[] {1, 4}) {
+            Grid grid = createGrid(SINGLE);
+            Backtracker instance = new ParallelSingleSolver(grid, parallelism);
+            instance.setHelperStrategy(createStrategy());
+            instance.solve();
+            assertEquals("unique solution", expected, grid);
+
+            grid = createGrid(OPEN);
+            instance = new ParallelSingleSolver(grid, parallelism);
+            instance.solve();
+            assertTrue("some solution", grid.isSolved());
+            assertFalse("not aborted",
+                    instance.getCancellationToken().isCancelled());
+
+            grid = createGrid(FALSE);
+            new ParallelSingleSolver(grid, parallelism).solve();
+            assertEquals("no solution", createGrid(FALSE), grid);
+        }
+    }
+
+    /**
+     * Test of abort method, of class ParallelSingleSolver, through a shared
+     * cancellation token.
+     */
+    @Test
+    public void testAbort() {
+        System.out.println("abort");
+        CancellationToken token = new CancellationToken();
+        Grid grid = createGrid(OPEN);
+        Backtracker instance = new ParallelSingleSolver(grid, 2);
+        Backtracker other = new ParallelCompleteSolver(createGrid(OPEN), 2);
+        instance.setCancellationToken(token);
+        other.setCancellationToken(token);
+        other.abort();
+        try {
+            instance.solve();
+            fail("solve() should have been aborted");
+        }
+        catch (InterruptedException e) {
+            assertEquals("unchanged", createGrid(OPEN), grid);
+        }
+    }
+
+    /**
+     * Test of isCancelled method, of class CancellationToken.
+     */
+    @Test
+    public void testCancellationToken() {
+        System.out.println("CancellationToken");
+        CancellationToken parent = new CancellationToken();
+        CancellationToken child = new CancellationToken(parent);
+        assertFalse(child.isCancelled());
+
+        child.cancel();
+        assertTrue(child.isCancelled());
+        assertFalse("parent unaffected", parent.isCancelled());
+
+        child = new CancellationToken(parent);
+        parent.cancel();
+        assertTrue("cancelled through parent", child.isCancelled());
+    }
+
+}
@@ -0,0 +1,96 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import bpa.solvers.commands.Command;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code PatternStrategy}.
+ */
+public class PatternStrategyTest extends SolverTestCases {
+
+    /**
+     * A puzzle in which neither the triplet nor the line strategy finds any
+     * forced change, while the first row forces two ones.
+     */
+    private static final String HIDDEN =
+              "0 . . . . 0\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n"
+            + ". . . . . .\n";
+
+    /**
+     * Test of apply method, of class PatternStrategy.
+     */
+    @Test
+    public void testApply() {
+        System.out.println("apply");
+        Grid grid = createGrid(HIDDEN);
+        assertFalse("propagation",
+                new PropagationStrategy().apply(new Trail(grid)));
+
+        Command command = new PatternStrategy().apply(grid);
+        assertEquals(CellState.ONE, grid.getCellState(1, 0));
+        assertEquals(CellState.ONE, grid.getCellState(4, 0));
+        assertEquals("changed cells", 4, 36 - grid.getEmptyCount());
+
+        command.undo();
+        assertEquals("undone", createGrid(HIDDEN), grid);
+    }
+
+    /**
+     * Test of apply method, of class PatternStrategy, which should propagate
+     * all changes in a single call, and find at least the changes the triplet
+     * and line strategies find.
+     */
+    @Test
+    public void testApplyPropagates() {
+        System.out.println("apply propagates");
+        Grid weaker = createGrid(SINGLE);
+        new PropagationStrategy().apply(weaker);
+
+        Grid grid = createGrid(SINGLE);
+        Trail trail = new Trail(grid);
+        trail.mark();
+        assertTrue("applied", new PatternStrategy().apply(trail));
+        assertFalse("violation", grid.hasAnyViolation());
+        assertFalse("exhausted", new PatternStrategy().apply(trail));
+        Grid commanded = createGrid(SINGLE);
+        new PatternStrategy().apply(commanded);
+        assertEquals("same as through commands", commanded, grid);
+        assertTrue("at least as strong",
+                grid.getEmptyCount() <= weaker.getEmptyCount());
+        for (int x = 0; x != grid.getWidth(); x ++) {
+            for (int y = 0; y != grid.getHeight(); y ++) {
+                if (weaker.getCellState(x, y) != CellState.EMPTY) {
+                    assertEquals(x + "," + y, weaker.getCellState(x, y),
+                            grid.getCellState(x, y));
+                }
+            }
+        }
+
+        trail.backtrack();
+        assertEquals("backtracked", createGrid(SINGLE), grid);
+    }
+
+    /**
+     * Test of PatternStrategy as the helper strategy of a backtracker.
+     */
+    @Test
+    public void testSolve() throws InterruptedException {
+        System.out.println("solve");
+        Grid expected = createGrid(SINGLE);
+        new SingleSolver(expected).solve();
+
+        Grid grid = createGrid(SINGLE);
+        Backtracker instance = new IterativeSingleSolver(grid);
+        instance.setHelperStrategy(new PatternStrategy());
+        instance.solve();
+        assertEquals("unique solution", expected, grid);
+    }
+
+}
@@ -0,0 +1,85 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code PortfolioSolver} and {@code CellOrder}.
+ */
+public class PortfolioSolverTest extends SolverTestCases {
+
+    /**
+     * Creates a portfolio of the default configurations of both the triplet
+     * and line strategy.
+     */
+    private List<PortfolioSolver.Configuration> createConfigurations() {
+        CompositeStrategy composite = new CompositeStrategy();
+        composite.add(new TripletStrategy());
+        composite.add(new LineStrategy());
+        return PortfolioSolver.defaultConfigurations(composite);
+    }
+
+    /**
+     * Test of solve method, of class PortfolioSolver.
+     */
+    @Test
+    public void testSolve() throws InterruptedException {
+        System.out.println("solve");
+        Grid expected = createGrid(SINGLE);
+        new SingleSolver(expected).solve();
+        List<PortfolioSolver.Configuration> configurations =
+                createConfigurations();
+
+        Grid grid = createGrid(SINGLE);
+        PortfolioSolver instance = new PortfolioSolver(grid, configurations);
+        instance.solve();
+        assertEquals("unique solution", expected, grid);
+        assertNotNull("winner", instance.getWinner());
+
+        grid = createGrid(FALSE);
+        instance = new PortfolioSolver(grid, configurations);
+        instance.solve();
+        assertEquals("no solution", createGrid(FALSE), grid);
+
+        int wins = 0;
+        for (PortfolioSolver.Configuration configuration : configurations) {
+            assertEquals("races", 2, configuration.getRaces());
+            wins += configuration.getWins();
+        }
+        assertEquals("wins", 2, wins);
+    }
+
+    /**
+     * Test of abort method, of class PortfolioSolver.
+     */
+    @Test(expected = InterruptedException.class)
+    public void testAbort() throws InterruptedException {
+        System.out.println("abort");
+        Backtracker instance = new PortfolioSolver(createGrid(SINGLE),
+                createConfigurations());
+        instance.abort();
+        instance.solve();
+    }
+
+    /**
+     * Test of findOpenPosition method, of class CellOrder.
+     */
+    @Test
+    public void testCellOrder() {
+        System.out.println("CellOrder");
+        Grid grid = createGrid(SINGLE);
+        for (CellOrder order : CellOrder.values()) {
+            int position = order.findOpenPosition(grid);
+            assertEquals(order.toString(), CellState.EMPTY, grid.getCellState(
+                    position % grid.getWidth(), position / grid.getWidth()));
+        }
+        assertEquals("ROW_MAJOR", 0,
+                CellOrder.ROW_MAJOR.findOpenPosition(grid));
+        assertEquals("FULLEST_LINES", 2 * 6 + 4,
+                CellOrder.FULLEST_LINES.findOpenPosition(grid));
+    }
+
+}
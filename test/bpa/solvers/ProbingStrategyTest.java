@@ -0,0 +1,170 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Grid;
+import bpa.solvers.commands.Command;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code ProbingStrategy}.
+ */
+public class ProbingStrategyTest extends SolverTestCases {
+
+    /**
+     * A puzzle with a single solution, in which the triplet and line
+     * strategies get stuck, while one level of lookahead solves it.
+     */
+    private static final String LOOKAHEAD =
+              "0 0 . . . .\n"
+            + ". . . . 1 1\n"
+            + ". . 0 1 . .\n"
+            + ". 1 . . 0 .\n"
+            + "0 . . . . .\n"
+            + ". . . 1 . .\n";
+
+    /**
+     * The puzzle LOOKAHEAD turned by half a turn, in which the first four open
+     * cells, row by row, deduce nothing when probed after propagation, while
+     * the fifth does.
+     */
+    private static final String TURNED =
+              ". . 1 . . .\n"
+            + ". . . . . 0\n"
+            + ". 0 . . 1 .\n"
+            + ". . 1 0 . .\n"
+            + "1 1 . . . .\n"
+            + ". . . . 0 0\n";
+
+    /**
+     * Asserts that all filled cells of the given grid agree with the given
+     * solution.
+     */
+    private void assertAgrees(final Grid solution, final Grid grid) {
+        for (int x = 0; x != grid.getWidth(); x ++) {
+            for (int y = 0; y != grid.getHeight(); y ++) {
+                if (grid.getCellState(x, y) != CellState.EMPTY) {
+                    assertEquals(x + "," + y, solution.getCellState(x, y),
+                            grid.getCellState(x, y));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of apply method, of class ProbingStrategy, applied iteratively
+     * through commands.
+     */
+    @Test
+    public void testApply() throws InterruptedException {
+        System.out.println("apply");
+        Grid solution = createGrid(LOOKAHEAD);
+        new SingleSolver(solution).solve();
+        Grid propagated = createGrid(LOOKAHEAD);
+        new PropagationStrategy().apply(propagated);
+
+        Grid grid = createGrid(LOOKAHEAD);
+        Command command = new IterativeStrategy(
+                new ProbingStrategy(new PropagationStrategy())).apply(grid);
+        assertTrue("stuck", propagated.getEmptyCount() != 0);
+        assertEquals("lookahead", solution, grid);
+
+        command.undo();
+        assertEquals("undone", createGrid(LOOKAHEAD), grid);
+    }
+
+    /**
+     * Test of apply method, of class ProbingStrategy, through a trail, with a
+     * budget of a single probe per call.
+     */
+    @Test
+    public void testApplyTrail() throws InterruptedException {
+        System.out.println("apply trail");
+        Grid solution = createGrid(LOOKAHEAD);
+        new SingleSolver(solution).solve();
+
+        Grid grid = createGrid(LOOKAHEAD);
+        Trail trail = new Trail(grid);
+        trail.mark();
+        Strategy instance = new ProbingStrategy(new PropagationStrategy(), 1);
+        while (instance.apply(trail)) {
+            assertAgrees(solution, grid);
+        }
+        assertEquals("lookahead", solution, grid);
+
+        trail.backtrack();
+        assertEquals("backtracked", createGrid(LOOKAHEAD), grid);
+    }
+
+    /**
+     * Test of apply method, of class ProbingStrategy, through a trail, with a
+     * budget that only reaches the first cell that deduces anything in the
+     * second call that probes.
+     */
+    @Test
+    public void testApplyBudget() throws InterruptedException {
+        System.out.println("apply budget");
+        Grid solution = createGrid(TURNED);
+        new SingleSolver(solution).solve();
+
+        Grid grid = createGrid(TURNED);
+        Trail trail = new Trail(grid);
+        trail.mark();
+        Strategy instance = new ProbingStrategy(new PropagationStrategy(), 4);
+        assertTrue("propagated", instance.apply(trail));
+        int empty = grid.getEmptyCount();
+        assertFalse("first budget", instance.apply(trail));
+        assertEquals("unchanged", empty, grid.getEmptyCount());
+        assertTrue("second budget", instance.apply(trail));
+        assertAgrees(solution, grid);
+    }
+
+    /**
+     * Test of apply method, of class ProbingStrategy, on a puzzle without
+     * solutions.
+     */
+    @Test
+    public void testApplyFalse() {
+        System.out.println("apply false");
+        Grid grid = createGrid(FALSE);
+        new IterativeStrategy(new ProbingStrategy(new PropagationStrategy()))
+                .apply(grid);
+        assertTrue("violation", grid.hasAnyViolation());
+    }
+
+    /**
+     * Test of ProbingStrategy as the helper strategy of a backtracker.
+     */
+    @Test
+    public void testSolve() throws InterruptedException {
+        System.out.println("solve");
+        Grid expected = createGrid(LOOKAHEAD);
+        new SingleSolver(expected).solve();
+
+        Grid grid = createGrid(LOOKAHEAD);
+        Backtracker instance = new IterativeSingleSolver(grid);
+        instance.setHelperStrategy(new IterativeStrategy(
+                new ProbingStrategy(new PropagationStrategy(), 4)));
+        instance.solve();
+        assertEquals("unique solution", expected, grid);
+
+        Grid unsolvable = createGrid(FALSE);
+        instance = new IterativeSingleSolver(unsolvable);
+        instance.setHelperStrategy(new ProbingStrategy(
+                new PropagationStrategy(), 4));
+        instance.solve();
+        assertFalse("no solution", unsolvable.isSolved());
+        assertEquals("restored", createGrid(FALSE), unsolvable);
+    }
+
+    /**
+     * Test of the constructor of class ProbingStrategy, violating its
+     * precondition.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroBudget() {
+        System.out.println("zero budget");
+        new ProbingStrategy(new PropagationStrategy(), 0);
+    }
+
+}
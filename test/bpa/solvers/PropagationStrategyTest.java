@@ -0,0 +1,91 @@
+package bpa.solvers;
+
+import bpa.model.Grid;
+import bpa.model.GridArrays;
+import bpa.solvers.commands.Command;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code PropagationStrategy}, which is compared to an
+ * {@code IterativeStrategy} decorating the triplet and line strategies.
+ */
+public class PropagationStrategyTest extends SolverTestCases {
+
+    /** The specifications of the grids the strategies are compared on. */
+    private static final String[] SPECIFICATIONS = {
+        "partlySolvedSpec", "correctSpec", "completeSpec"
+    };
+
+    /**
+     * Constructs a grid with the binary puzzle constraints, which is
+     * initialized using the given {@code gridSpecification} that points to
+     * some file.
+     */
+    private Grid readGrid(final String gridSpecification) {
+        try {
+            return new GridArrays(new Scanner(new File(gridSpecification
+                    + ".txt")), createConstraints());
+        }
+        catch (FileNotFoundException e) {
+            System.out.println("Test file " + gridSpecification + ".txt could "
+                    + "not be found. Aborting all tests.");
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Test of apply method, of class PropagationStrategy, through commands.
+     */
+    @Test
+    public void testApply() {
+        System.out.println("apply");
+        for (String specification : SPECIFICATIONS) {
+            for (int flags = 1; flags != 4; flags ++) {
+                boolean triplets = (flags & 1) != 0;
+                boolean lines = (flags & 2) != 0;
+                Grid expected = readGrid(specification);
+                createStrategy(triplets, lines).apply(expected);
+
+                Grid grid = readGrid(specification);
+                Command command = new PropagationStrategy(triplets, lines)
+                        .apply(grid);
+                assertEquals(specification + " " + flags, expected, grid);
+
+                command.undo();
+                assertEquals(specification + " undone",
+                        readGrid(specification), grid);
+            }
+        }
+    }
+
+    /**
+     * Test of apply method, of class PropagationStrategy, through a trail.
+     */
+    @Test
+    public void testApplyTrail() {
+        System.out.println("apply trail");
+        for (String specification : SPECIFICATIONS) {
+            Grid expected = readGrid(specification);
+            createStrategy(true, true).apply(expected);
+
+            Grid grid = readGrid(specification);
+            Trail trail = new Trail(grid);
+            trail.mark();
+            Strategy instance = new PropagationStrategy();
+            boolean changed = instance.apply(trail);
+            assertEquals(specification, expected, grid);
+            assertEquals("changed", trail.size() != 0, changed);
+            assertFalse("fixpoint", instance.apply(trail));
+
+            trail.backtrack();
+            assertEquals(specification + " backtracked",
+                    readGrid(specification), grid);
+        }
+    }
+
+}
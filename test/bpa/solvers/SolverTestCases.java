@@ -0,0 +1,138 @@
+package bpa.solvers;
+
+import bpa.model.BinaryPuzzleLineConstraint;
+import bpa.model.BinaryPuzzleTripletConstraint;
+import bpa.model.Constraint;
+import bpa.model.Grid;
+import bpa.model.GridPacked;
+import bpa.model.GridReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.Set;
+import static org.junit.Assert.*;
+
+/**
+ * Abstract test cases for the strategies and solvers, to be extended to
+ * obtain concrete test cases for a strategy or a solver. Provides the puzzles
+ * shared by these test cases, and the factories of the grids and strategies
+ * built from them.
+ */
+public abstract class SolverTestCases {
+
+    /**
+     * PUZZLE OVERVIEW:
+     *
+     * The puzzles are given as specifications in the format read by
+     * {@code GridReader}, each line of which is a row of the grid.
+     *
+     * SINGLE:
+     * A puzzle with a single solution, which the triplet and line strategies
+     * solve together with some backtracking.
+     *
+     * FALSE:
+     * A puzzle without solutions, since its first row holds three adjacent
+     * ones.
+     */
+
+    /** A puzzle with a single solution. */
+    protected static final String SINGLE =
+              ". . 1 . . 1\n"
+            + ". . . . . .\n"
+            + "1 1 . 1 . .\n"
+            + "1 1 . . 0 .\n"
+            + ". . . . . .\n"
+            + ". . . . 0 .\n";
+
+    /** A puzzle without solutions. */
+    protected static final String FALSE =
+              "1 1 1 .\n"
+            + ". . . .\n"
+            + "1 . . .\n"
+            + ". . . .\n";
+
+    /**
+     * Creates the constraints of a binary puzzle: the triplet and the line
+     * constraint.
+     */
+    protected List<Constraint> createConstraints() {
+        return Arrays.asList(new BinaryPuzzleTripletConstraint(),
+                new BinaryPuzzleLineConstraint());
+    }
+
+    /**
+     * Constructs a grid with the binary puzzle constraints from the given
+     * specification.
+     *
+     * @param specification  one of the puzzles described above, or a puzzle
+     * of a test case in the same format
+     */
+    protected Grid createGrid(final String specification) {
+        return new GridPacked(GridReader.parse(ByteBuffer.wrap(
+                specification.getBytes(StandardCharsets.US_ASCII))),
+                createConstraints());
+    }
+
+    /**
+     * Creates an iterative strategy of the given strategies.
+     *
+     * @param triplets  whether the triplet strategy is applied
+     * @param lines  whether the line strategy is applied
+     */
+    protected Strategy createStrategy(final boolean triplets,
+            final boolean lines) {
+        CompositeStrategy composite = new CompositeStrategy();
+        if (triplets) {
+            composite.add(new TripletStrategy());
+        }
+        if (lines) {
+            composite.add(new LineStrategy());
+        }
+        return new IterativeStrategy(composite);
+    }
+
+    /**
+     * Creates an iterative strategy of both the triplet and line strategy.
+     */
+    protected Strategy createStrategy() {
+        return createStrategy(true, true);
+    }
+
+    /**
+     * Solves the grid of the given solver and collects the notified
+     * solutions, in order of notification. The solutions may be notified from
+     * several threads.
+     */
+    protected List<String> collect(final Backtracker solver)
+        throws InterruptedException {
+        final List<String> solutions = Collections.synchronizedList(
+                new ArrayList<String>());
+        solver.addObserver(new Observer() {
+            @Override
+            public void update(final Observable o, final Object arg) {
+                solutions.add((String) arg);
+            }
+        });
+        solver.solve();
+        return solutions;
+    }
+
+    /**
+     * Solves the grid of the given solver and collects the notified
+     * solutions, failing if any solution is notified twice.
+     */
+    protected Set<String> collectDistinct(final Backtracker solver)
+        throws InterruptedException {
+        List<String> solutions = collect(solver);
+        Set<String> distinct = new HashSet<String>(solutions);
+        assertEquals("distinct", solutions.size(), distinct.size());
+        return distinct;
+    }
+
+}
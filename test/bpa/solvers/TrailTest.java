@@ -0,0 +1,99 @@
+package bpa.solvers;
+
+import bpa.model.CellState;
+import bpa.model.Constraint;
+import bpa.model.Grid;
+import bpa.model.GridPacked;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@code Trail}.
+ */
+public class TrailTest {
+
+    /** Test fixture. */
+    private Trail instance;
+
+    /** The grid of the test fixture. */
+    private Grid grid;
+
+    @Before
+    public void setUp() {
+        List<Constraint> constraints = Arrays.asList();
+        grid = new GridPacked(4, 6, constraints);
+        instance = new Trail(grid);
+    }
+
+    /**
+     * Test of set method, of class Trail.
+     */
+    @Test
+    public void testSet() {
+        System.out.println("set");
+        instance.set(3, 5, CellState.ONE);
+        instance.set(1 * 4 + 2, CellState.ZERO);
+
+        assertEquals("(3, 5)", CellState.ONE, grid.getCellState(3, 5));
+        assertEquals("(2, 1)", CellState.ZERO, grid.getCellState(2, 1));
+        assertEquals("size", 2, instance.size());
+
+        instance.set(3, 5, CellState.ONE);
+        assertEquals("unchanged cell is not recorded", 2, instance.size());
+    }
+
+    /**
+     * Test of backtrack method, of class Trail.
+     */
+    @Test
+    public void testBacktrack() {
+        System.out.println("backtrack");
+        instance.set(0, 0, CellState.ZERO);
+        instance.mark();
+        instance.set(1, 0, CellState.ONE);
+        instance.set(0, 0, CellState.ONE);
+        instance.mark();
+        instance.set(2, 3, CellState.ZERO);
+        assertEquals("level", 2, instance.getLevel());
+
+        instance.backtrack();
+        assertEquals("(2, 3)", CellState.EMPTY, grid.getCellState(2, 3));
+        assertEquals("(0, 0) after inner", CellState.ONE,
+                grid.getCellState(0, 0));
+
+        instance.backtrack();
+        assertEquals("(1, 0)", CellState.EMPTY, grid.getCellState(1, 0));
+        assertEquals("(0, 0) restored", CellState.ZERO,
+                grid.getCellState(0, 0));
+        assertEquals("level", 0, instance.getLevel());
+        assertEquals("size", 1, instance.size());
+    }
+
+    /**
+     * Test of clear method, of class Trail.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("clear");
+        instance.mark();
+        instance.set(1, 1, CellState.ONE);
+        instance.clear();
+
+        assertEquals("kept", CellState.ONE, grid.getCellState(1, 1));
+        assertEquals("size", 0, instance.size());
+        assertEquals("level", 0, instance.getLevel());
+    }
+
+    /**
+     * Test of backtrack method robustness, of class Trail.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testBacktrackRobustness() {
+        System.out.println("backtrack robustness");
+        instance.backtrack();
+    }
+
+}